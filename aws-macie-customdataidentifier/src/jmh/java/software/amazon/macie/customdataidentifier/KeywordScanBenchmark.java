@@ -0,0 +1,74 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Counts keyword occurrences in 1 MiB of text with {@link AhoCorasick} against one {@link String#indexOf(String, int)} pass per keyword,
+ * for up to the 50 keywords a custom data identifier allows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeywordScanBenchmark {
+
+    private static final int TEXT_LENGTH = 1 << 20;
+
+    @Param({"1", "10", "50"})
+    public int keywords;
+
+    private List<String> words;
+    private String text;
+    private AhoCorasick automaton;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        words = new ArrayList<>();
+        for (int i = 0; i < keywords; i++) {
+            words.add("keyword" + i);
+        }
+        final StringBuilder builder = new StringBuilder(TEXT_LENGTH);
+        while (builder.length() < TEXT_LENGTH) {
+            // mostly filler with the occasional keyword, like log lines
+            builder.append(random.nextInt(20) == 0 ? words.get(random.nextInt(keywords)) : "lorem ipsum " + random.nextInt(100000))
+                .append(' ');
+        }
+        text = builder.toString();
+        automaton = AhoCorasick.compile(words, true);
+    }
+
+    @Benchmark
+    public long indexOf() {
+        final String lowerCase = text.toLowerCase(Locale.ROOT);
+        long count = 0;
+        for (final String word : words) {
+            for (int i = lowerCase.indexOf(word); i >= 0; i = lowerCase.indexOf(word, i + 1)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long ahoCorasick() {
+        return automaton.countMatches(text);
+    }
+}
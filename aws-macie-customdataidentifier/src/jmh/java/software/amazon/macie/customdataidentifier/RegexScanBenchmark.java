@@ -0,0 +1,115 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Counts regex matches in 4 MiB of synthetic text mixing filler with SSNs, emails, phone numbers and card numbers, with
+ * java.util.regex against {@link LazyDfa}. Throughput is reported in MB/s by the {@code megabytes} counter.
+ * <p>
+ * {@code nested} is a regex with nested repeats that never matches: java.util.regex backtracks on every run of digits, the DFA reads
+ * each character once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegexScanBenchmark {
+
+    private static final int TEXT_LENGTH = 4 << 20;
+
+    @Param({"ssn", "email", "phone", "card", "nested"})
+    public String regex;
+
+    @Param({"java", "dfa"})
+    public String engine;
+
+    private String text;
+    private CustomDataIdentifierMatcher matcher;
+
+    /**
+     * Megabytes scanned, JMH reports it per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final StringBuilder builder = new StringBuilder(TEXT_LENGTH);
+        while (builder.length() < TEXT_LENGTH) {
+            switch (random.nextInt(8)) {
+                case 0:
+                    builder.append(String.format("ssn %03d-%02d-%04d", random.nextInt(1000), random.nextInt(100), random.nextInt(10000)));
+                    break;
+                case 1:
+                    builder.append("contact user").append(random.nextInt(100000)).append("@example.com");
+                    break;
+                case 2:
+                    builder.append(String.format("call (%03d) %03d-%04d", random.nextInt(1000), random.nextInt(1000), random.nextInt(10000)));
+                    break;
+                case 3:
+                    builder.append(String.format("card %04d %04d %04d %04d", random.nextInt(10000), random.nextInt(10000),
+                        random.nextInt(10000), random.nextInt(10000)));
+                    break;
+                default:
+                    builder.append("lorem ipsum dolor sit amet ref-").append(random.nextInt(1000000));
+                    break;
+            }
+            builder.append('\n');
+        }
+        text = builder.toString();
+
+        final String pattern;
+        switch (regex) {
+            case "ssn":
+                pattern = "\\d{3}-\\d{2}-\\d{4}";
+                break;
+            case "email":
+                pattern = "[\\w.+-]+@[\\w-]+\\.[\\w.-]+";
+                break;
+            case "phone":
+                pattern = "\\(\\d{3}\\) ?\\d{3}-\\d{4}";
+                break;
+            case "card":
+                pattern = "(?:\\d{4}[ -]?){3}\\d{4}";
+                break;
+            default:
+                pattern = "(?:\\d+-?)+x";
+                break;
+        }
+        matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder().regex(pattern).build(), "dfa".equals(engine));
+        if ("dfa".equals(engine) && !matcher.usesDfa()) {
+            throw new IllegalStateException(pattern + " is not supported by the DFA");
+        }
+    }
+
+    @Benchmark
+    public int count(final Bytes bytes) {
+        bytes.megabytes += text.length() / 1e6;
+        return matcher.count(text);
+    }
+}
@@ -0,0 +1,174 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Aho-Corasick automaton over a fixed set of words, used for custom data identifier keywords and ignore words. All occurrences of all
+ * words are found in a single pass over the text, independent of the number of words.
+ * <p>
+ * The automaton is compiled into a complete transition table: characters are mapped to dense classes (class 0 stands for every character
+ * that is in none of the words) and {@code transitions[state * alphabetSize + class]} is the next state, failure links already resolved.
+ * Scanning is one array lookup per character. Instances are immutable and thread safe.
+ */
+final class AhoCorasick {
+
+    private static final int ROOT = 0;
+
+    private final boolean ignoreCase;
+    private final int wordCount;
+    private final int[] charClasses;
+    private final int alphabetSize;
+    private final int[] transitions;
+    // number of distinct words ending in each state, words that are suffixes of the state's prefix included
+    private final int[] outputs;
+
+    private AhoCorasick(final boolean ignoreCase, final int wordCount, final int[] charClasses, final int alphabetSize,
+        final int[] transitions, final int[] outputs) {
+        this.ignoreCase = ignoreCase;
+        this.wordCount = wordCount;
+        this.charClasses = charClasses;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Empty words are ignored. With {@code ignoreCase}, words and text are compared after {@link Character#toLowerCase(char)}.
+     */
+    static AhoCorasick compile(final Collection<String> words, final boolean ignoreCase) {
+        int maxChar = 0;
+        int totalLength = 0;
+        int wordCount = 0;
+        for (final String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                maxChar = Math.max(maxChar, fold(word.charAt(i), ignoreCase));
+            }
+            totalLength += word.length();
+            wordCount += word.isEmpty() ? 0 : 1;
+        }
+
+        final int[] charClasses = new int[maxChar + 1];
+        int alphabetSize = 1;
+        for (final String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                final char c = fold(word.charAt(i), ignoreCase);
+                if (charClasses[c] == 0) {
+                    charClasses[c] = alphabetSize++;
+                }
+            }
+        }
+
+        // trie: 0 means "no edge" while building, the root is never the target of an edge
+        final int maxStates = totalLength + 1;
+        final int[] transitions = new int[maxStates * alphabetSize];
+        final int[] outputs = new int[maxStates];
+        int states = 1;
+        for (final String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                final int index = state * alphabetSize + charClasses[fold(word.charAt(i), ignoreCase)];
+                if (transitions[index] == 0) {
+                    transitions[index] = states++;
+                }
+                state = transitions[index];
+            }
+            // a word listed twice, or twice up to case with ignoreCase, ends in the same state and counts once
+            outputs[state] = 1;
+        }
+
+        // breadth first, so the failure target of a state is always complete before the state itself
+        final int[] failure = new int[states];
+        final int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < alphabetSize; c++) {
+            final int child = transitions[ROOT * alphabetSize + c];
+            if (child != 0) {
+                failure[child] = ROOT;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            final int state = queue[head++];
+            outputs[state] += outputs[failure[state]];
+            for (int c = 0; c < alphabetSize; c++) {
+                final int index = state * alphabetSize + c;
+                final int fallback = transitions[failure[state] * alphabetSize + c];
+                if (transitions[index] != 0) {
+                    failure[transitions[index]] = fallback;
+                    queue[tail++] = transitions[index];
+                } else {
+                    transitions[index] = fallback;
+                }
+            }
+        }
+
+        return new AhoCorasick(ignoreCase, wordCount, charClasses, alphabetSize,
+            Arrays.copyOf(transitions, states * alphabetSize), Arrays.copyOf(outputs, states));
+    }
+
+    boolean isEmpty() {
+        return wordCount == 0;
+    }
+
+    /**
+     * @return end offsets (exclusive) at which at least one word ends, in increasing order
+     */
+    int[] matchEnds(final CharSequence text) {
+        int[] ends = new int[16];
+        int size = 0;
+        int state = ROOT;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            if (outputs[state] != 0) {
+                if (size == ends.length) {
+                    ends = Arrays.copyOf(ends, size * 2);
+                }
+                ends[size++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(ends, size);
+    }
+
+    /**
+     * @return true if a word occurs entirely within {@code [from, to)}
+     */
+    boolean containsMatch(final CharSequence text, final int from, final int to) {
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            if (outputs[state] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of occurrences of all words, overlapping ones included
+     */
+    long countMatches(final CharSequence text) {
+        long count = 0;
+        int state = ROOT;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            count += outputs[state];
+        }
+        return count;
+    }
+
+    private int classOf(final char c) {
+        final char folded = fold(c, ignoreCase);
+        return folded < charClasses.length ? charClasses[folded] : 0;
+    }
+
+    private static char fold(final char c, final boolean ignoreCase) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+}
@@ -0,0 +1,87 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.services.macie2.Macie2AsyncClient;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Proxy client used when the async execution path is enabled. It behaves exactly like the blocking proxy client it wraps,
+ * and additionally lets List send a page of GetCustomDataIdentifier requests through {@link Macie2AsyncClient} before waiting on
+ * any of them. Single calls stay on the blocking client: sending one request and waiting on it right away gains nothing.
+ */
+class AsyncProxyClient implements ProxyClient<Macie2Client> {
+
+    private final ProxyClient<Macie2Client> syncClient;
+    private final ProxyClient<Macie2AsyncClient> asyncClient;
+
+    AsyncProxyClient(final ProxyClient<Macie2Client> syncClient, final ProxyClient<Macie2AsyncClient> asyncClient) {
+        this.syncClient = syncClient;
+        this.asyncClient = asyncClient;
+    }
+
+    /**
+     * Sends the request through the async client without waiting for the response.
+     */
+    <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> invokeAsync(final RequestT request,
+        final BiFunction<Macie2AsyncClient, RequestT, CompletableFuture<ResponseT>> call) {
+        return asyncClient.injectCredentialsAndInvokeV2Async(request, r -> call.apply(asyncClient.client(), r));
+    }
+
+    /**
+     * Waits for an async call and surfaces the service exception itself, so error handling is the same as on the blocking path.
+     */
+    static <ResponseT> ResponseT join(final CompletableFuture<ResponseT> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction) {
+        return syncClient.injectCredentialsAndInvokeV2(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+        final RequestT request, final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        return syncClient.injectCredentialsAndInvokeV2Async(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse, IterableT extends SdkIterable<ResponseT>> IterableT
+    injectCredentialsAndInvokeIterableV2(final RequestT request, final Function<RequestT, IterableT> requestFunction) {
+        return syncClient.injectCredentialsAndInvokeIterableV2(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseInputStream<ResponseT> injectCredentialsAndInvokeV2InputStream(
+        final RequestT request, final Function<RequestT, ResponseInputStream<ResponseT>> requestFunction) {
+        return syncClient.injectCredentialsAndInvokeV2InputStream(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseBytes<ResponseT> injectCredentialsAndInvokeV2Bytes(
+        final RequestT request, final Function<RequestT, ResponseBytes<ResponseT>> requestFunction) {
+        return syncClient.injectCredentialsAndInvokeV2Bytes(request, requestFunction);
+    }
+
+    @Override
+    public Macie2Client client() {
+        return syncClient.client();
+    }
+}
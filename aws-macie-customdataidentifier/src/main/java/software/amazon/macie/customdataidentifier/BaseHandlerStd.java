@@ -1,7 +1,12 @@
 package software.amazon.macie.customdataidentifier;
 
 import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -10,18 +15,28 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 // Placeholder for the functionality that could be shared across Create/Read/Update/Delete/List Handlers
 
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
-  protected final static String EXCEPTION_MESSAGE = "Exception occurred for AWS account id [%s]. Exception message: %s";
+  // only NotFound is reported apart, see translateException
+  protected static final ErrorClassifier ERRORS = ErrorClassifier.forMacie(HandlerErrorCode.AccessDenied);
+  // Set to "true" to hydrate List pages with concurrent GetCustomDataIdentifier calls on Macie2AsyncClient
+  protected static final String ASYNC_CLIENT_ENV = "MACIE_ASYNC_CLIENT";
+
   @Override
   public final ProgressEvent<ResourceModel, CallbackContext> handleRequest(
     final AmazonWebServicesClientProxy proxy,
     final ResourceHandlerRequest<ResourceModel> request,
     final CallbackContext callbackContext,
     final Logger logger) {
+    final EmfMetrics metrics = new EmfMetrics(logger);
+    // these handlers don't retry, every call is a first attempt
+    ProxyClient<Macie2Client> proxyClient = MeteredProxyClient.wrap(proxy.newProxy(ClientBuilder::getClient), metrics, () -> 0);
+    if (Boolean.parseBoolean(System.getenv(ASYNC_CLIENT_ENV))) {
+      proxyClient = new AsyncProxyClient(proxyClient, MeteredProxyClient.wrap(proxy.newProxy(ClientBuilder::getAsyncClient), metrics, () -> 0));
+    }
     return handleRequest(
       proxy,
       request,
       callbackContext != null ? callbackContext : new CallbackContext(),
-      proxy.newProxy(ClientBuilder::getClient),
+      proxyClient,
       logger
     );
   }
@@ -32,4 +47,20 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     final CallbackContext callbackContext,
     final ProxyClient<Macie2Client> proxyClient,
     final Logger logger);
+
+  /**
+   * Logs a failed service call and translates it into the exception reported to CloudFormation.
+   */
+  protected static BaseHandlerException translateException(
+    final String operation,
+    final ResourceHandlerRequest<ResourceModel> request,
+    final Macie2Exception exception,
+    final Logger logger) {
+    final HandlerErrorCode errorCode = ERRORS.classify(exception);
+    ERRORS.log(logger, operation, request.getAwsAccountId(), exception, errorCode);
+    if (errorCode == HandlerErrorCode.NotFound) {
+      return new CfnNotFoundException(ResourceModel.TYPE_NAME, exception.getMessage());
+    }
+    return new CfnGeneralServiceException(ResourceModel.TYPE_NAME, exception);
+  }
 }
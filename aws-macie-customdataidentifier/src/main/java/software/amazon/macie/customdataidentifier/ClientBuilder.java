@@ -1,12 +1,56 @@
 package software.amazon.macie.customdataidentifier;
 
+import java.net.URI;
+import java.time.Duration;
+import software.amazon.awssdk.core.SdkSystemSetting;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.macie2.Macie2AsyncClient;
+import software.amazon.awssdk.services.macie2.Macie2AsyncClientBuilder;
 import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.Macie2ClientBuilder;
 import software.amazon.cloudformation.LambdaWrapper;
 
 public class ClientBuilder {
+  private static final int MAX_CACHED_CLIENTS = 8;
+  private static final Duration CLIENT_IDLE_TIMEOUT = Duration.ofMinutes(15);
+
+  // Building a client sets up the service model and interceptor chain, reuse them across warm invocations.
+  private static final ClientCache<Macie2Client> CLIENTS = new ClientCache<>(MAX_CACHED_CLIENTS, CLIENT_IDLE_TIMEOUT);
+  private static final ClientCache<Macie2AsyncClient> ASYNC_CLIENTS = new ClientCache<>(MAX_CACHED_CLIENTS, CLIENT_IDLE_TIMEOUT);
+
   public static Macie2Client getClient() {
-    return Macie2Client.builder()
-                       .httpClient(LambdaWrapper.HTTP_CLIENT)
-                       .build();
+    return getClient(SdkSystemSetting.AWS_REGION.getStringValue().orElse(null), null);
+  }
+
+  public static Macie2Client getClient(final String region, final String endpoint) {
+    return CLIENTS.get(region, endpoint, () -> newClient(region, endpoint));
+  }
+
+  public static Macie2AsyncClient getAsyncClient() {
+    final String region = SdkSystemSetting.AWS_REGION.getStringValue().orElse(null);
+    // async clients use the SDK default non-blocking HTTP client
+    return ASYNC_CLIENTS.get(region, null, () -> {
+      final Macie2AsyncClientBuilder builder = Macie2AsyncClient.builder();
+      if (region != null) {
+        builder.region(Region.of(region));
+      }
+      return builder.build();
+    });
+  }
+
+  static ClientCache<Macie2Client> clientCache() {
+    return CLIENTS;
+  }
+
+  private static Macie2Client newClient(final String region, final String endpoint) {
+    final Macie2ClientBuilder builder = Macie2Client.builder()
+                                                    .httpClient(LambdaWrapper.HTTP_CLIENT);
+    if (region != null) {
+      builder.region(Region.of(region));
+    }
+    if (endpoint != null) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    return builder.build();
   }
 }
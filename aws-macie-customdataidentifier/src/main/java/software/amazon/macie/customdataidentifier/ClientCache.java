@@ -0,0 +1,113 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * Keeps SDK clients alive across warm invocations of the same Lambda container.
+ * Clients are keyed by region and endpoint, the cache is bounded in size (least recently used client goes first)
+ * and clients that have not been used for the idle timeout are closed on the next lookup.
+ */
+final class ClientCache<ClientT extends SdkAutoCloseable> {
+
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+    // access ordered, so the first entry is always the least recently used one
+    private final LinkedHashMap<String, CachedClient<ClientT>> clients = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ClientCache(final int maxSize, final Duration idleTimeout) {
+        this(maxSize, idleTimeout, System::nanoTime);
+    }
+
+    ClientCache(final int maxSize, final Duration idleTimeout, final LongSupplier nanoClock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    synchronized ClientT get(final String region, final String endpoint, final Supplier<ClientT> factory) {
+        final long now = nanoClock.getAsLong();
+        evictIdle(now);
+
+        final String key = region + "|" + endpoint;
+        final CachedClient<ClientT> cached = clients.get(key);
+        if (cached != null) {
+            hits++;
+            cached.lastAccess = now;
+            return cached.client;
+        }
+
+        misses++;
+        final ClientT client = factory.get();
+        clients.put(key, new CachedClient<>(client, now));
+        if (clients.size() > maxSize) {
+            final Iterator<CachedClient<ClientT>> eldest = clients.values().iterator();
+            evict(eldest.next());
+            eldest.remove();
+        }
+        return client;
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    synchronized int size() {
+        return clients.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ClientCache[size=%d, hits=%d, misses=%d, evictions=%d]", clients.size(), hits, misses, evictions);
+    }
+
+    private void evictIdle(final long now) {
+        final Iterator<Map.Entry<String, CachedClient<ClientT>>> iterator = clients.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final CachedClient<ClientT> cached = iterator.next().getValue();
+            if (now - cached.lastAccess < idleTimeoutNanos) {
+                // remaining entries were used more recently
+                return;
+            }
+            evict(cached);
+            iterator.remove();
+        }
+    }
+
+    private void evict(final CachedClient<ClientT> cached) {
+        evictions++;
+        // The shared LambdaWrapper HTTP client is not owned by the SDK client, closing it is safe.
+        cached.client.close();
+    }
+
+    private static final class CachedClient<ClientT> {
+        private final ClientT client;
+        private long lastAccess;
+
+        private CachedClient(final ClientT client, final long lastAccess) {
+            this.client = client;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package software.amazon.macie.customdataidentifier;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.CreateCustomDataIdentifierRequest;
 import software.amazon.awssdk.services.macie2.model.CreateCustomDataIdentifierResponse;
 import software.amazon.awssdk.services.macie2.model.Macie2Exception;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -13,10 +13,28 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class CreateHandler extends BaseHandlerStd {
+    protected static final String OPERATION = "AWS-Macie-CustomDataIdentifier::Create";
 
+    // Set to "true" to fail creates whose regex can backtrack exponentially, or polynomially above MAX_POLYNOMIAL_DEGREE, instead of
+    // only logging a warning
+    protected static final String REJECT_BACKTRACKING_REGEX_ENV = "MACIE_REJECT_BACKTRACKING_REGEX";
+    // Highest O(n^k) accepted when rejection is enabled, common patterns such as \d+\.?\d+ are quadratic
+    static final int MAX_POLYNOMIAL_DEGREE = 2;
+    // Input length the worst-case step estimate in the warning is given for
+    private static final int ESTIMATE_INPUT_LENGTH = 64;
+
+    private final boolean rejectBacktrackingRegex;
     private Logger logger;
     private ResourceHandlerRequest<ResourceModel> request;
 
+    public CreateHandler() {
+        this(Boolean.parseBoolean(System.getenv(REJECT_BACKTRACKING_REGEX_ENV)));
+    }
+
+    CreateHandler(final boolean rejectBacktrackingRegex) {
+        this.rejectBacktrackingRegex = rejectBacktrackingRegex;
+    }
+
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
@@ -28,12 +46,13 @@ public class CreateHandler extends BaseHandlerStd {
         this.request = request;
 
         final ResourceModel model = request.getDesiredResourceState();
+        checkRegexComplexity(model.getRegex());
 
         // If your service API throws 'ResourceAlreadyExistsException' for create requests then CreateHandler can return just proxy.initiate construction
         // STEP 1.0 [initialize a proxy context]
         return ProgressEvent.progress(model, callbackContext)
                 .then(progress ->
-                    proxy.initiate("AWS-Macie-CustomDataIdentifier::Create", proxyClient, model, callbackContext)
+                    proxy.initiate(OPERATION, proxyClient, model, callbackContext)
 
                         // STEP 1.1 [construct a body of a request]
                         .translateToServiceRequest(_model -> Translator.translateToCreateRequest(_model, request.getClientRequestToken()))
@@ -50,6 +69,37 @@ public class CreateHandler extends BaseHandlerStd {
                 .then(progress -> new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, logger));
     }
 
+    /**
+     * Warns about a regex that can take exponential or polynomial time on some inputs, and rejects it when rejection is enabled and
+     * the regex is exponential or polynomial above {@link #MAX_POLYNOMIAL_DEGREE}. A regex the analyzer cannot parse is left for the
+     * service to validate.
+     *
+     * @param regex the regex of the custom data identifier
+     */
+    private void checkRegexComplexity(final String regex) {
+        if (regex == null) {
+            return;
+        }
+        final RegexComplexityAnalyzer.Result result;
+        try {
+            result = RegexComplexityAnalyzer.analyze(regex);
+        } catch (final IllegalArgumentException e) {
+            logger.log(String.format("Skipped backtracking analysis of %s regex: %s", ResourceModel.TYPE_NAME, e.getMessage()));
+            return;
+        }
+        if (result.isLinear()) {
+            return;
+        }
+        final boolean exponential = result.complexity() == RegexComplexityAnalyzer.Complexity.EXPONENTIAL;
+        final String message = String.format("Regex can backtrack %s (about %.1e steps on a %d character input): %s",
+            exponential ? "exponentially" : String.format("in O(n^%d) time", result.degree()),
+            result.worstCaseSteps(ESTIMATE_INPUT_LENGTH), ESTIMATE_INPUT_LENGTH, result);
+        if (rejectBacktrackingRegex && (exponential || result.degree() > MAX_POLYNOMIAL_DEGREE)) {
+            throw new CfnInvalidRequestException(message);
+        }
+        logger.log(String.format("WARNING %s: %s", ResourceModel.TYPE_NAME, message));
+    }
+
     /**
      * Implement client invocation of the create request through the proxyClient, which is already initialised with
      * caller credentials, correct region and retry settings
@@ -66,7 +116,7 @@ public class CreateHandler extends BaseHandlerStd {
         try {
             response = proxyClient.injectCredentialsAndInvokeV2(createCustomDataIdentifierRequest, proxyClient.client()::createCustomDataIdentifier);
         } catch (final Macie2Exception e) {
-            logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(e)));
+            ERRORS.log(logger, OPERATION, request.getAwsAccountId(), e, ERRORS.classify(e));
             throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
         }
 
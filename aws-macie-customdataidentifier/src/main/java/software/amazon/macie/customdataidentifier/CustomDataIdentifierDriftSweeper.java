@@ -0,0 +1,231 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.CustomDataIdentifierSummary;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierResponse;
+import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersResponse;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
+
+/**
+ * Checks every custom data identifier of an account against the models a set of stacks asks for in one pass, instead of one Read
+ * per resource through CloudFormation drift detection. All identifiers are listed, the ones a desired model refers to are read with
+ * up to {@code parallelism} GetCustomDataIdentifier calls in flight, and each pair is compared by
+ * {@link ReadHandler#fingerprint(ResourceModel)}.
+ * <p>
+ * BatchGetCustomDataIdentifiers only returns the summary fields the list already has, so it can't stand in for the reads: the
+ * regex, keywords, ignore words and maximum match distance come from GetCustomDataIdentifier only.
+ * <p>
+ * A desired model refers to the identifier with its id, or when it has none to the only identifier with its name. Two desired
+ * models that refer to the same identifier are reported as duplicates instead of being compared.
+ */
+public final class CustomDataIdentifierDriftSweeper {
+
+    public static final int DEFAULT_PARALLELISM = 10;
+
+    private final Macie2Client client;
+    private final int parallelism;
+
+    public CustomDataIdentifierDriftSweeper() {
+        this(ClientBuilder.getClient(), DEFAULT_PARALLELISM);
+    }
+
+    public CustomDataIdentifierDriftSweeper(final Macie2Client client, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.client = client;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param desired the models to compare, usually every AWS::Macie::CustomDataIdentifier of the stacks in the account and region
+     * @throws software.amazon.awssdk.services.macie2.model.Macie2Exception when a call fails, after the SDK retries
+     */
+    public Report sweep(final Collection<ResourceModel> desired) {
+        final Map<String, CustomDataIdentifierSummary> listed = new LinkedHashMap<>();
+        // null once a name is taken twice
+        final Map<String, String> idsByName = new HashMap<>();
+        String nextToken = null;
+        do {
+            final ListCustomDataIdentifiersResponse page = client.listCustomDataIdentifiers(Translator.translateToListRequest(nextToken));
+            for (final CustomDataIdentifierSummary summary : page.items()) {
+                listed.put(summary.id(), summary);
+                idsByName.put(summary.name(), idsByName.containsKey(summary.name()) ? null : summary.id());
+            }
+            nextToken = page.nextToken();
+        } while (nextToken != null);
+
+        final Report report = new Report();
+        final Map<String, ResourceModel> managed = new LinkedHashMap<>();
+        final Set<String> ids = new HashSet<>();
+        for (final ResourceModel model : desired) {
+            final String id = model.getId() != null ? model.getId() : idsByName.get(model.getName());
+            if (id != null && !ids.add(id)) {
+                report.duplicates.add(model);
+            } else if (id == null || !listed.containsKey(id)) {
+                report.missing.add(model);
+            } else {
+                managed.put(id, model);
+            }
+        }
+        for (final CustomDataIdentifierSummary summary : listed.values()) {
+            if (!managed.containsKey(summary.id())) {
+                report.unmanaged.add(ResourceModel.builder()
+                    .id(summary.id())
+                    .arn(summary.arn())
+                    .name(summary.name())
+                    .description(summary.description())
+                    .build());
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, managed.size())));
+        try {
+            final List<Future<GetCustomDataIdentifierResponse>> reads = new ArrayList<>(managed.size());
+            for (final String id : managed.keySet()) {
+                reads.add(executor.submit(() -> read(id)));
+            }
+            int i = 0;
+            for (final ResourceModel model : managed.values()) {
+                final GetCustomDataIdentifierResponse response = join(reads.get(i++));
+                if (response == null || Boolean.TRUE.equals(response.deleted())) {
+                    // deleted between the list and the read
+                    report.missing.add(model);
+                } else {
+                    report.compare(model, Translator.translateFromReadResponse(response));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    private GetCustomDataIdentifierResponse read(final String id) {
+        try {
+            return client.getCustomDataIdentifier(Translator.translateToReadRequest(ResourceModel.builder().id(id).build()));
+        } catch (final ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static <T> T join(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while reading custom data identifiers", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Outcome of a sweep. Desired models keep the order they were given in, unmanaged identifiers are in list order.
+     */
+    public static final class Report {
+        private final List<String> inSync = new ArrayList<>();
+        private final List<Drift> drifted = new ArrayList<>();
+        private final List<ResourceModel> missing = new ArrayList<>();
+        private final List<ResourceModel> unmanaged = new ArrayList<>();
+        private final List<ResourceModel> duplicates = new ArrayList<>();
+
+        private void compare(final ResourceModel desired, final ResourceModel actual) {
+            final String expectedFingerprint = ReadHandler.fingerprint(desired);
+            final String actualFingerprint = ReadHandler.fingerprint(actual);
+            if (expectedFingerprint.equals(actualFingerprint)) {
+                inSync.add(actual.getId());
+            } else {
+                drifted.add(new Drift(desired, actual, expectedFingerprint, actualFingerprint));
+            }
+        }
+
+        /**
+         * Ids of the identifiers that hold what their desired model asks for.
+         */
+        public List<String> inSync() {
+            return Collections.unmodifiableList(inSync);
+        }
+
+        public List<Drift> drifted() {
+            return Collections.unmodifiableList(drifted);
+        }
+
+        /**
+         * Desired models whose identifier doesn't exist, deleted outside CloudFormation.
+         */
+        public List<ResourceModel> missing() {
+            return Collections.unmodifiableList(missing);
+        }
+
+        /**
+         * Identifiers no desired model refers to, with the summary fields the list gives.
+         */
+        public List<ResourceModel> unmanaged() {
+            return Collections.unmodifiableList(unmanaged);
+        }
+
+        /**
+         * Desired models that refer to the same identifier as a model before them. Only the first is compared.
+         */
+        public List<ResourceModel> duplicates() {
+            return Collections.unmodifiableList(duplicates);
+        }
+    }
+
+    /**
+     * An identifier that exists but differs from its desired model. Custom data identifiers can't be updated in place, so
+     * CloudFormation would replace it.
+     */
+    public static final class Drift {
+        private final ResourceModel desired;
+        private final ResourceModel actual;
+        private final String expectedFingerprint;
+        private final String actualFingerprint;
+
+        private Drift(final ResourceModel desired, final ResourceModel actual, final String expectedFingerprint,
+            final String actualFingerprint) {
+            this.desired = desired;
+            this.actual = actual;
+            this.expectedFingerprint = expectedFingerprint;
+            this.actualFingerprint = actualFingerprint;
+        }
+
+        public ResourceModel desired() {
+            return desired;
+        }
+
+        public ResourceModel actual() {
+            return actual;
+        }
+
+        public String expectedFingerprint() {
+            return expectedFingerprint;
+        }
+
+        public String actualFingerprint() {
+            return actualFingerprint;
+        }
+
+        @Override
+        public String toString() {
+            return actual.getId() + " " + expectedFingerprint + " != " + actualFingerprint;
+        }
+    }
+}
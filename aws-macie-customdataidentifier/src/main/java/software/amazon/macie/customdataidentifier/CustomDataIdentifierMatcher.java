@@ -0,0 +1,246 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the detection criteria of a custom data identifier to text locally, the way TestCustomDataIdentifier does on the service:
+ * <ul>
+ *   <li>every match of the regex is a candidate;</li>
+ *   <li>when keywords are set, a candidate only counts if a keyword (not case sensitive) ends at or before its start and at most
+ *   maximumMatchDistance characters before its end, so a candidate longer than maximumMatchDistance never counts;</li>
+ *   <li>a candidate that contains an ignore word (case sensitive) never counts.</li>
+ * </ul>
+ * The regex runs on java.util.regex, or on a {@link LazyDfa} when asked for and the regex is in the subset the DFA supports.
+ * Instances are immutable and thread safe, compile once and reuse them across texts.
+ */
+final class CustomDataIdentifierMatcher {
+
+    // the service default when MaximumMatchDistance is not set
+    static final int DEFAULT_MAXIMUM_MATCH_DISTANCE = 50;
+
+    private final Pattern pattern;
+    // null when matching with java.util.regex
+    private final LazyDfa dfa;
+    private final AhoCorasick keywords;
+    private final AhoCorasick ignoreWords;
+    private final int maxKeywordLength;
+    private final int maximumMatchDistance;
+
+    private CustomDataIdentifierMatcher(final Pattern pattern, final LazyDfa dfa, final List<String> keywords,
+        final List<String> ignoreWords, final int maximumMatchDistance) {
+        this.pattern = pattern;
+        this.dfa = dfa;
+        this.keywords = AhoCorasick.compile(keywords, true);
+        this.ignoreWords = AhoCorasick.compile(ignoreWords, false);
+        int maxLength = 0;
+        for (final String keyword : keywords) {
+            maxLength = Math.max(maxLength, keyword.length());
+        }
+        this.maxKeywordLength = maxLength;
+        this.maximumMatchDistance = maximumMatchDistance;
+    }
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException if the regex does not compile
+     */
+    static CustomDataIdentifierMatcher compile(final ResourceModel model) {
+        return compile(model, false);
+    }
+
+    /**
+     * @param preferDfa match with a {@link LazyDfa} when the regex allows it, java.util.regex otherwise
+     * @throws java.util.regex.PatternSyntaxException if the regex does not compile
+     */
+    static CustomDataIdentifierMatcher compile(final ResourceModel model, final boolean preferDfa) {
+        final Pattern pattern = Pattern.compile(model.getRegex());
+        return new CustomDataIdentifierMatcher(
+            pattern,
+            preferDfa ? compileDfa(pattern.pattern()) : null,
+            nullToEmpty(model.getKeywords()),
+            nullToEmpty(model.getIgnoreWords()),
+            model.getMaximumMatchDistance() == null ? DEFAULT_MAXIMUM_MATCH_DISTANCE : model.getMaximumMatchDistance());
+    }
+
+    /**
+     * @return the number of matches, without collecting their offsets
+     */
+    int count(final CharSequence text) {
+        return scan(text, 0, text.length(), null, null);
+    }
+
+    /**
+     * Counts the matches found by searching from {@code from} that start before {@code to}. The text around the range is still read
+     * for keywords, for the context the regex looks at and for matches running past {@code to}, which is what lets a scanner split a
+     * large input into overlapping windows.
+     */
+    int count(final CharSequence text, final int from, final int to) {
+        return scan(text, from, to, null, null);
+    }
+
+    /**
+     * Like {@link #count(CharSequence, int, int)}, but hands every regex match to {@code visitor}, counted or not, and stops early
+     * when the visitor returns false.
+     *
+     * @return the number of counted matches the visitor was given
+     */
+    int visit(final CharSequence text, final int from, final int to, final MatchVisitor visitor) {
+        return scan(text, from, to, null, visitor);
+    }
+
+    Matches match(final CharSequence text) {
+        final Matches matches = new Matches();
+        scan(text, 0, text.length(), matches, null);
+        return matches;
+    }
+
+    /**
+     * @return the longest keyword, in characters
+     */
+    int maxKeywordLength() {
+        return maxKeywordLength;
+    }
+
+    int maximumMatchDistance() {
+        return maximumMatchDistance;
+    }
+
+    boolean usesDfa() {
+        return dfa != null;
+    }
+
+    private int scan(final CharSequence text, final int from, final int to, final Matches matches, final MatchVisitor visitor) {
+        final int[] keywordEnds = keywords.isEmpty() ? null : keywords.matchEnds(text);
+        // regex matches don't overlap, so both their starts and their ends increase and the keyword cursor only ever moves forward
+        int keywordCursor = 0;
+        int count = 0;
+        final Finder finder = dfa != null ? dfa.finder(text, from) : new PatternFinder(pattern.matcher(text), from);
+        while (finder.find()) {
+            final int start = finder.start();
+            final int end = finder.end();
+            if (start >= to) {
+                break;
+            }
+            boolean counted = true;
+            if (keywordEnds != null) {
+                while (keywordCursor < keywordEnds.length && keywordEnds[keywordCursor] < end - maximumMatchDistance) {
+                    keywordCursor++;
+                }
+                counted = keywordCursor < keywordEnds.length && keywordEnds[keywordCursor] <= start;
+            }
+            if (counted && !ignoreWords.isEmpty() && ignoreWords.containsMatch(text, start, end)) {
+                counted = false;
+            }
+            if (counted) {
+                count++;
+                if (matches != null) {
+                    matches.add(start, end);
+                }
+            }
+            if (visitor != null && !visitor.visit(start, end, counted)) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private static LazyDfa compileDfa(final String regex) {
+        try {
+            return LazyDfa.compile(regex);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static List<String> nullToEmpty(final List<String> words) {
+        return words == null ? Collections.emptyList() : words;
+    }
+
+    /**
+     * Successive regex matches in a text, like {@link Matcher#find()}.
+     */
+    interface Finder {
+        boolean find();
+
+        int start();
+
+        int end();
+    }
+
+    /**
+     * Receives regex matches in text order.
+     */
+    interface MatchVisitor {
+        /**
+         * @param counted whether the match passes the keyword and ignore word criteria
+         * @return false to stop the search
+         */
+        boolean visit(int start, int end, boolean counted);
+    }
+
+    private static final class PatternFinder implements Finder {
+        private final Matcher matcher;
+        // the first search, -1 once it ran
+        private int from;
+
+        private PatternFinder(final Matcher matcher, final int from) {
+            this.matcher = matcher;
+            this.from = from;
+        }
+
+        @Override
+        public boolean find() {
+            if (from < 0) {
+                return matcher.find();
+            }
+            // resets the matcher but keeps the whole text as context for lookbehinds, anchors and word boundaries
+            final boolean found = matcher.find(from);
+            from = -1;
+            return found;
+        }
+
+        @Override
+        public int start() {
+            return matcher.start();
+        }
+
+        @Override
+        public int end() {
+            return matcher.end();
+        }
+    }
+
+    /**
+     * Offsets of the counted matches, in text order. Ends are exclusive.
+     */
+    static final class Matches {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int size;
+
+        private void add(final int start, final int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        int count() {
+            return size;
+        }
+
+        int start(final int index) {
+            return starts[index];
+        }
+
+        int end(final int index) {
+            return ends[index];
+        }
+    }
+}
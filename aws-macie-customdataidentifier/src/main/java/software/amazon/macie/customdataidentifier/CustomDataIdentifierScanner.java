@@ -0,0 +1,334 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs custom data identifier definitions over large local files, to see how noisy a definition is before running classification jobs.
+ * <p>
+ * Files are memory mapped and split into chunks that are scanned in parallel on a fork-join pool. Each chunk is mapped with an overlap
+ * on both sides: behind it for keywords that end up to maximumMatchDistance characters before a match ends and for the context
+ * lookbehinds and word boundaries read, ahead of it for matches that start in the chunk and end in the next one. A match is counted
+ * by the chunk it starts in.
+ * <p>
+ * Where a chunk's regex search starts depends on the chunk before it: a match that runs past the boundary moves the start of the
+ * next search, and {@code [0-9]{4}} over a long digit run finds different matches from an offset that isn't a multiple of 4. So each
+ * chunk first searches from its own start and records the first {@link #RECORDED_MATCHES} matches it finds. A sequential pass then
+ * follows where the search of a single pass over the file would enter each chunk, and when that is past the chunk start, searches the
+ * chunk again from there until it reaches a match start the chunk recorded. From that match on both searches find the same matches, so
+ * the rest of the chunk's count stands. Matches that run across boundaries are usually the only ones searched twice, and the totals
+ * are the same as for a single pass over the file as long as no match is longer than the look-ahead overlap.
+ * <p>
+ * Bytes are read as ISO-8859-1, one byte per character, so offsets are byte offsets and the mapped data is never copied.
+ * Regexes over non-ASCII UTF-8 text see the raw bytes.
+ * <p>
+ * With {@code preferDfa}, regexes are matched with a {@link LazyDfa} where the syntax allows it, so that scan time does not depend on
+ * how the regex backtracks.
+ */
+final class CustomDataIdentifierScanner {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    static final int DEFAULT_MAX_MATCH_LENGTH = 1024;
+    // match starts a chunk keeps to get a search that entered it late back in step
+    static final int RECORDED_MATCHES = 16;
+    // how far past its entry a search that entered a chunk late is tried before the whole chunk is mapped again
+    private static final int RESYNC_SPAN = 64 * 1024;
+
+    private final List<CustomDataIdentifierMatcher> matchers;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int lookBehind;
+    private final int lookAhead;
+
+    CustomDataIdentifierScanner(final List<ResourceModel> definitions) {
+        this(definitions, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    CustomDataIdentifierScanner(final List<ResourceModel> definitions, final ForkJoinPool pool, final int chunkSize,
+        final int maxMatchLength) {
+        this(definitions, pool, chunkSize, maxMatchLength, false);
+    }
+
+    CustomDataIdentifierScanner(final List<ResourceModel> definitions, final ForkJoinPool pool, final int chunkSize,
+        final int maxMatchLength, final boolean preferDfa) {
+        if (chunkSize < 1 || maxMatchLength < 0) {
+            throw new IllegalArgumentException("chunkSize must be positive and maxMatchLength must not be negative");
+        }
+        this.matchers = new ArrayList<>(definitions.size());
+        int keywordReach = 0;
+        for (final ResourceModel definition : definitions) {
+            final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(definition, preferDfa);
+            matchers.add(matcher);
+            keywordReach = Math.max(keywordReach, matcher.maximumMatchDistance() + matcher.maxKeywordLength());
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        // a keyword ends at most maximumMatchDistance before the end of a match, which is after the chunk start; the regex itself
+        // may look back as far as a match is long
+        this.lookBehind = Math.max(keywordReach, maxMatchLength);
+        this.lookAhead = maxMatchLength;
+    }
+
+    ScanResult scan(final Path file) {
+        return scan(Collections.singletonList(file));
+    }
+
+    /**
+     * @throws UncheckedIOException if a file cannot be read
+     */
+    ScanResult scan(final Collection<Path> files) {
+        final ScanResult result = new ScanResult(matchers.size());
+        for (final Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final long size = channel.size();
+                if (size > 0) {
+                    resynchronize(channel, size, pool.invoke(new ChunkTask(channel, size, 0, size)), result);
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    private void resynchronize(final FileChannel channel, final long fileSize, final List<Chunk> chunks, final ScanResult result) {
+        // per definition, where the search of a single pass enters the next chunk: the end of the last match so far
+        final long[] entries = new long[matchers.size()];
+        for (final Chunk chunk : chunks) {
+            for (int i = 0; i < matchers.size(); i++) {
+                final Speculation speculation = chunk.speculations[i];
+                if (entries[i] <= chunk.from) {
+                    // no match crossed into the chunk, its own search is the one a single pass does
+                    result.counts[i] += speculation.count;
+                    entries[i] = Math.max(entries[i], speculation.exit);
+                } else if (entries[i] < chunk.to) {
+                    final Resync resync = resync(channel, fileSize, chunk, i, entries[i]);
+                    result.counts[i] += resync.count;
+                    entries[i] = Math.max(entries[i], resync.exit);
+                }
+                // otherwise a match started before the chunk and covers all of it
+            }
+            result.bytesScanned += chunk.to - chunk.from;
+        }
+    }
+
+    private Resync resync(final FileChannel channel, final long fileSize, final Chunk chunk, final int definition, final long entry) {
+        final long windowStart = Math.max(0, chunk.from - lookBehind);
+        long limit = Math.min(chunk.to, entry + RESYNC_SPAN);
+        while (true) {
+            final Latin1CharSequence text = map(channel, windowStart, Math.min(fileSize, limit + lookAhead));
+            final Resync resync = new Resync(chunk.speculations[definition], windowStart);
+            matchers.get(definition).visit(text, (int) (entry - windowStart), (int) (limit - windowStart), resync);
+            if (resync.synced || limit == chunk.to) {
+                return resync;
+            }
+            limit = chunk.to;
+        }
+    }
+
+    private static Latin1CharSequence map(final FileChannel channel, final long start, final long end) {
+        final ByteBuffer window;
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Latin1CharSequence(window, 0, window.limit());
+    }
+
+    /**
+     * Match counts per definition, in the order the definitions were given.
+     */
+    static final class ScanResult {
+        private final long[] counts;
+        private long bytesScanned;
+
+        private ScanResult(final int definitions) {
+            this.counts = new long[definitions];
+        }
+
+        long count(final int definition) {
+            return counts[definition];
+        }
+
+        long bytesScanned() {
+            return bytesScanned;
+        }
+    }
+
+    private static final class Chunk {
+        private final long from;
+        private final long to;
+        private final Speculation[] speculations;
+
+        private Chunk(final long from, final long to, final Speculation[] speculations) {
+            this.from = from;
+            this.to = to;
+            this.speculations = speculations;
+        }
+    }
+
+    /**
+     * What a search from the chunk start found for one definition. Offsets are file offsets.
+     */
+    private static final class Speculation implements CustomDataIdentifierMatcher.MatchVisitor {
+        private final long windowStart;
+        private final long[] starts = new long[RECORDED_MATCHES];
+        // counted matches before each recorded one
+        private final int[] countedBefore = new int[RECORDED_MATCHES];
+        private int recorded;
+        private int count;
+        // end of the last match, -1 when there is none
+        private long exit = -1;
+
+        private Speculation(final long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        @Override
+        public boolean visit(final int start, final int end, final boolean counted) {
+            if (recorded < RECORDED_MATCHES) {
+                starts[recorded] = windowStart + start;
+                countedBefore[recorded] = count;
+                recorded++;
+            }
+            if (counted) {
+                count++;
+            }
+            exit = windowStart + end;
+            return true;
+        }
+    }
+
+    /**
+     * Searches a chunk from where a single pass enters it until a match starts where one the chunk recorded did.
+     */
+    private static final class Resync implements CustomDataIdentifierMatcher.MatchVisitor {
+        private final Speculation speculation;
+        private final long windowStart;
+        private int next;
+        private boolean synced;
+        private int count;
+        private long exit = -1;
+
+        private Resync(final Speculation speculation, final long windowStart) {
+            this.speculation = speculation;
+            this.windowStart = windowStart;
+        }
+
+        @Override
+        public boolean visit(final int start, final int end, final boolean counted) {
+            final long fileStart = windowStart + start;
+            while (next < speculation.recorded && speculation.starts[next] < fileStart) {
+                next++;
+            }
+            if (next < speculation.recorded && speculation.starts[next] == fileStart) {
+                // back in step, the matches from here on are the ones the chunk found
+                synced = true;
+                count += speculation.count - speculation.countedBefore[next];
+                exit = speculation.exit;
+                return false;
+            }
+            if (counted) {
+                count++;
+            }
+            exit = windowStart + end;
+            return true;
+        }
+    }
+
+    private final class ChunkTask extends RecursiveTask<List<Chunk>> {
+        private final FileChannel channel;
+        private final long fileSize;
+        private final long from;
+        private final long to;
+
+        private ChunkTask(final FileChannel channel, final long fileSize, final long from, final long to) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Chunk> compute() {
+            if (to - from > chunkSize) {
+                final long middle = from + (to - from) / 2;
+                final ChunkTask left = new ChunkTask(channel, fileSize, from, middle);
+                left.fork();
+                final List<Chunk> right = new ChunkTask(channel, fileSize, middle, to).compute();
+                final List<Chunk> chunks = left.join();
+                chunks.addAll(right);
+                return chunks;
+            }
+
+            final long windowStart = Math.max(0, from - lookBehind);
+            final Latin1CharSequence text = map(channel, windowStart, Math.min(fileSize, to + lookAhead));
+            final int chunkStart = (int) (from - windowStart);
+            final int chunkEnd = (int) (to - windowStart);
+            final Speculation[] speculations = new Speculation[matchers.size()];
+            for (int i = 0; i < matchers.size(); i++) {
+                speculations[i] = new Speculation(windowStart);
+                matchers.get(i).visit(text, chunkStart, chunkEnd, speculations[i]);
+            }
+            final List<Chunk> chunks = new ArrayList<>();
+            chunks.add(new Chunk(from, to, speculations));
+            return chunks;
+        }
+    }
+
+    /**
+     * Zero-copy view of a byte buffer as text, one byte per character.
+     */
+    static final class Latin1CharSequence implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        Latin1CharSequence(final ByteBuffer buffer, final int offset, final int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new Latin1CharSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            final char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+            }
+            return new String(chars);
+        }
+    }
+}
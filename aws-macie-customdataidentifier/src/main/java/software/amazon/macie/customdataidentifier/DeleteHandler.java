@@ -1,13 +1,9 @@
 package software.amazon.macie.customdataidentifier;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.DeleteCustomDataIdentifierRequest;
 import software.amazon.awssdk.services.macie2.model.DeleteCustomDataIdentifierResponse;
 import software.amazon.awssdk.services.macie2.model.Macie2Exception;
-import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -15,6 +11,8 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class DeleteHandler extends BaseHandlerStd {
+    protected static final String OPERATION = "AWS-Macie-CustomDataIdentifier::Delete";
+
     private Logger logger;
     private ResourceHandlerRequest<ResourceModel> request;
 
@@ -36,7 +34,7 @@ public class DeleteHandler extends BaseHandlerStd {
             .then(progress ->
                 // If your service API throws 'ResourceNotFoundException' for delete requests then DeleteHandler can return just proxy.initiate construction
                 // STEP 1.0 [initialize a proxy context]
-                proxy.initiate("AWS-Macie-CustomDataIdentifier::Delete", proxyClient, model, callbackContext)
+                proxy.initiate(OPERATION, proxyClient, model, callbackContext)
 
                     // STEP 1.1 [construct a body of a request]
                     .translateToServiceRequest(Translator::translateToDeleteRequest)
@@ -61,12 +59,9 @@ public class DeleteHandler extends BaseHandlerStd {
         DeleteCustomDataIdentifierResponse response;
         try {
             response = proxyClient.injectCredentialsAndInvokeV2(deleteCustomDataIdentifierRequest, proxyClient.client()::deleteCustomDataIdentifier);
-        } catch (final ResourceNotFoundException e) {
-            logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(e)));
-            throw new CfnNotFoundException(ResourceModel.TYPE_NAME, e.getMessage()); // CloudFormation catches this exception and quietly succeeds
         } catch (final Macie2Exception e) {
-            logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(e)));
-            throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
+            // CloudFormation catches the not found exception and quietly succeeds
+            throw translateException(OPERATION, request, e, logger);
         }
 
         logger.log(String.format("%s successfully deleted.", ResourceModel.TYPE_NAME));
@@ -0,0 +1,172 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.HttpStatus;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+
+/**
+ * Maps service exceptions to handler error codes through a fixed table of rules, checked in order. A rule matches on the exception type,
+ * the SDK error code, the HTTP status code or a message pattern, or on a type together with one of the others; patterns are compiled
+ * once, when the table is built.
+ * <p>
+ * {@link #forMacie(HandlerErrorCode)} is the table every Macie resource handler uses. This file is the same in each resource module.
+ * <p>
+ * Failures are logged as a single compact record. The full stack trace is only logged when {@value #STACK_TRACE_ENV} is set to "true".
+ */
+final class ErrorClassifier {
+
+    static final String STACK_TRACE_ENV = "MACIE_LOG_STACK_TRACES";
+    private static final String ERROR_RECORD
+        = "Exception occurred: operation=%s awsAccountId=%s exception=%s errorCode=%s statusCode=%d requestId=%s classification=%s message=%s";
+    private static final boolean LOG_STACK_TRACES = Boolean.parseBoolean(System.getenv(STACK_TRACE_ENV));
+
+    // Macie returns these with a 403, 400 or 409 whatever the operation, so only the message tells them apart
+    static final String MACIE_NOT_ENABLED = "Macie is not enabled";
+    static final String MACIE_ALREADY_ENABLED = "Macie has already been enabled";
+    static final String FILTER_ALREADY_EXISTS = "Filter name already exists. A unique name is required.";
+
+    private final List<Rule> rules;
+    private final boolean logStackTraces;
+
+    ErrorClassifier(final Rule... rules) {
+        this(LOG_STACK_TRACES, rules);
+    }
+
+    ErrorClassifier(final boolean logStackTraces, final Rule... rules) {
+        this.rules = Collections.unmodifiableList(Arrays.asList(rules));
+        this.logStackTraces = logStackTraces;
+    }
+
+    /**
+     * The rules of every Macie resource handler.
+     * @param macieNotEnabled what a call on an account without Macie means for the resource: the session is not found, a findings
+     *     filter or custom data identifier can't be reached
+     */
+    static ErrorClassifier forMacie(final HandlerErrorCode macieNotEnabled) {
+        return new ErrorClassifier(
+            onMessage(MACIE_NOT_ENABLED, macieNotEnabled),
+            onType(ResourceNotFoundException.class, HandlerErrorCode.NotFound),
+            onErrorCode("ResourceNotFoundException", HandlerErrorCode.NotFound),
+            onStatusCode(Macie2Exception.class, HttpStatus.SC_NOT_FOUND, HandlerErrorCode.NotFound),
+            onMessage(FILTER_ALREADY_EXISTS, HandlerErrorCode.AlreadyExists),
+            onMessage(MACIE_ALREADY_ENABLED, HandlerErrorCode.AlreadyExists));
+    }
+
+    static Rule onType(final Class<? extends Exception> type, final HandlerErrorCode handlerErrorCode) {
+        return new Rule(type, null, 0, null, handlerErrorCode);
+    }
+
+    static Rule onErrorCode(final String errorCode, final HandlerErrorCode handlerErrorCode) {
+        return new Rule(null, errorCode, 0, null, handlerErrorCode);
+    }
+
+    static Rule onStatusCode(final int statusCode, final HandlerErrorCode handlerErrorCode) {
+        return new Rule(null, null, statusCode, null, handlerErrorCode);
+    }
+
+    /**
+     * Matches exceptions of the given type with the given HTTP status code, so that a status code from another service is not read
+     * as one from Macie.
+     */
+    static Rule onStatusCode(final Class<? extends Exception> type, final int statusCode, final HandlerErrorCode handlerErrorCode) {
+        return new Rule(type, null, statusCode, null, handlerErrorCode);
+    }
+
+    /**
+     * Matches when the exception message, or the service error message, contains the given text.
+     */
+    static Rule onMessage(final String text, final HandlerErrorCode handlerErrorCode) {
+        return new Rule(null, null, 0, Pattern.compile(text, Pattern.LITERAL), handlerErrorCode);
+    }
+
+    /**
+     * @return the handler error code of the first matching rule, null when no rule matches
+     */
+    HandlerErrorCode classify(final Exception exception) {
+        final String errorCode = errorCode(exception);
+        final int statusCode = statusCode(exception);
+        final String message = exception.getMessage();
+        final String errorMessage = errorMessage(exception);
+        for (final Rule rule : rules) {
+            if (rule.matches(exception, errorCode, statusCode, message, errorMessage)) {
+                return rule.handlerErrorCode;
+            }
+        }
+        return null;
+    }
+
+    void log(final Logger logger, final String operation, final String awsAccountId, final Exception exception,
+        final HandlerErrorCode classification) {
+        logger.log(String.format(ERROR_RECORD, operation, awsAccountId, exception.getClass().getSimpleName(), errorCode(exception),
+            statusCode(exception), requestId(exception), classification, exception.getMessage()));
+        if (logStackTraces) {
+            logger.log(ExceptionUtils.getStackTrace(exception));
+        }
+    }
+
+    static String errorCode(final Exception exception) {
+        return exception instanceof AwsServiceException && ((AwsServiceException) exception).awsErrorDetails() != null
+            ? ((AwsServiceException) exception).awsErrorDetails().errorCode() : null;
+    }
+
+    static int statusCode(final Exception exception) {
+        if (!(exception instanceof AwsServiceException)) {
+            return 0;
+        }
+        final AwsServiceException serviceException = (AwsServiceException) exception;
+        if (serviceException.awsErrorDetails() == null || serviceException.awsErrorDetails().sdkHttpResponse() == null) {
+            return serviceException.statusCode();
+        }
+        return serviceException.awsErrorDetails().sdkHttpResponse().statusCode();
+    }
+
+    private static String errorMessage(final Exception exception) {
+        return exception instanceof AwsServiceException && ((AwsServiceException) exception).awsErrorDetails() != null
+            ? ((AwsServiceException) exception).awsErrorDetails().errorMessage() : null;
+    }
+
+    private static String requestId(final Exception exception) {
+        return exception instanceof AwsServiceException ? ((AwsServiceException) exception).requestId() : null;
+    }
+
+    static final class Rule {
+        private final Class<? extends Exception> type;
+        private final String errorCode;
+        private final int statusCode;
+        private final Pattern messagePattern;
+        private final HandlerErrorCode handlerErrorCode;
+
+        private Rule(final Class<? extends Exception> type, final String errorCode, final int statusCode, final Pattern messagePattern,
+            final HandlerErrorCode handlerErrorCode) {
+            this.type = type;
+            this.errorCode = errorCode;
+            this.statusCode = statusCode;
+            this.messagePattern = messagePattern;
+            this.handlerErrorCode = handlerErrorCode;
+        }
+
+        private boolean matches(final Exception exception, final String exceptionErrorCode, final int exceptionStatusCode,
+            final String message, final String errorMessage) {
+            if (type != null && !type.isInstance(exception)) {
+                return false;
+            }
+            if (errorCode != null && !errorCode.equals(exceptionErrorCode)) {
+                return false;
+            }
+            if (statusCode != 0 && statusCode != exceptionStatusCode) {
+                return false;
+            }
+            return messagePattern == null
+                || (message != null && messagePattern.matcher(message).find())
+                || (errorMessage != null && messagePattern.matcher(errorMessage).find());
+        }
+    }
+}
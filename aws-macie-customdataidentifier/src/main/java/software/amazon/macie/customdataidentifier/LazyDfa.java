@@ -0,0 +1,834 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regex engine for bulk scanning that never backtracks: the regex is compiled into a Thompson NFA and matched with a DFA whose states
+ * are built on demand, so each search is linear in the length of the text it reads whatever the regex.
+ * <p>
+ * Matches are the ones {@link java.util.regex.Matcher#find()} returns. DFA states are ordered lists of NFA states, in the order a
+ * backtracking matcher would try them, and lower priority threads are cut as soon as a higher priority one matches (leftmost-first,
+ * greedy). A forward pass finds where the match ends, a backward pass over the reversed regex finds where it starts.
+ * <p>
+ * Only the part of the syntax where this is exactly equivalent is supported: literals and escapes, {@code .}, character classes
+ * without intersections or nesting, {@code \d \w \s} and their negations, groups, alternation and greedy quantifiers. Anchors, word
+ * boundaries, lookarounds, back references, lazy or possessive quantifiers, inline flags, regexes that can match the empty string and
+ * repeats of something that can be empty make {@link #compile(String)} fail, and the caller falls back to java.util.regex. Text is
+ * read as UTF-16 chars, so a supplementary character counts as two characters for {@code .} and negated classes.
+ * <p>
+ * Instances are thread safe: the DFA cache is per thread, and is dropped and rebuilt when it exceeds {@link #MAX_CACHED_STATES}.
+ */
+final class LazyDfa {
+
+    static final int MAX_NFA_STATES = 10_000;
+    static final int MAX_CACHED_STATES = 2_048;
+
+    private final CharClasses classes;
+    private final ThreadLocal<Cache> forward;
+    private final ThreadLocal<Cache> backward;
+
+    private LazyDfa(final CharClasses classes, final Program forwardProgram, final Program backwardProgram) {
+        this.classes = classes;
+        this.forward = ThreadLocal.withInitial(() -> new Cache(forwardProgram, classes.size(), true));
+        this.backward = ThreadLocal.withInitial(() -> new Cache(backwardProgram, classes.size(), false));
+    }
+
+    /**
+     * @param regex a regex that compiles with {@link java.util.regex.Pattern}
+     * @throws IllegalArgumentException if the regex uses syntax this engine does not support
+     */
+    static LazyDfa compile(final String regex) {
+        final Node root = new Parser(regex).parse();
+        if (root.nullable()) {
+            throw new IllegalArgumentException("regex matches the empty string");
+        }
+        final List<int[]> sets = new ArrayList<>();
+        root.collectSets(sets);
+        final CharClasses classes = new CharClasses(sets);
+        return new LazyDfa(classes, Program.compile(root, classes, false), Program.compile(root, classes, true));
+    }
+
+    CustomDataIdentifierMatcher.Finder finder(final CharSequence text) {
+        return finder(text, 0);
+    }
+
+    /**
+     * @param from where the first search starts; the regex has no anchors or lookarounds, so the text before it doesn't matter
+     */
+    CustomDataIdentifierMatcher.Finder finder(final CharSequence text, final int from) {
+        return new CustomDataIdentifierMatcher.Finder() {
+            private int position = from;
+            private int start = -1;
+            private int end = -1;
+
+            @Override
+            public boolean find() {
+                final int matchEnd = position <= text.length() ? searchEnd(text, position) : -1;
+                if (matchEnd < 0) {
+                    position = text.length() + 1;
+                    return false;
+                }
+                start = searchStart(text, position, matchEnd);
+                end = matchEnd;
+                // matches are never empty
+                position = matchEnd;
+                return true;
+            }
+
+            @Override
+            public int start() {
+                return start;
+            }
+
+            @Override
+            public int end() {
+                return end;
+            }
+        };
+    }
+
+    /**
+     * @return the end of the first match starting at or after {@code from}, -1 if there is none
+     */
+    private int searchEnd(final CharSequence text, final int from) {
+        final Cache cache = forward.get();
+        int state = cache.start();
+        int end = -1;
+        final int length = text.length();
+        for (int i = from; i < length; i++) {
+            state = cache.next(state, classes.classOf(text.charAt(i)));
+            final State current = cache.state(state);
+            if (current.matched) {
+                end = i + 1;
+            }
+            if (current.dead) {
+                break;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return the smallest start in {@code [from, end)} of a match ending at {@code end}
+     */
+    private int searchStart(final CharSequence text, final int from, final int end) {
+        final Cache cache = backward.get();
+        int state = cache.start();
+        int start = end;
+        for (int i = end - 1; i >= from; i--) {
+            state = cache.next(state, classes.classOf(text.charAt(i)));
+            final State current = cache.state(state);
+            if (current.matched) {
+                start = i;
+            }
+            if (current.dead) {
+                break;
+            }
+        }
+        return start;
+    }
+
+    // Syntax tree, character sets are sorted, non-overlapping [low, high] pairs
+
+    private abstract static class Node {
+        abstract boolean nullable();
+
+        abstract void collectSets(List<int[]> sets);
+    }
+
+    private static final class SetNode extends Node {
+        private final int[] ranges;
+
+        private SetNode(final int[] ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        boolean nullable() {
+            return false;
+        }
+
+        @Override
+        void collectSets(final List<int[]> sets) {
+            sets.add(ranges);
+        }
+    }
+
+    private static final class ConcatNode extends Node {
+        private final List<Node> elements;
+
+        private ConcatNode(final List<Node> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        boolean nullable() {
+            for (final Node element : elements) {
+                if (!element.nullable()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void collectSets(final List<int[]> sets) {
+            for (final Node element : elements) {
+                element.collectSets(sets);
+            }
+        }
+    }
+
+    private static final class AlternationNode extends Node {
+        private final List<Node> alternatives;
+
+        private AlternationNode(final List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        boolean nullable() {
+            for (final Node alternative : alternatives) {
+                if (alternative.nullable()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void collectSets(final List<int[]> sets) {
+            for (final Node alternative : alternatives) {
+                alternative.collectSets(sets);
+            }
+        }
+    }
+
+    private static final class RepeatNode extends Node {
+        private final Node body;
+        private final int min;
+        // -1 for unbounded
+        private final int max;
+
+        private RepeatNode(final Node body, final int min, final int max) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean nullable() {
+            return min == 0 || body.nullable();
+        }
+
+        @Override
+        void collectSets(final List<int[]> sets) {
+            body.collectSets(sets);
+        }
+    }
+
+    private static final int[] DIGITS = {'0', '9'};
+    private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+    // line terminators are the characters . does not match
+    private static final int[] DOT = negate(new int[] {'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029});
+
+    private static int[] union(final int[] left, final int[] right) {
+        final int[] all = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, all, left.length, right.length);
+        final Integer[] order = new Integer[all.length / 2];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(all[2 * a], all[2 * b]));
+        final int[] merged = new int[all.length];
+        int size = 0;
+        for (final int pair : order) {
+            final int low = all[2 * pair];
+            final int high = all[2 * pair + 1];
+            if (size > 0 && low <= merged[size - 1] + 1) {
+                merged[size - 1] = Math.max(merged[size - 1], high);
+            } else {
+                merged[size++] = low;
+                merged[size++] = high;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static int[] negate(final int[] ranges) {
+        final int[] negated = new int[ranges.length + 2];
+        int size = 0;
+        int next = Character.MIN_VALUE;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                negated[size++] = next;
+                negated[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_VALUE) {
+            negated[size++] = next;
+            negated[size++] = Character.MAX_VALUE;
+        }
+        return Arrays.copyOf(negated, size);
+    }
+
+    private static final class Parser {
+        private final String regex;
+        private int position;
+
+        private Parser(final String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            final Node node = alternation();
+            if (position < regex.length()) {
+                throw unsupported();
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            final List<Node> alternatives = new ArrayList<>();
+            alternatives.add(concatenation());
+            while (peek('|')) {
+                position++;
+                alternatives.add(concatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+        }
+
+        private Node concatenation() {
+            final List<Node> elements = new ArrayList<>();
+            while (position < regex.length() && !peek('|') && !peek(')')) {
+                elements.add(repeat(atom()));
+            }
+            return elements.size() == 1 ? elements.get(0) : new ConcatNode(elements);
+        }
+
+        private Node repeat(final Node atom) {
+            Node node = atom;
+            while (position < regex.length()) {
+                final char c = regex.charAt(position);
+                int min;
+                int max;
+                if (c == '*' || c == '+' || c == '?') {
+                    position++;
+                    min = c == '+' ? 1 : 0;
+                    max = c == '?' ? 1 : -1;
+                } else if (c == '{') {
+                    position++;
+                    min = number();
+                    max = min;
+                    if (peek(',')) {
+                        position++;
+                        max = peek('}') ? -1 : number();
+                    }
+                    expect('}');
+                } else {
+                    return node;
+                }
+                if (peek('?') || peek('+')) {
+                    // lazy and possessive quantifiers
+                    throw unsupported();
+                }
+                if (node.nullable()) {
+                    throw unsupported();
+                }
+                node = new RepeatNode(node, min, max);
+            }
+            return node;
+        }
+
+        private Node atom() {
+            final char c = regex.charAt(position++);
+            switch (c) {
+                case '(':
+                    if (peek('?')) {
+                        position++;
+                        if (peek(':')) {
+                            position++;
+                        } else if (peek('<') && position + 1 < regex.length() && Character.isLetter(regex.charAt(position + 1))) {
+                            // a named group matches like any other group
+                            position = regex.indexOf('>', position) + 1;
+                        } else {
+                            throw unsupported();
+                        }
+                    }
+                    final Node body = alternation();
+                    expect(')');
+                    return body;
+                case '[':
+                    return new SetNode(charClass());
+                case '.':
+                    return new SetNode(DOT);
+                case '\\':
+                    if (peek('Q')) {
+                        return quoted();
+                    }
+                    return new SetNode(escape());
+                case '^':
+                case '$':
+                case ')':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw unsupported();
+                default:
+                    if (Character.isSurrogate(c)) {
+                        throw unsupported();
+                    }
+                    return new SetNode(new int[] {c, c});
+            }
+        }
+
+        private Node quoted() {
+            position++;
+            final int end = regex.indexOf("\\E", position);
+            final String text = regex.substring(position, end < 0 ? regex.length() : end);
+            position = end < 0 ? regex.length() : end + 2;
+            final List<Node> elements = new ArrayList<>();
+            for (int i = 0; i < text.length(); i++) {
+                if (Character.isSurrogate(text.charAt(i))) {
+                    throw unsupported();
+                }
+                elements.add(new SetNode(new int[] {text.charAt(i), text.charAt(i)}));
+            }
+            if (elements.isEmpty()) {
+                throw unsupported();
+            }
+            return new ConcatNode(elements);
+        }
+
+        private int[] charClass() {
+            final boolean negated = peek('^');
+            if (negated) {
+                position++;
+            }
+            if (peek(']')) {
+                throw unsupported();
+            }
+            int[] set = new int[0];
+            while (!peek(']')) {
+                if (position >= regex.length() || peek('[') || regex.startsWith("&&", position)) {
+                    throw unsupported();
+                }
+                final int[] low = classAtom();
+                if (low.length == 2 && low[0] == low[1] && peek('-') && position + 1 < regex.length()
+                    && regex.charAt(position + 1) != ']') {
+                    position++;
+                    final int[] high = classAtom();
+                    if (high.length != 2 || high[0] != high[1] || high[0] < low[0]) {
+                        throw unsupported();
+                    }
+                    set = union(set, new int[] {low[0], high[0]});
+                } else {
+                    set = union(set, low);
+                }
+            }
+            position++;
+            return negated ? negate(set) : set;
+        }
+
+        private int[] classAtom() {
+            final char c = regex.charAt(position++);
+            if (c == '\\') {
+                return escape();
+            }
+            if (Character.isSurrogate(c)) {
+                throw unsupported();
+            }
+            return new int[] {c, c};
+        }
+
+        private int[] escape() {
+            if (position >= regex.length()) {
+                throw unsupported();
+            }
+            final char c = regex.charAt(position++);
+            switch (c) {
+                case 'd':
+                    return DIGITS;
+                case 'D':
+                    return negate(DIGITS);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return negate(WORD);
+                case 's':
+                    return SPACE;
+                case 'S':
+                    return negate(SPACE);
+                case 't':
+                    return literal('\t');
+                case 'n':
+                    return literal('\n');
+                case 'r':
+                    return literal('\r');
+                case 'f':
+                    return literal('\f');
+                case 'e':
+                    return literal('\u001B');
+                case 'x':
+                    return literal(hex(2));
+                case 'u':
+                    return literal(hex(4));
+                default:
+                    if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+                        // boundaries, back references, property classes, octal and control escapes
+                        throw unsupported();
+                    }
+                    return literal(c);
+            }
+        }
+
+        private int[] literal(final int c) {
+            if (Character.isSurrogate((char) c)) {
+                throw unsupported();
+            }
+            return new int[] {c, c};
+        }
+
+        private int hex(final int digits) {
+            if (peek('{') || position + digits > regex.length()) {
+                throw unsupported();
+            }
+            try {
+                final int value = Integer.parseInt(regex.substring(position, position + digits), 16);
+                position += digits;
+                return value;
+            } catch (final NumberFormatException e) {
+                throw unsupported();
+            }
+        }
+
+        private int number() {
+            final int start = position;
+            while (position < regex.length() && Character.isDigit(regex.charAt(position))) {
+                position++;
+            }
+            if (start == position || position - start > 5) {
+                throw unsupported();
+            }
+            return Integer.parseInt(regex.substring(start, position));
+        }
+
+        private boolean peek(final char c) {
+            return position < regex.length() && regex.charAt(position) == c;
+        }
+
+        private void expect(final char c) {
+            if (!peek(c)) {
+                throw unsupported();
+            }
+            position++;
+        }
+
+        private IllegalArgumentException unsupported() {
+            return new IllegalArgumentException(String.format("unsupported syntax at offset %d of %s", position, regex));
+        }
+    }
+
+    /**
+     * Partition of the chars into classes that every character set of the regex either contains entirely or not at all.
+     */
+    private static final class CharClasses {
+        // first char of each class, in increasing order, starting with 0
+        private final int[] starts;
+        private final int[] latin1;
+
+        private CharClasses(final List<int[]> sets) {
+            final int[] boundaries = new int[2 * sets.stream().mapToInt(set -> set.length).sum() + 1];
+            int size = 0;
+            boundaries[size++] = 0;
+            for (final int[] set : sets) {
+                for (int i = 0; i < set.length; i += 2) {
+                    boundaries[size++] = set[i];
+                    boundaries[size++] = set[i + 1] + 1;
+                }
+            }
+            this.starts = Arrays.stream(boundaries, 0, size).filter(c -> c <= Character.MAX_VALUE).distinct().sorted().toArray();
+            this.latin1 = new int[256];
+            for (int c = 0; c < latin1.length; c++) {
+                latin1[c] = search(c);
+            }
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        int classOf(final char c) {
+            return c < latin1.length ? latin1[c] : search(c);
+        }
+
+        boolean[] members(final int[] set) {
+            final boolean[] members = new boolean[starts.length];
+            for (int i = 0; i < set.length; i += 2) {
+                for (int k = search(set[i]); k < starts.length && starts[k] <= set[i + 1]; k++) {
+                    members[k] = true;
+                }
+            }
+            return members;
+        }
+
+        private int search(final int c) {
+            final int index = Arrays.binarySearch(starts, c);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+
+    /**
+     * Thompson NFA, states are indexes into parallel arrays.
+     */
+    private static final class Program {
+        private static final int CHAR = 0;
+        private static final int SPLIT = 1;
+        private static final int MATCH = 2;
+
+        private final CharClasses classes;
+        private final boolean reversed;
+        private int[] ops = new int[64];
+        // CHAR: next state, SPLIT: preferred branch
+        private int[] out = new int[64];
+        // SPLIT: other branch
+        private int[] alternative = new int[64];
+        private boolean[][] members = new boolean[64][];
+        private int size;
+        private int start;
+
+        private Program(final CharClasses classes, final boolean reversed) {
+            this.classes = classes;
+            this.reversed = reversed;
+        }
+
+        static Program compile(final Node root, final CharClasses classes, final boolean reversed) {
+            final Program program = new Program(classes, reversed);
+            final int match = program.add(MATCH, -1, -1, null);
+            program.start = program.compile(root, match);
+            return program;
+        }
+
+        // builds back to front: returns the entry state of the node, whose matches continue with next
+        private int compile(final Node node, final int next) {
+            if (node instanceof SetNode) {
+                return add(CHAR, next, -1, classes.members(((SetNode) node).ranges));
+            }
+            if (node instanceof ConcatNode) {
+                final List<Node> elements = ((ConcatNode) node).elements;
+                int entry = next;
+                for (int i = 0; i < elements.size(); i++) {
+                    entry = compile(elements.get(reversed ? i : elements.size() - 1 - i), entry);
+                }
+                return entry;
+            }
+            if (node instanceof AlternationNode) {
+                final List<Node> alternatives = ((AlternationNode) node).alternatives;
+                int entry = compile(alternatives.get(alternatives.size() - 1), next);
+                for (int i = alternatives.size() - 2; i >= 0; i--) {
+                    entry = add(SPLIT, compile(alternatives.get(i), next), entry, null);
+                }
+                return entry;
+            }
+            final RepeatNode repeat = (RepeatNode) node;
+            int entry = next;
+            if (repeat.max < 0) {
+                // greedy: one more iteration is tried before leaving the loop
+                final int loop = add(SPLIT, -1, next, null);
+                // compiling the body can grow the arrays, so it has to happen before out is dereferenced
+                final int body = compile(repeat.body, loop);
+                out[loop] = body;
+                entry = loop;
+            } else {
+                for (int i = repeat.min; i < repeat.max; i++) {
+                    entry = add(SPLIT, compile(repeat.body, entry), next, null);
+                }
+            }
+            for (int i = 0; i < repeat.min; i++) {
+                entry = compile(repeat.body, entry);
+            }
+            return entry;
+        }
+
+        private int add(final int op, final int next, final int other, final boolean[] set) {
+            if (size == MAX_NFA_STATES) {
+                throw new IllegalArgumentException("regex needs more than " + MAX_NFA_STATES + " NFA states");
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                out = Arrays.copyOf(out, size * 2);
+                alternative = Arrays.copyOf(alternative, size * 2);
+                members = Arrays.copyOf(members, size * 2);
+            }
+            ops[size] = op;
+            out[size] = next;
+            alternative[size] = other;
+            members[size] = set;
+            return size++;
+        }
+    }
+
+    private static final class State {
+        // CHAR and MATCH states of the NFA, highest priority first
+        private final int[] threads;
+        private final boolean matched;
+        // whether a new match attempt starts at the next position
+        private final boolean searching;
+        private final boolean dead;
+
+        private State(final int[] threads, final boolean matched, final boolean searching) {
+            this.threads = threads;
+            this.matched = matched;
+            this.searching = searching;
+            this.dead = threads.length == 0 && !searching;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof State && Arrays.equals(threads, ((State) other).threads) && matched == ((State) other).matched
+                && searching == ((State) other).searching;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(threads) + (matched ? 2 : 0) + (searching ? 1 : 0);
+        }
+    }
+
+    /**
+     * DFA states built so far for one program, with their transitions.
+     */
+    private static final class Cache {
+        private static final int UNKNOWN = -1;
+
+        private final Program program;
+        private final int classCount;
+        // the forward search is unanchored and leftmost-first, the backward one anchored and longest
+        private final boolean leftmostFirst;
+        private final Map<State, Integer> ids = new HashMap<>();
+        private final List<State> states = new ArrayList<>();
+        private int[] transitions;
+        private int start = UNKNOWN;
+
+        // scratch space for computing a transition
+        private final int[] stamps;
+        private int stamp;
+        private final int[] stack;
+        private final int[] threads;
+        private int threadCount;
+        private boolean matched;
+
+        private Cache(final Program program, final int classCount, final boolean leftmostFirst) {
+            this.program = program;
+            this.classCount = classCount;
+            this.leftmostFirst = leftmostFirst;
+            this.transitions = new int[16 * classCount];
+            this.stamps = new int[program.size];
+            this.stack = new int[2 * program.size + 1];
+            this.threads = new int[program.size];
+        }
+
+        int start() {
+            if (start == UNKNOWN) {
+                beginStep();
+                addThreads(program.start);
+                start = intern(new State(Arrays.copyOf(threads, threadCount), false, leftmostFirst));
+            }
+            return start;
+        }
+
+        State state(final int id) {
+            return states.get(id);
+        }
+
+        int next(final int id, final int charClass) {
+            final int known = transitions[id * classCount + charClass];
+            if (known != UNKNOWN) {
+                return known;
+            }
+            final State current = states.get(id);
+            beginStep();
+            for (final int thread : current.threads) {
+                if (program.ops[thread] == Program.CHAR && program.members[thread][charClass]) {
+                    addThreads(program.out[thread]);
+                    if (matched && leftmostFirst) {
+                        break;
+                    }
+                }
+            }
+            final boolean searching = current.searching && !matched;
+            if (searching) {
+                addThreads(program.start);
+            }
+            final State next = new State(Arrays.copyOf(threads, threadCount), matched, searching);
+
+            int from = id;
+            if (!ids.containsKey(next) && states.size() >= MAX_CACHED_STATES) {
+                clear();
+                from = intern(current);
+            }
+            final int nextId = intern(next);
+            transitions[from * classCount + charClass] = nextId;
+            return nextId;
+        }
+
+        private void beginStep() {
+            stamp++;
+            threadCount = 0;
+            matched = false;
+        }
+
+        // adds the CHAR and MATCH states reachable from state in priority order, cutting everything after a match when leftmost-first
+        private void addThreads(final int state) {
+            int top = 0;
+            stack[top++] = state;
+            while (top > 0 && !(matched && leftmostFirst)) {
+                final int current = stack[--top];
+                if (stamps[current] == stamp) {
+                    continue;
+                }
+                stamps[current] = stamp;
+                switch (program.ops[current]) {
+                    case Program.SPLIT:
+                        stack[top++] = program.alternative[current];
+                        stack[top++] = program.out[current];
+                        break;
+                    case Program.MATCH:
+                        matched = true;
+                        break;
+                    default:
+                        threads[threadCount++] = current;
+                        break;
+                }
+            }
+        }
+
+        private int intern(final State state) {
+            final Integer known = ids.get(state);
+            if (known != null) {
+                return known;
+            }
+            final int id = states.size();
+            states.add(state);
+            ids.put(state, id);
+            if ((id + 1) * classCount > transitions.length) {
+                transitions = Arrays.copyOf(transitions, transitions.length * 2);
+            }
+            Arrays.fill(transitions, id * classCount, (id + 1) * classCount, UNKNOWN);
+            return id;
+        }
+
+        private void clear() {
+            ids.clear();
+            states.clear();
+            start = UNKNOWN;
+        }
+    }
+}
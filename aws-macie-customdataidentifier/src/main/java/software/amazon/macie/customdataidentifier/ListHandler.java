@@ -2,12 +2,16 @@ package software.amazon.macie.customdataidentifier;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.lang3.exception.ExceptionUtils;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.services.macie2.Macie2AsyncClient;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.CustomDataIdentifierSummary;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierRequest;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierResponse;
 import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersRequest;
 import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersResponse;
 import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -17,10 +21,25 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class ListHandler extends BaseHandlerStd {
+    protected static final String OPERATION = "AWS-Macie-CustomDataIdentifier::List";
 
+    // Set to "true" to return complete models (regex, keywords, ignore words, maximum match distance) from List
+    protected static final String HYDRATE_ENV = "MACIE_LIST_HYDRATE";
+    // Number of identifiers resolved concurrently on the async path
+    private static final int HYDRATION_CHUNK_SIZE = 20;
+
+    private final boolean hydrate;
     private Logger logger;
     private ResourceHandlerRequest<ResourceModel> request;
 
+    public ListHandler() {
+        this(Boolean.parseBoolean(System.getenv(HYDRATE_ENV)));
+    }
+
+    ListHandler(final boolean hydrate) {
+        this.hydrate = hydrate;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -35,14 +54,14 @@ public class ListHandler extends BaseHandlerStd {
         final ResourceModel model = request.getDesiredResourceState();
 
         // STEP 1 [initialize a proxy context]
-        return proxy.initiate("AWS-Macie-CustomDataIdentifier::List", proxyClient, model, callbackContext)
+        return proxy.initiate(OPERATION, proxyClient, model, callbackContext)
 
             // STEP 2 [construct a body of a request]
             .translateToServiceRequest(resourceModel -> Translator.translateToListRequest(request.getNextToken()))
 
             // STEP 3 [make an api call]
             .makeServiceCall(this::listResources)
-            .done(this::constructResourceModelFromResponse);
+            .done((listRequest, listResponse, client, resourceModel, context) -> constructResourceModelFromResponse(listResponse, client));
     }
 
     /**
@@ -61,7 +80,7 @@ public class ListHandler extends BaseHandlerStd {
         try {
             response = proxyClient.injectCredentialsAndInvokeV2(listCustomDataIdentifiersRequest, proxyClient.client()::listCustomDataIdentifiers);
         } catch (final Macie2Exception e) {
-            logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(e)));
+            ERRORS.log(logger, OPERATION, request.getAwsAccountId(), e, ERRORS.classify(e));
             throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
         }
 
@@ -73,14 +92,24 @@ public class ListHandler extends BaseHandlerStd {
      * Build the Progress Event object from SDK response.
      *
      * @param listResponse the aws service describe resource response
+     * @param proxyClient  the aws service client used to hydrate the models
      * @return progressEvent indicating success, in progress with delay callback or failed state
      */
     private ProgressEvent<ResourceModel, CallbackContext> constructResourceModelFromResponse(
-        final ListCustomDataIdentifiersResponse listResponse
+        final ListCustomDataIdentifiersResponse listResponse,
+        final ProxyClient<Macie2Client> proxyClient
     ) {
         final List<ResourceModel> models = new ArrayList<>();
         String nextToken = listResponse.nextToken();
 
+        if (hydrate) {
+            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .resourceModels(hydrateResources(listResponse.items(), proxyClient))
+                .nextToken(nextToken)
+                .status(OperationStatus.SUCCESS)
+                .build();
+        }
+
         // STEP 4 [construct resource models]
         for (CustomDataIdentifierSummary summary : listResponse.items()) {
             models.add(
@@ -100,4 +129,54 @@ public class ListHandler extends BaseHandlerStd {
             .status(OperationStatus.SUCCESS)
             .build();
     }
+
+    /**
+     * Resolve the complete resource models for a page of summaries. BatchGetCustomDataIdentifiers only returns the summary fields, so
+     * each identifier is read with GetCustomDataIdentifier, concurrently in chunks when the async client is enabled.
+     * Identifiers deleted between the list and the read are left out of the page.
+     *
+     * @param summaries   the summaries of one list page
+     * @param proxyClient the aws service client to make the calls
+     * @return complete resource models, in list order
+     */
+    private List<ResourceModel> hydrateResources(
+        final List<CustomDataIdentifierSummary> summaries,
+        final ProxyClient<Macie2Client> proxyClient
+    ) {
+        final List<ResourceModel> models = new ArrayList<>(summaries.size());
+        for (int start = 0; start < summaries.size(); start += HYDRATION_CHUNK_SIZE) {
+            final List<CustomDataIdentifierSummary> chunk = summaries.subList(start, Math.min(start + HYDRATION_CHUNK_SIZE, summaries.size()));
+            final List<CompletableFuture<GetCustomDataIdentifierResponse>> futures = new ArrayList<>(chunk.size());
+            if (proxyClient instanceof AsyncProxyClient) {
+                // send the whole chunk before waiting on any of it
+                for (CustomDataIdentifierSummary summary : chunk) {
+                    futures.add(((AsyncProxyClient) proxyClient).invokeAsync(readRequest(summary), Macie2AsyncClient::getCustomDataIdentifier));
+                }
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                final CustomDataIdentifierSummary summary = chunk.get(i);
+                final GetCustomDataIdentifierResponse response;
+                try {
+                    response = futures.isEmpty()
+                        ? proxyClient.injectCredentialsAndInvokeV2(readRequest(summary), proxyClient.client()::getCustomDataIdentifier)
+                        : AsyncProxyClient.join(futures.get(i));
+                } catch (final ResourceNotFoundException e) {
+                    logger.log(String.format("%s [%s] was deleted while listing, skipping.", ResourceModel.TYPE_NAME, summary.id()));
+                    continue;
+                } catch (final Macie2Exception e) {
+                    ERRORS.log(logger, OPERATION, request.getAwsAccountId(), e, ERRORS.classify(e));
+                    throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
+                }
+                final ResourceModel model = Translator.translateFromReadResponse(response);
+                model.setCreatedAt(summary.createdAt().toString());
+                models.add(model);
+            }
+        }
+        logger.log(String.format("%d %s hydrated.", models.size(), ResourceModel.TYPE_NAME));
+        return models;
+    }
+
+    private static GetCustomDataIdentifierRequest readRequest(final CustomDataIdentifierSummary summary) {
+        return GetCustomDataIdentifierRequest.builder().id(summary.id()).build();
+    }
 }
@@ -0,0 +1,137 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Proxy client that records every service call as an EMF metric line: operation (for example {@code macie2::CreateFindingsFilter}),
+ * latency, response size from the Content-Length header, and as properties the HTTP status code, the error code of failed calls and the
+ * retry attempt the handler is on. Calls are otherwise passed through untouched.
+ */
+final class MeteredProxyClient<ClientT> implements ProxyClient<ClientT> {
+
+    private static final String OPERATION_PREFIX = "macie2::";
+    private static final String REQUEST_SUFFIX = "Request";
+
+    private final ProxyClient<ClientT> delegate;
+    private final EmfMetrics metrics;
+    private final IntSupplier retryAttempts;
+
+    private MeteredProxyClient(final ProxyClient<ClientT> delegate, final EmfMetrics metrics, final IntSupplier retryAttempts) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.retryAttempts = retryAttempts;
+    }
+
+    /**
+     * @return the metered client, or the client itself when metrics are turned off
+     */
+    static <ClientT> ProxyClient<ClientT> wrap(final ProxyClient<ClientT> delegate, final EmfMetrics metrics, final IntSupplier retryAttempts) {
+        return metrics.enabled() ? new MeteredProxyClient<>(delegate, metrics, retryAttempts) : delegate;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction) {
+        final long start = System.nanoTime();
+        final ResponseT response;
+        try {
+            response = delegate.injectCredentialsAndInvokeV2(request, requestFunction);
+        } catch (final RuntimeException e) {
+            record(request, null, e, start);
+            throw e;
+        }
+        record(request, response, null, start);
+        return response;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> injectCredentialsAndInvokeV2Async(
+        final RequestT request, final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        final long start = System.nanoTime();
+        final CompletableFuture<ResponseT> future = delegate.injectCredentialsAndInvokeV2Async(request, requestFunction);
+        // callers keep the original future, the metric is recorded on the side
+        future.whenComplete((response, throwable) -> record(request, response, unwrap(throwable), start));
+        return future;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse, IterableT extends SdkIterable<ResponseT>> IterableT
+    injectCredentialsAndInvokeIterableV2(final RequestT request, final Function<RequestT, IterableT> requestFunction) {
+        return delegate.injectCredentialsAndInvokeIterableV2(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseInputStream<ResponseT> injectCredentialsAndInvokeV2InputStream(
+        final RequestT request, final Function<RequestT, ResponseInputStream<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2InputStream(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseBytes<ResponseT> injectCredentialsAndInvokeV2Bytes(
+        final RequestT request, final Function<RequestT, ResponseBytes<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2Bytes(request, requestFunction);
+    }
+
+    @Override
+    public ClientT client() {
+        return delegate.client();
+    }
+
+    static String operationName(final AwsRequest request) {
+        final String name = request.getClass().getSimpleName();
+        return OPERATION_PREFIX + (name.endsWith(REQUEST_SUFFIX) ? name.substring(0, name.length() - REQUEST_SUFFIX.length()) : name);
+    }
+
+    private void record(final AwsRequest request, final AwsResponse response, final Throwable error, final long startNanos) {
+        final EmfMetrics.Entry entry = metrics.entry(operationName(request))
+            .metric("Latency", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), EmfMetrics.MILLISECONDS)
+            .metric("Error", error == null ? 0 : 1, EmfMetrics.COUNT)
+            .property("RetryAttempt", retryAttempts.getAsInt());
+
+        final SdkHttpResponse httpResponse = response == null ? null : response.sdkHttpResponse();
+        if (httpResponse != null) {
+            entry.property("StatusCode", httpResponse.statusCode());
+            final long responseSize = responseSize(httpResponse);
+            if (responseSize >= 0) {
+                entry.metric("ResponseSize", responseSize, EmfMetrics.BYTES);
+            }
+        }
+        if (error instanceof AwsServiceException) {
+            final AwsServiceException serviceException = (AwsServiceException) error;
+            entry.property("StatusCode", serviceException.statusCode());
+            entry.property("ErrorCode", serviceException.awsErrorDetails() == null ? null : serviceException.awsErrorDetails().errorCode());
+        } else if (error != null) {
+            entry.property("ErrorCode", error.getClass().getSimpleName());
+        }
+        entry.emit();
+    }
+
+    // -1 when the header is missing or malformed, a bad header costs the metric and never the call
+    private static long responseSize(final SdkHttpResponse httpResponse) {
+        final String length = httpResponse.firstMatchingHeader("Content-Length").orElse(null);
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
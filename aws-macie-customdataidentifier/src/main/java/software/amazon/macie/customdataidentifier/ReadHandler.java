@@ -1,13 +1,9 @@
 package software.amazon.macie.customdataidentifier;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierRequest;
 import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierResponse;
 import software.amazon.awssdk.services.macie2.model.Macie2Exception;
-import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -15,6 +11,8 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class ReadHandler extends BaseHandlerStd {
+    protected static final String OPERATION = "AWS-Macie-CustomDataIdentifier::Read";
+
     private Logger logger;
     private ResourceHandlerRequest<ResourceModel> request;
 
@@ -31,7 +29,7 @@ public class ReadHandler extends BaseHandlerStd {
         final ResourceModel model = request.getDesiredResourceState();
 
         // STEP 1 [initialize a proxy context]
-        return proxy.initiate("AWS-Macie-CustomDataIdentifier::Read", proxyClient, model, callbackContext)
+        return proxy.initiate(OPERATION, proxyClient, model, callbackContext)
 
             // STEP 2 [construct a body of a request]
             .translateToServiceRequest(Translator::translateToReadRequest)
@@ -43,6 +41,16 @@ public class ReadHandler extends BaseHandlerStd {
             .done(this::constructResourceModelFromResponse);
     }
 
+    /**
+     * Content fingerprint of a custom data identifier, see {@link Translator#fingerprint(ResourceModel)}. Compare the fingerprint of a
+     * desired model with the one of the model this handler reads to check for drift without comparing field by field.
+     * @param model desired or read resource model
+     * @return 32 hex digits
+     */
+    public static String fingerprint(final ResourceModel model) {
+        return Translator.fingerprint(model);
+    }
+
     /**
      * Implement client invocation of the read getCustomDataIdentifierRequest through the proxyClient, which is already initialised with
      * caller credentials, correct region and retry settings
@@ -57,12 +65,8 @@ public class ReadHandler extends BaseHandlerStd {
         GetCustomDataIdentifierResponse response;
         try {
             response = proxyClient.injectCredentialsAndInvokeV2(getCustomDataIdentifierRequest, proxyClient.client()::getCustomDataIdentifier);
-        } catch (final ResourceNotFoundException e) {
-            logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(e)));
-            throw new CfnNotFoundException(ResourceModel.TYPE_NAME, e.getMessage());
         } catch (final Macie2Exception e) {
-            logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(e)));
-            throw new CfnGeneralServiceException(ResourceModel.TYPE_NAME, e);
+            throw translateException(OPERATION, request, e, logger);
         }
 
         logger.log(String.format("%s has successfully been read.", ResourceModel.TYPE_NAME));
@@ -0,0 +1,844 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Static check of a custom data identifier regex for catastrophic backtracking, run before the regex is sent to
+ * CreateCustomDataIdentifier. The regex is parsed into a small syntax tree (the java.util.regex syntax, constructs that don't affect
+ * backtracking are approximated) and the tree is checked for the known shapes:
+ * <ul>
+ *   <li>exponential: a repeated group that can match the same text in more than one way per iteration, such as {@code (a+)+},
+ *   {@code (\w+\s?)*}, {@code (a*)*} or {@code (\d|\w)+};</li>
+ *   <li>polynomial: a sequence of repeats that can each consume the same characters, such as {@code \d+\.?\d+} or {@code .*x.*},
+ *   O(n^k) for k such repeats; or a bounded repeat of at most k iterations whose body holds such an unbounded repeat, such as
+ *   {@code (.*,){10}}, where each iteration can take a different share of the input.</li>
+ * </ul>
+ * The check is conservative: a shape is reported whenever the character sets involved overlap, even if some other part of the pattern
+ * would rule the ambiguity out. Possessive quantifiers never backtrack and are not reported. Parsing and analysis are linear in the
+ * length of the regex.
+ */
+final class RegexComplexityAnalyzer {
+
+    // bounded repeats above this many iterations are treated like unbounded ones, bounded repeats up to it count as O(n^max)
+    static final int REPEAT_THRESHOLD = 16;
+
+    enum Complexity {
+        LINEAR,
+        POLYNOMIAL,
+        EXPONENTIAL
+    }
+
+    private RegexComplexityAnalyzer() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the regex is not well formed enough to be analyzed
+     */
+    static Result analyze(final String regex) {
+        final Node root = new Parser(regex).parse();
+        final Result result = new Result();
+        visit(root, result);
+        return result;
+    }
+
+    /**
+     * Outcome of the analysis, with one finding per reported shape.
+     */
+    static final class Result {
+        private Complexity complexity = Complexity.LINEAR;
+        private int degree = 1;
+        private final List<String> findings = new ArrayList<>();
+
+        Complexity complexity() {
+            return complexity;
+        }
+
+        boolean isLinear() {
+            return complexity == Complexity.LINEAR;
+        }
+
+        /**
+         * @return k for O(n^k) when polynomial, 1 otherwise
+         */
+        int degree() {
+            return degree;
+        }
+
+        List<String> findings() {
+            return Collections.unmodifiableList(findings);
+        }
+
+        /**
+         * Rough worst-case number of backtracking steps for one match attempt on an input of the given length.
+         */
+        double worstCaseSteps(final int inputLength) {
+            switch (complexity) {
+                case EXPONENTIAL:
+                    return Math.pow(2, inputLength);
+                case POLYNOMIAL:
+                    return Math.pow(inputLength, degree);
+                default:
+                    return inputLength;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return complexity + (complexity == Complexity.POLYNOMIAL ? " O(n^" + degree + ")" : "") + " " + findings;
+        }
+
+        private void exponential(final int offset, final String shape) {
+            complexity = Complexity.EXPONENTIAL;
+            findings.add(String.format("exponential backtracking at offset %d: %s", offset, shape));
+        }
+
+        private void polynomial(final int offset, final int degree, final String shape) {
+            if (complexity != Complexity.EXPONENTIAL) {
+                complexity = Complexity.POLYNOMIAL;
+            }
+            this.degree = Math.max(this.degree, degree);
+            findings.add(String.format("polynomial backtracking at offset %d: %s", offset, shape));
+        }
+    }
+
+    private static void visit(final Node node, final Result result) {
+        if (node instanceof Repeat) {
+            final Repeat repeat = (Repeat) node;
+            if (repeat.isUnbounded() && !repeat.possessive) {
+                checkRepeatedBody(repeat, result);
+            } else if (repeat.max > 1 && !repeat.possessive) {
+                checkBoundedBody(repeat, result);
+            }
+            visit(repeat.body, result);
+        } else if (node instanceof Sequence) {
+            checkSequence((Sequence) node, result);
+            for (final Node element : ((Sequence) node).elements) {
+                visit(element, result);
+            }
+        } else if (node instanceof Alternation) {
+            for (final Node alternative : ((Alternation) node).alternatives) {
+                visit(alternative, result);
+            }
+        } else if (node instanceof Group) {
+            visit(((Group) node).body, result);
+        }
+    }
+
+    /**
+     * Exponential shapes: the body of an unbounded repeat can split the same text across iterations in several ways.
+     */
+    private static void checkRepeatedBody(final Repeat repeat, final Result result) {
+        final Node body = unwrap(repeat.body);
+        if (body.nullable()) {
+            result.exponential(repeat.offset, "repeated group can match the empty string");
+        } else if (innerRepeatChars(body) != null) {
+            result.exponential(repeat.offset, "nested repeat over the same characters");
+        } else if (body instanceof Alternation && overlappingAlternatives((Alternation) body)) {
+            result.exponential(repeat.offset, "repeated alternation with overlapping alternatives");
+        }
+    }
+
+    /**
+     * Polynomial shapes of bounded repeats: with an unbounded repeat inside that can take over the rest of the body, each of the max
+     * iterations can end anywhere in the input, O(n^max).
+     */
+    private static void checkBoundedBody(final Repeat repeat, final Result result) {
+        if (innerRepeatChars(unwrap(repeat.body)) != null) {
+            result.polynomial(repeat.offset, repeat.max,
+                String.format("%d bounded iterations of a repeat over overlapping characters", repeat.max));
+        }
+    }
+
+    /**
+     * @return the characters of an unbounded repeat that can make up the whole node, everything else in it being optional or able to
+     * match some of the same characters, null if there is none
+     */
+    private static CharSet innerRepeatChars(final Node node) {
+        if (node instanceof Repeat) {
+            final Repeat repeat = (Repeat) node;
+            return repeat.isUnbounded() && !repeat.possessive ? repeat.body.chars() : null;
+        }
+        if (node instanceof Group) {
+            return ((Group) node).lookaround ? null : innerRepeatChars(((Group) node).body);
+        }
+        if (node instanceof Alternation) {
+            for (final Node alternative : ((Alternation) node).alternatives) {
+                final CharSet chars = innerRepeatChars(alternative);
+                if (chars != null) {
+                    return chars;
+                }
+            }
+            return null;
+        }
+        if (node instanceof Sequence) {
+            final List<Node> elements = ((Sequence) node).elements;
+            for (int i = 0; i < elements.size(); i++) {
+                final CharSet chars = innerRepeatChars(elements.get(i));
+                if (chars != null && othersAbsorbed(elements, i, chars)) {
+                    return chars;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean othersAbsorbed(final List<Node> elements, final int except, final CharSet chars) {
+        for (int j = 0; j < elements.size(); j++) {
+            if (j != except && !elements.get(j).nullable() && !elements.get(j).chars().intersects(chars)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean overlappingAlternatives(final Alternation alternation) {
+        final List<Node> alternatives = alternation.alternatives;
+        for (int i = 0; i < alternatives.size(); i++) {
+            for (int j = i + 1; j < alternatives.size(); j++) {
+                if (alternatives.get(i).first().intersects(alternatives.get(j).first())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Polynomial shapes: chains of unbounded repeats whose characters overlap, separated only by optional elements or elements made of
+     * characters both repeats accept.
+     */
+    private static void checkSequence(final Sequence sequence, final Result result) {
+        int chainLength = 0;
+        int chainOffset = 0;
+        CharSet chainChars = null;
+        boolean separated = false;
+        for (final Node element : sequence.elements) {
+            final Node unwrapped = unwrap(element);
+            if (unwrapped instanceof Repeat && ((Repeat) unwrapped).isUnbounded() && !((Repeat) unwrapped).possessive) {
+                final Node body = ((Repeat) unwrapped).body;
+                final CharSet chars = body.chars();
+                // the previous repeats can only give characters back to this one if it can start with them
+                if (chainChars != null && !separated && chainChars.intersects(body.first())) {
+                    chainChars = chainChars.and(chars);
+                    chainLength++;
+                } else {
+                    report(result, chainOffset, chainLength);
+                    chainChars = chars;
+                    chainLength = 1;
+                    chainOffset = ((Repeat) unwrapped).offset;
+                }
+                separated = false;
+            } else if (chainChars != null && !element.nullable() && !element.chars().isSubsetOf(chainChars)) {
+                separated = true;
+            }
+        }
+        report(result, chainOffset, chainLength);
+    }
+
+    private static void report(final Result result, final int offset, final int chainLength) {
+        if (chainLength > 1) {
+            result.polynomial(offset, chainLength, String.format("%d adjacent repeats over overlapping characters", chainLength));
+        }
+    }
+
+    private static Node unwrap(final Node node) {
+        Node unwrapped = node;
+        while (unwrapped instanceof Group && !((Group) unwrapped).lookaround) {
+            unwrapped = ((Group) unwrapped).body;
+        }
+        return unwrapped;
+    }
+
+    // Syntax tree
+
+    private abstract static class Node {
+        abstract boolean nullable();
+
+        // characters a match can start with
+        abstract CharSet first();
+
+        // characters a match can contain
+        abstract CharSet chars();
+    }
+
+    private static final class Chars extends Node {
+        private final CharSet set;
+
+        private Chars(final CharSet set) {
+            this.set = set;
+        }
+
+        @Override
+        boolean nullable() {
+            return false;
+        }
+
+        @Override
+        CharSet first() {
+            return set;
+        }
+
+        @Override
+        CharSet chars() {
+            return set;
+        }
+    }
+
+    // anchors, boundaries and flag groups
+    private static final class Empty extends Node {
+        @Override
+        boolean nullable() {
+            return true;
+        }
+
+        @Override
+        CharSet first() {
+            return CharSet.NONE;
+        }
+
+        @Override
+        CharSet chars() {
+            return CharSet.NONE;
+        }
+    }
+
+    private static final class Sequence extends Node {
+        private final List<Node> elements;
+
+        private Sequence(final List<Node> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        boolean nullable() {
+            for (final Node element : elements) {
+                if (!element.nullable()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        CharSet first() {
+            CharSet first = CharSet.NONE;
+            for (final Node element : elements) {
+                first = first.or(element.first());
+                if (!element.nullable()) {
+                    break;
+                }
+            }
+            return first;
+        }
+
+        @Override
+        CharSet chars() {
+            CharSet chars = CharSet.NONE;
+            for (final Node element : elements) {
+                chars = chars.or(element.chars());
+            }
+            return chars;
+        }
+    }
+
+    private static final class Alternation extends Node {
+        private final List<Node> alternatives;
+
+        private Alternation(final List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        boolean nullable() {
+            for (final Node alternative : alternatives) {
+                if (alternative.nullable()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        CharSet first() {
+            CharSet first = CharSet.NONE;
+            for (final Node alternative : alternatives) {
+                first = first.or(alternative.first());
+            }
+            return first;
+        }
+
+        @Override
+        CharSet chars() {
+            CharSet chars = CharSet.NONE;
+            for (final Node alternative : alternatives) {
+                chars = chars.or(alternative.chars());
+            }
+            return chars;
+        }
+    }
+
+    private static final class Group extends Node {
+        private final Node body;
+        // lookarounds are zero width, their body is only analyzed on its own
+        private final boolean lookaround;
+
+        private Group(final Node body, final boolean lookaround) {
+            this.body = body;
+            this.lookaround = lookaround;
+        }
+
+        @Override
+        boolean nullable() {
+            return lookaround || body.nullable();
+        }
+
+        @Override
+        CharSet first() {
+            return lookaround ? CharSet.NONE : body.first();
+        }
+
+        @Override
+        CharSet chars() {
+            return lookaround ? CharSet.NONE : body.chars();
+        }
+    }
+
+    private static final class Repeat extends Node {
+        private final Node body;
+        private final int min;
+        // -1 for unbounded
+        private final int max;
+        private final boolean possessive;
+        private final int offset;
+
+        private Repeat(final Node body, final int min, final int max, final boolean possessive, final int offset) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+            this.possessive = possessive;
+            this.offset = offset;
+        }
+
+        boolean isUnbounded() {
+            return max < 0 || max > REPEAT_THRESHOLD;
+        }
+
+        @Override
+        boolean nullable() {
+            return min == 0 || body.nullable();
+        }
+
+        @Override
+        CharSet first() {
+            return body.first();
+        }
+
+        @Override
+        CharSet chars() {
+            return body.chars();
+        }
+    }
+
+    /**
+     * Set of characters: exact for ASCII, a single "any non-ASCII character" bit above it, which is enough to tell overlaps apart in
+     * practice and keeps every operation a couple of long operations.
+     */
+    static final class CharSet {
+        static final CharSet NONE = new CharSet(0, 0, false);
+        static final CharSet ANY = new CharSet(-1L, -1L, true);
+
+        private final long low;
+        private final long high;
+        private final boolean nonAscii;
+
+        private CharSet(final long low, final long high, final boolean nonAscii) {
+            this.low = low;
+            this.high = high;
+            this.nonAscii = nonAscii;
+        }
+
+        static CharSet of(final char c) {
+            return range(c, c);
+        }
+
+        static CharSet range(final char from, final char to) {
+            long low = 0;
+            long high = 0;
+            for (int c = from; c <= Math.min(to, 127); c++) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else {
+                    high |= 1L << (c - 64);
+                }
+            }
+            return new CharSet(low, high, to > 127);
+        }
+
+        CharSet or(final CharSet other) {
+            return new CharSet(low | other.low, high | other.high, nonAscii || other.nonAscii);
+        }
+
+        CharSet and(final CharSet other) {
+            return new CharSet(low & other.low, high & other.high, nonAscii && other.nonAscii);
+        }
+
+        CharSet negate() {
+            return new CharSet(~low, ~high, true);
+        }
+
+        boolean intersects(final CharSet other) {
+            return (low & other.low) != 0 || (high & other.high) != 0 || (nonAscii && other.nonAscii);
+        }
+
+        boolean isSubsetOf(final CharSet other) {
+            return (low & ~other.low) == 0 && (high & ~other.high) == 0 && (!nonAscii || other.nonAscii);
+        }
+    }
+
+    // Parser
+
+    private static final CharSet DIGITS = CharSet.range('0', '9');
+    private static final CharSet WORD = DIGITS.or(CharSet.range('a', 'z')).or(CharSet.range('A', 'Z')).or(CharSet.of('_'));
+    private static final CharSet SPACE = CharSet.range('\t', '\r').or(CharSet.of(' '));
+
+    private static final class Parser {
+        private final String regex;
+        private int position;
+        private int literal;
+
+        private Parser(final String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            final Node node = alternation();
+            if (position < regex.length()) {
+                throw error("unbalanced parenthesis");
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            final List<Node> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (peek('|')) {
+                position++;
+                alternatives.add(sequence());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+        }
+
+        private Node sequence() {
+            final List<Node> elements = new ArrayList<>();
+            while (position < regex.length() && !peek('|') && !peek(')')) {
+                elements.add(quantified(atom()));
+            }
+            return elements.size() == 1 ? elements.get(0) : new Sequence(elements);
+        }
+
+        private Node quantified(final Node atom) {
+            Node node = atom;
+            while (position < regex.length()) {
+                final int offset = position;
+                final char c = regex.charAt(position);
+                int min;
+                int max;
+                if (c == '*') {
+                    min = 0;
+                    max = -1;
+                    position++;
+                } else if (c == '+') {
+                    min = 1;
+                    max = -1;
+                    position++;
+                } else if (c == '?') {
+                    min = 0;
+                    max = 1;
+                    position++;
+                } else if (c == '{' && position + 1 < regex.length() && Character.isDigit(regex.charAt(position + 1))) {
+                    position++;
+                    min = number();
+                    max = min;
+                    if (peek(',')) {
+                        position++;
+                        max = peek('}') ? -1 : number();
+                    }
+                    expect('}');
+                } else {
+                    return node;
+                }
+                boolean possessive = false;
+                if (peek('?')) {
+                    position++;
+                } else if (peek('+')) {
+                    possessive = true;
+                    position++;
+                }
+                node = new Repeat(node, min, max, possessive, offset);
+            }
+            return node;
+        }
+
+        private Node atom() {
+            final char c = regex.charAt(position++);
+            switch (c) {
+                case '(':
+                    return group();
+                case '[':
+                    return new Chars(charClass());
+                case '.':
+                    return new Chars(CharSet.ANY);
+                case '^':
+                case '$':
+                    return new Empty();
+                case '\\':
+                    return escape();
+                default:
+                    return new Chars(CharSet.of(c));
+            }
+        }
+
+        private Node group() {
+            boolean lookaround = false;
+            if (peek('?')) {
+                position++;
+                final char kind = next();
+                if (kind == '=' || kind == '!') {
+                    lookaround = true;
+                } else if (kind == '<' && (peek('=') || peek('!'))) {
+                    position++;
+                    lookaround = true;
+                } else if (kind == '<') {
+                    // named group
+                    while (next() != '>') {
+                        // skip the name
+                    }
+                } else if (kind != ':' && kind != '>') {
+                    // inline flags, either (?flags) or (?flags:body)
+                    position--;
+                    while (position < regex.length() && !peek(')') && !peek(':')) {
+                        position++;
+                    }
+                    if (next() == ')') {
+                        return new Empty();
+                    }
+                }
+            }
+            final Node body = alternation();
+            expect(')');
+            return new Group(body, lookaround);
+        }
+
+        private CharSet charClass() {
+            boolean negated = false;
+            if (peek('^')) {
+                negated = true;
+                position++;
+            }
+            CharSet set = CharSet.NONE;
+            boolean first = true;
+            while (!peek(']') || first) {
+                if (position >= regex.length()) {
+                    throw error("unclosed character class");
+                }
+                first = false;
+                if (regex.startsWith("&&", position)) {
+                    position += 2;
+                    set = set.and(classRest());
+                    break;
+                }
+                if (peek('[')) {
+                    position++;
+                    set = set.or(charClass());
+                    continue;
+                }
+                final CharSet element = classElement();
+                set = set.or(element);
+            }
+            expect(']');
+            return negated ? set.negate() : set;
+        }
+
+        // right hand side of an intersection, up to the closing bracket of the enclosing class
+        private CharSet classRest() {
+            CharSet set = CharSet.NONE;
+            while (!peek(']')) {
+                if (position >= regex.length()) {
+                    throw error("unclosed character class");
+                }
+                if (peek('[')) {
+                    position++;
+                    set = set.or(charClass());
+                } else {
+                    set = set.or(classElement());
+                }
+            }
+            return set;
+        }
+
+        private CharSet classElement() {
+            final CharSet from = classChar();
+            final int low = literal;
+            if (low >= 0 && peek('-') && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+                position++;
+                final CharSet to = classChar();
+                return literal >= 0 ? CharSet.range((char) low, (char) literal) : from.or(CharSet.of('-')).or(to);
+            }
+            return from;
+        }
+
+        // sets literal to the character read, or -1 for a predefined class such as \d
+        private CharSet classChar() {
+            final char c = next();
+            if (c != '\\') {
+                literal = c;
+                return CharSet.of(c);
+            }
+            final Node escaped = escape();
+            return escaped instanceof Chars ? ((Chars) escaped).set : CharSet.NONE;
+        }
+
+        private Node escape() {
+            literal = -1;
+            final char c = next();
+            switch (c) {
+                case 'd':
+                    return new Chars(DIGITS);
+                case 'D':
+                    return new Chars(DIGITS.negate());
+                case 'w':
+                    return new Chars(WORD);
+                case 'W':
+                    return new Chars(WORD.negate());
+                case 's':
+                    return new Chars(SPACE);
+                case 'S':
+                    return new Chars(SPACE.negate());
+                case 'b':
+                case 'B':
+                case 'A':
+                case 'z':
+                case 'Z':
+                case 'G':
+                    return new Empty();
+                case 'p':
+                case 'P':
+                    // Unicode and POSIX classes, not worth modelling exactly
+                    skipBraces();
+                    return new Chars(CharSet.ANY);
+                case 'k':
+                    skipBraces();
+                    return new Chars(CharSet.ANY);
+                case 'Q':
+                    return quoted();
+                case 't':
+                    return literal('\t');
+                case 'n':
+                    return literal('\n');
+                case 'r':
+                    return literal('\r');
+                case 'f':
+                    return literal('\f');
+                case 'e':
+                    return literal('\u001B');
+                case 'x':
+                    return literal((char) hex(peek('{') ? braced() : take(2)));
+                case 'u':
+                    return literal((char) hex(take(4)));
+                default:
+                    if (c >= '1' && c <= '9') {
+                        // back reference: matches whatever the group matched
+                        return new Chars(CharSet.ANY);
+                    }
+                    return literal(c);
+            }
+        }
+
+        private Node literal(final char c) {
+            literal = c;
+            return new Chars(CharSet.of(c));
+        }
+
+        private Node quoted() {
+            final int end = regex.indexOf("\\E", position);
+            final String text = regex.substring(position, end < 0 ? regex.length() : end);
+            position = end < 0 ? regex.length() : end + 2;
+            final List<Node> elements = new ArrayList<>();
+            for (int i = 0; i < text.length(); i++) {
+                elements.add(new Chars(CharSet.of(text.charAt(i))));
+            }
+            return new Sequence(elements);
+        }
+
+        private void skipBraces() {
+            if (peek('{') || peek('<')) {
+                braced();
+            } else {
+                position++;
+            }
+        }
+
+        private String braced() {
+            final char close = regex.charAt(position) == '<' ? '>' : '}';
+            final int end = regex.indexOf(close, position);
+            if (end < 0) {
+                throw error("unclosed " + close);
+            }
+            final String content = regex.substring(position + 1, end);
+            position = end + 1;
+            return content;
+        }
+
+        private String take(final int length) {
+            if (position + length > regex.length()) {
+                throw error("truncated escape");
+            }
+            final String taken = regex.substring(position, position + length);
+            position += length;
+            return taken;
+        }
+
+        private int hex(final String digits) {
+            try {
+                return Integer.parseInt(digits, 16);
+            } catch (final NumberFormatException e) {
+                throw error("bad hex escape");
+            }
+        }
+
+        private int number() {
+            final int start = position;
+            while (position < regex.length() && Character.isDigit(regex.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw error("number expected");
+            }
+            return Integer.parseInt(regex.substring(start, position));
+        }
+
+        private boolean peek(final char c) {
+            return position < regex.length() && regex.charAt(position) == c;
+        }
+
+        private char next() {
+            if (position >= regex.length()) {
+                throw error("unexpected end of pattern");
+            }
+            return regex.charAt(position++);
+        }
+
+        private void expect(final char c) {
+            if (!peek(c)) {
+                throw error("'" + c + "' expected");
+            }
+            position++;
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(String.format("%s at offset %d of %s", message, position, regex));
+        }
+    }
+}
@@ -63,6 +63,25 @@ public class Translator {
                         .build();
   }
 
+  /**
+   * Content fingerprint of a custom data identifier: 32 hex digits over its name, description, regex, maximum match distance and
+   * the sets of keywords and ignore words, in any order. A desired model and the model read back fingerprint the same when Macie
+   * holds what the model asks for; an unset maximum match distance counts as the default Macie applies.
+   * @param model resource model
+   * @return fingerprint
+   */
+  static String fingerprint(final ResourceModel model) {
+    return new Fingerprint()
+        .add('N', model.getName())
+        .add('D', model.getDescription())
+        .add('R', model.getRegex())
+        .add('M', model.getMaximumMatchDistance() == null
+            ? CustomDataIdentifierMatcher.DEFAULT_MAXIMUM_MATCH_DISTANCE : model.getMaximumMatchDistance())
+        .addAll('K', model.getKeywords())
+        .addAll('I', model.getIgnoreWords())
+        .toString();
+  }
+
   /**
    * Request to delete a resource
    * @param model resource model
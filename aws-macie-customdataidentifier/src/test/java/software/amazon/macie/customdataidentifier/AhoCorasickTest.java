@@ -0,0 +1,60 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class AhoCorasickTest {
+
+    @Test
+    public void matchEnds_FindsOverlappingAndNestedWords() {
+        final AhoCorasick automaton = AhoCorasick.compile(Arrays.asList("he", "she", "his", "hers"), false);
+
+        // "ushers": she and he end at 4, hers ends at 6
+        assertThat(automaton.matchEnds("ushers")).containsExactly(4, 6);
+        assertThat(automaton.countMatches("ushers")).isEqualTo(3);
+        assertThat(automaton.countMatches("this is his")).isEqualTo(2);
+    }
+
+    @Test
+    public void compile_IgnoreCase() {
+        final AhoCorasick automaton = AhoCorasick.compile(Collections.singletonList("Employee"), true);
+
+        assertThat(automaton.matchEnds("EMPLOYEE id, employee id")).containsExactly(8, 21);
+    }
+
+    @Test
+    public void compile_CaseSensitive() {
+        final AhoCorasick automaton = AhoCorasick.compile(Collections.singletonList("TEST"), false);
+
+        assertThat(automaton.containsMatch("test TEST", 0, 4)).isFalse();
+        assertThat(automaton.containsMatch("test TEST", 4, 9)).isTrue();
+        // the word has to fit in the range
+        assertThat(automaton.containsMatch("test TEST", 4, 8)).isFalse();
+    }
+
+    @Test
+    public void compile_SkipsEmptyWords() {
+        assertThat(AhoCorasick.compile(Collections.singletonList(""), false).isEmpty()).isTrue();
+        assertThat(AhoCorasick.compile(Collections.emptyList(), true).matchEnds("anything")).isEmpty();
+        assertThat(AhoCorasick.compile(Arrays.asList("", "a"), false).isEmpty()).isFalse();
+    }
+
+    @Test
+    public void countMatches_CountsDuplicateWordsOnce() {
+        assertThat(AhoCorasick.compile(Arrays.asList("he", "she", "he"), false).countMatches("she said he")).isEqualTo(3);
+        assertThat(AhoCorasick.compile(Arrays.asList("ID", "id"), true).countMatches("id ID")).isEqualTo(2);
+    }
+
+    @Test
+    public void matchEnds_GrowsBeyondInitialCapacity() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("ab\u00e9");
+        }
+
+        assertThat(AhoCorasick.compile(Collections.singletonList("b"), false).matchEnds(text)).hasSize(40);
+    }
+}
@@ -14,6 +14,7 @@ import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierReque
 import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierResponse;
 import software.amazon.awssdk.services.macie2.model.Macie2Exception;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -27,6 +28,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class CreateHandlerTest extends AbstractTestBase {
@@ -114,4 +117,149 @@ public class CreateHandlerTest extends AbstractTestBase {
         Assertions.assertThrows(CfnGeneralServiceException.class,
                                 () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
     }
+
+    @Test
+    public void handleRequest_whenRegexBacktracksAndRejectionEnabled_thenThrowInvalidRequest() {
+        final CreateHandler handler = new CreateHandler(true);
+
+        final ResourceModel model
+                = ResourceModel.builder()
+                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                               .regex("([0-9]+-?)+")
+                               .build();
+
+        final ResourceHandlerRequest<ResourceModel> request
+                = ResourceHandlerRequest.<ResourceModel>builder()
+                                        .clientRequestToken(CLIENT_TOKEN)
+                                        .desiredResourceState(model)
+                                        .build();
+
+        Assertions.assertThrows(CfnInvalidRequestException.class,
+                                () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+        verify(sdkClient, never()).createCustomDataIdentifier(ArgumentMatchers.any(CreateCustomDataIdentifierRequest.class));
+    }
+
+    @Test
+    public void handleRequest_whenRegexBacktracksAndRejectionDisabled_thenCreateResource() {
+        final CreateHandler handler = new CreateHandler(false);
+
+        final ResourceModel model
+                = ResourceModel.builder()
+                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                               .regex("([0-9]+-?)+")
+                               .build();
+
+        final ResourceHandlerRequest<ResourceModel> request
+                = ResourceHandlerRequest.<ResourceModel>builder()
+                                        .clientRequestToken(CLIENT_TOKEN)
+                                        .desiredResourceState(model)
+                                        .build();
+
+        doReturn(CreateCustomDataIdentifierResponse.builder().customDataIdentifierId(CUSTOM_DATA_IDENTIFIER_ID).build())
+                .when(sdkClient)
+                .createCustomDataIdentifier(ArgumentMatchers.any(CreateCustomDataIdentifierRequest.class));
+
+        doReturn(GetCustomDataIdentifierResponse.builder()
+                                               .id(CUSTOM_DATA_IDENTIFIER_ID)
+                                               .name(model.getName())
+                                               .regex(model.getRegex())
+                                               .build())
+                 .when(sdkClient)
+                 .getCustomDataIdentifier(ArgumentMatchers.any(GetCustomDataIdentifierRequest.class));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void handleRequest_whenRegexBacktracksAboveMaxDegreeAndRejectionEnabled_thenThrowInvalidRequest() {
+        final CreateHandler handler = new CreateHandler(true);
+
+        final ResourceModel model
+                = ResourceModel.builder()
+                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                               .regex("(.*,){10}")
+                               .build();
+
+        final ResourceHandlerRequest<ResourceModel> request
+                = ResourceHandlerRequest.<ResourceModel>builder()
+                                        .clientRequestToken(CLIENT_TOKEN)
+                                        .desiredResourceState(model)
+                                        .build();
+
+        final CfnInvalidRequestException exception
+                = Assertions.assertThrows(CfnInvalidRequestException.class,
+                                          () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+        assertThat(exception.getMessage()).contains("O(n^10)");
+        verify(sdkClient, never()).createCustomDataIdentifier(ArgumentMatchers.any(CreateCustomDataIdentifierRequest.class));
+    }
+
+    @Test
+    public void handleRequest_whenEmailRegexAndRejectionEnabled_thenCreateResource() {
+        assertThat(createWithRegex("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}").getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void handleRequest_whenDecimalRegexAndRejectionEnabled_thenCreateResource() {
+        assertThat(createWithRegex("\\d+\\.?\\d+").getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    /**
+     * Creates a custom data identifier with rejection of backtracking regexes enabled.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> createWithRegex(final String regex) {
+        final CreateHandler handler = new CreateHandler(true);
+
+        final ResourceModel model
+                = ResourceModel.builder()
+                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                               .regex(regex)
+                               .build();
+
+        final ResourceHandlerRequest<ResourceModel> request
+                = ResourceHandlerRequest.<ResourceModel>builder()
+                                        .clientRequestToken(CLIENT_TOKEN)
+                                        .desiredResourceState(model)
+                                        .build();
+
+        doReturn(CreateCustomDataIdentifierResponse.builder().customDataIdentifierId(CUSTOM_DATA_IDENTIFIER_ID).build())
+                .when(sdkClient)
+                .createCustomDataIdentifier(ArgumentMatchers.any(CreateCustomDataIdentifierRequest.class));
+
+        doReturn(GetCustomDataIdentifierResponse.builder()
+                                               .id(CUSTOM_DATA_IDENTIFIER_ID)
+                                               .name(model.getName())
+                                               .regex(model.getRegex())
+                                               .build())
+                 .when(sdkClient)
+                 .getCustomDataIdentifier(ArgumentMatchers.any(GetCustomDataIdentifierRequest.class));
+
+        return handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+    }
+
+    @Test
+    public void handleRequest_whenRegexCannotBeAnalyzed_thenLeaveItToTheService() {
+        final CreateHandler handler = new CreateHandler(true);
+
+        final ResourceModel model
+                = ResourceModel.builder()
+                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                               .regex("([0-9]")
+                               .build();
+
+        final ResourceHandlerRequest<ResourceModel> request
+                = ResourceHandlerRequest.<ResourceModel>builder()
+                                        .clientRequestToken(CLIENT_TOKEN)
+                                        .desiredResourceState(model)
+                                        .build();
+
+        doThrow(Macie2Exception.class)
+               .when(sdkClient)
+               .createCustomDataIdentifier(ArgumentMatchers.any(CreateCustomDataIdentifierRequest.class));
+
+        Assertions.assertThrows(CfnGeneralServiceException.class,
+                                () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+    }
 }
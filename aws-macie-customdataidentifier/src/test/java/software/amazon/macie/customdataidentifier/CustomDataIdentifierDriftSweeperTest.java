@@ -0,0 +1,103 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.amazon.macie.customdataidentifier.FakeMacie2Client.ALL_OPERATIONS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.macie2.model.CreateCustomDataIdentifierRequest;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+
+public class CustomDataIdentifierDriftSweeperTest extends AbstractTestBase {
+
+    @Test
+    public void sweep_ReportsInSyncDriftedMissingAndUnmanagedIdentifiers() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled();
+        final String inSync = create(macie2, "in-sync", CUSTOM_DATA_IDENTIFIER_REGEX, "account", "acct");
+        final String drifted = create(macie2, "drifted", "[0-9]{10}");
+        final String byName = create(macie2, "by-name", CUSTOM_DATA_IDENTIFIER_REGEX);
+        final String unmanaged = create(macie2, "unmanaged", CUSTOM_DATA_IDENTIFIER_REGEX);
+
+        final CustomDataIdentifierDriftSweeper.Report report = new CustomDataIdentifierDriftSweeper(macie2, 4).sweep(Arrays.asList(
+            // keywords in another order
+            model(inSync, "in-sync", CUSTOM_DATA_IDENTIFIER_REGEX, "acct", "account"),
+            model(drifted, "drifted", CUSTOM_DATA_IDENTIFIER_REGEX),
+            model(null, "by-name", CUSTOM_DATA_IDENTIFIER_REGEX),
+            model("deleted", "deleted", CUSTOM_DATA_IDENTIFIER_REGEX)));
+
+        assertThat(report.inSync()).containsExactly(inSync, byName);
+        assertThat(report.drifted()).hasSize(1);
+        assertThat(report.drifted().get(0).actual().getRegex()).isEqualTo("[0-9]{10}");
+        assertThat(report.drifted().get(0).expectedFingerprint()).isNotEqualTo(report.drifted().get(0).actualFingerprint());
+        assertThat(report.missing().stream().map(ResourceModel::getName).collect(Collectors.toList())).containsExactly("deleted");
+        assertThat(report.unmanaged().stream().map(ResourceModel::getId).collect(Collectors.toList())).containsExactly(unmanaged);
+        // only the identifiers a desired model refers to are read
+        assertThat(macie2.invocations("GetCustomDataIdentifier")).isEqualTo(3);
+    }
+
+    @Test
+    public void sweep_ReportsDuplicateModels() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled();
+        final String id = create(macie2, "identifier", CUSTOM_DATA_IDENTIFIER_REGEX);
+
+        final CustomDataIdentifierDriftSweeper.Report report = new CustomDataIdentifierDriftSweeper(macie2, 2).sweep(Arrays.asList(
+            model(id, "identifier", CUSTOM_DATA_IDENTIFIER_REGEX),
+            // the same identifier by name, asking for another regex
+            model(null, "identifier", "[0-9]{10}")));
+
+        assertThat(report.inSync()).containsExactly(id);
+        assertThat(report.drifted()).isEmpty();
+        assertThat(report.duplicates().stream().map(ResourceModel::getRegex).collect(Collectors.toList())).containsExactly("[0-9]{10}");
+        assertThat(macie2.invocations("GetCustomDataIdentifier")).isEqualTo(1);
+    }
+
+    @Test
+    public void sweep_ReadsEveryPage() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled()
+            .withLatency("GetCustomDataIdentifier", FakeMacie2Client.fixedLatency(5));
+        final List<ResourceModel> desired = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            desired.add(model(create(macie2, "identifier-" + i, CUSTOM_DATA_IDENTIFIER_REGEX), "identifier-" + i,
+                CUSTOM_DATA_IDENTIFIER_REGEX));
+        }
+
+        final CustomDataIdentifierDriftSweeper.Report report = new CustomDataIdentifierDriftSweeper(macie2, 16).sweep(desired);
+
+        assertThat(report.inSync()).hasSize(250);
+        assertThat(report.drifted()).isEmpty();
+        assertThat(report.unmanaged()).isEmpty();
+        assertThat(macie2.invocations("ListCustomDataIdentifiers")).isEqualTo(2);
+    }
+
+    @Test
+    public void sweep_ServiceErrorFails() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled();
+        final String id = create(macie2, "identifier", CUSTOM_DATA_IDENTIFIER_REGEX);
+        macie2.withServerErrorRate(ALL_OPERATIONS, 1.0);
+
+        assertThrows(Macie2Exception.class, () -> new CustomDataIdentifierDriftSweeper(macie2, 2)
+            .sweep(Arrays.asList(model(id, "identifier", CUSTOM_DATA_IDENTIFIER_REGEX))));
+    }
+
+    private static String create(final FakeMacie2Client macie2, final String name, final String regex, final String... keywords) {
+        return macie2.createCustomDataIdentifier(CreateCustomDataIdentifierRequest.builder()
+            .name(name)
+            .regex(regex)
+            .keywords(keywords)
+            .maximumMatchDistance(50)
+            .build()).customDataIdentifierId();
+    }
+
+    private static ResourceModel model(final String id, final String name, final String regex, final String... keywords) {
+        return ResourceModel.builder()
+            .id(id)
+            .name(name)
+            .regex(regex)
+            .keywords(Arrays.asList(keywords))
+            .build();
+    }
+}
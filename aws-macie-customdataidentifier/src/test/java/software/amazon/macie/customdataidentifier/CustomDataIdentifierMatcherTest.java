@@ -0,0 +1,142 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class CustomDataIdentifierMatcherTest {
+
+    private static final String EMPLOYEE_ID_REGEX = "[0-9]{4}";
+
+    @Test
+    public void match_RegexOnly() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex(EMPLOYEE_ID_REGEX)
+            .build());
+
+        final CustomDataIdentifierMatcher.Matches matches = matcher.match("ids 1234 and 5678");
+
+        assertThat(matches.count()).isEqualTo(2);
+        assertThat(matches.start(0)).isEqualTo(4);
+        assertThat(matches.end(0)).isEqualTo(8);
+        assertThat(matches.start(1)).isEqualTo(13);
+        assertThat(matcher.count("no digits here")).isZero();
+    }
+
+    @Test
+    public void match_RequiresKeywordWithinMaximumMatchDistance() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex(EMPLOYEE_ID_REGEX)
+            .keywords(Arrays.asList("employee", "badge"))
+            .maximumMatchDistance(6)
+            .build());
+        final String text = "EMPLOYEE: 1234 then 5678, badge   4321, Employee  8765";
+
+        final CustomDataIdentifierMatcher.Matches matches = matcher.match(text);
+
+        // the distance runs from the end of the keyword to the end of the match: six for 1234 and 8765, seven for 4321
+        assertThat(matches.count()).isEqualTo(2);
+        assertThat(text.substring(matches.start(0), matches.end(0))).isEqualTo("1234");
+        assertThat(text.substring(matches.start(1), matches.end(1))).isEqualTo("8765");
+    }
+
+    @Test
+    public void match_NeverCountsMatchesLongerThanMaximumMatchDistance() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex("[0-9]+")
+            .keywords(Collections.singletonList("badge"))
+            .maximumMatchDistance(6)
+            .build());
+
+        assertThat(matcher.count("badge 12345")).isEqualTo(1);
+        assertThat(matcher.count("badge123456")).isEqualTo(1);
+        assertThat(matcher.count("badge1234567")).isZero();
+    }
+
+    @Test
+    public void match_KeywordMustPrecedeTheMatch() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex(EMPLOYEE_ID_REGEX)
+            .keywords(Collections.singletonList("employee"))
+            .build());
+
+        assertThat(matcher.count("1234 employee")).isZero();
+        assertThat(matcher.count("employee 1234")).isEqualTo(1);
+    }
+
+    @Test
+    public void match_SuppressesIgnoreWordsCaseSensitively() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex("[A-Za-z]+-[0-9]+")
+            .ignoreWords(Arrays.asList("TEST", ""))
+            .build());
+
+        assertThat(matcher.count("ID-1 TEST-2 test-3 xTESTx-4")).isEqualTo(2);
+    }
+
+    @Test
+    public void match_DefaultsMaximumMatchDistance() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex(EMPLOYEE_ID_REGEX)
+            .keywords(Collections.singletonList("id"))
+            .build());
+        final StringBuilder text = new StringBuilder("id");
+        for (int i = 0; i < CustomDataIdentifierMatcher.DEFAULT_MAXIMUM_MATCH_DISTANCE - 4; i++) {
+            text.append(' ');
+        }
+
+        // the end of 1234 is 50 characters after the end of the keyword
+        assertThat(matcher.count(text + "1234")).isEqualTo(1);
+        assertThat(matcher.count(text + " 1234")).isZero();
+        assertThat(matcher.count(text + "    1234")).isZero();
+    }
+
+    @Test
+    public void match_GrowsBeyondInitialCapacity() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex(EMPLOYEE_ID_REGEX)
+            .keywords(Arrays.asList("k", "kk"))
+            .maximumMatchDistance(5)
+            .build());
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("kk ").append(1000 + i).append(' ');
+        }
+
+        final CustomDataIdentifierMatcher.Matches matches = matcher.match(text);
+
+        assertThat(matches.count()).isEqualTo(40);
+        assertThat(text.substring(matches.start(39), matches.end(39))).isEqualTo("1039");
+    }
+
+    @Test
+    public void compile_PreferDfa() {
+        final ResourceModel model = ResourceModel.builder()
+            .regex(EMPLOYEE_ID_REGEX)
+            .keywords(Collections.singletonList("employee"))
+            .ignoreWords(Collections.singletonList("99"))
+            .maximumMatchDistance(5)
+            .build();
+        final String text = "employee 1234, employee 9912, employee 56 78, Employee 4321x";
+
+        final CustomDataIdentifierMatcher dfaMatcher = CustomDataIdentifierMatcher.compile(model, true);
+        final CustomDataIdentifierMatcher.Matches matches = dfaMatcher.match(text);
+
+        assertThat(dfaMatcher.usesDfa()).isTrue();
+        assertThat(CustomDataIdentifierMatcher.compile(model).usesDfa()).isFalse();
+        assertThat(matches.count()).isEqualTo(CustomDataIdentifierMatcher.compile(model).count(text)).isEqualTo(2);
+        assertThat(text.substring(matches.start(1), matches.end(1))).isEqualTo("4321");
+    }
+
+    @Test
+    public void compile_PreferDfaFallsBackForUnsupportedSyntax() {
+        final CustomDataIdentifierMatcher matcher = CustomDataIdentifierMatcher.compile(ResourceModel.builder()
+            .regex("\\b[0-9]{4}\\b")
+            .build(), true);
+
+        assertThat(matcher.usesDfa()).isFalse();
+        assertThat(matcher.count("1234 12345 5678")).isEqualTo(2);
+    }
+}
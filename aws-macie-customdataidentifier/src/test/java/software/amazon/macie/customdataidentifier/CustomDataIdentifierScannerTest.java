@@ -0,0 +1,154 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CustomDataIdentifierScannerTest {
+
+    private static final List<ResourceModel> DEFINITIONS = Arrays.asList(
+        ResourceModel.builder().regex("[0-9]{4,5}").keywords(Collections.singletonList("Employee")).maximumMatchDistance(6).build(),
+        ResourceModel.builder().regex("[0-9]{5}").ignoreWords(Collections.singletonList("99")).build());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void scan_SmallChunksCountLikeOnePass() throws IOException {
+        final String text = corpus(20_000);
+        final Path file = write("corpus.txt", text);
+
+        final CustomDataIdentifierScanner.ScanResult onePass
+            = new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), Integer.MAX_VALUE, 64).scan(file);
+        final CustomDataIdentifierScanner.ScanResult chunked
+            = new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), 997, 64).scan(file);
+
+        assertThat(onePass.count(0)).isEqualTo(CustomDataIdentifierMatcher.compile(DEFINITIONS.get(0)).count(text));
+        assertThat(onePass.count(1)).isEqualTo(CustomDataIdentifierMatcher.compile(DEFINITIONS.get(1)).count(text));
+        assertThat(chunked.count(0)).isEqualTo(onePass.count(0));
+        assertThat(chunked.count(1)).isEqualTo(onePass.count(1));
+        assertThat(chunked.bytesScanned()).isEqualTo(text.length());
+    }
+
+    @Test
+    public void scan_DfaCountsLikeJavaRegex() throws IOException {
+        final Path file = write("corpus.txt", corpus(5_000));
+
+        final CustomDataIdentifierScanner.ScanResult java
+            = new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), 997, 64, false).scan(file);
+        final CustomDataIdentifierScanner.ScanResult dfa
+            = new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), 997, 64, true).scan(file);
+
+        assertThat(dfa.count(0)).isEqualTo(java.count(0));
+        assertThat(dfa.count(1)).isEqualTo(java.count(1));
+    }
+
+    @Test
+    public void scan_KeepsMatchesAndKeywordsAcrossChunkBoundaries() throws IOException {
+        // the keyword is in an earlier chunk than the match it qualifies
+        final Path file = write("boundary.txt", "xxxxxemployee 12345yyyyyyyy");
+
+        final CustomDataIdentifierScanner.ScanResult result
+            = new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), 8, 8).scan(file);
+
+        assertThat(result.count(0)).isEqualTo(1);
+        assertThat(result.count(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void scan_ResynchronizesMatchesAcrossChunkBoundaries() throws IOException {
+        // [0-9]{4} over a digit run matches at multiples of 4 from the start of the run, whatever offset a chunk starts at
+        final StringBuilder text = new StringBuilder("id ");
+        for (int i = 0; i < 10_000; i++) {
+            text.append((char) ('0' + i % 10));
+        }
+        final Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            text.append(' ');
+            for (int digits = random.nextInt(12) + 1; digits > 0; digits--) {
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+        }
+        final Path file = write("digits.txt", text.toString());
+        final List<ResourceModel> definitions = Arrays.asList(
+            ResourceModel.builder().regex("[0-9]{4}").build(),
+            ResourceModel.builder().regex("[0-9]{4}").ignoreWords(Collections.singletonList("7")).build(),
+            ResourceModel.builder().regex("[0-9]{4}").keywords(Collections.singletonList("id")).maximumMatchDistance(20).build());
+
+        for (final boolean preferDfa : new boolean[] {false, true}) {
+            for (final int chunkSize : new int[] {61, 997}) {
+                final CustomDataIdentifierScanner.ScanResult result
+                    = new CustomDataIdentifierScanner(definitions, ForkJoinPool.commonPool(), chunkSize, 64, preferDfa).scan(file);
+
+                for (int i = 0; i < definitions.size(); i++) {
+                    assertThat(result.count(i)).isEqualTo(CustomDataIdentifierMatcher.compile(definitions.get(i)).count(text));
+                }
+                assertThat(result.bytesScanned()).isEqualTo(text.length());
+            }
+        }
+        assertThat(CustomDataIdentifierMatcher.compile(definitions.get(2)).count(text)).isEqualTo(4);
+    }
+
+    @Test
+    public void scan_SumsOverFilesAndSkipsEmptyOnes() throws IOException {
+        final Path first = write("first.txt", "employee 1234");
+        final Path empty = write("empty.txt", "");
+
+        final CustomDataIdentifierScanner.ScanResult result = new CustomDataIdentifierScanner(DEFINITIONS)
+            .scan(Arrays.asList(first, empty, first));
+
+        assertThat(result.count(0)).isEqualTo(2);
+        assertThat(result.bytesScanned()).isEqualTo(26);
+    }
+
+    @Test
+    public void scan_MissingFile() {
+        final CustomDataIdentifierScanner scanner = new CustomDataIdentifierScanner(DEFINITIONS);
+
+        assertThrows(UncheckedIOException.class, () -> scanner.scan(directory.resolve("missing.txt")));
+    }
+
+    @Test
+    public void constructor_RejectsInvalidChunking() {
+        assertThrows(IllegalArgumentException.class, () -> new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CustomDataIdentifierScanner(DEFINITIONS, ForkJoinPool.commonPool(), 1, -1));
+    }
+
+    @Test
+    public void latin1CharSequence_ViewsBytesAsCharacters() {
+        final CharSequence text = new CustomDataIdentifierScanner.Latin1CharSequence(
+            ByteBuffer.wrap("caf\u00e9 id".getBytes(StandardCharsets.ISO_8859_1)), 0, 7);
+
+        assertThat(text.charAt(3)).isEqualTo('\u00e9');
+        assertThat(text.subSequence(5, 7).toString()).isEqualTo("id");
+        assertThat(text.toString()).isEqualTo("caf\u00e9 id");
+        assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(3, 8));
+    }
+
+    private Path write(final String name, final String text) throws IOException {
+        return Files.write(directory.resolve(name), text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String corpus(final int records) {
+        final Random random = new Random(7);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            text.append(random.nextInt(4) == 0 ? "employee " : "ref ").append(random.nextInt(100_000)).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,325 @@
+package software.amazon.macie.customdataidentifier;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.AccessDeniedException;
+import software.amazon.awssdk.services.macie2.model.ConflictException;
+import software.amazon.awssdk.services.macie2.model.CreateCustomDataIdentifierRequest;
+import software.amazon.awssdk.services.macie2.model.CreateCustomDataIdentifierResponse;
+import software.amazon.awssdk.services.macie2.model.CustomDataIdentifierSummary;
+import software.amazon.awssdk.services.macie2.model.DeleteCustomDataIdentifierRequest;
+import software.amazon.awssdk.services.macie2.model.DeleteCustomDataIdentifierResponse;
+import software.amazon.awssdk.services.macie2.model.EnableMacieRequest;
+import software.amazon.awssdk.services.macie2.model.EnableMacieResponse;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierRequest;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierResponse;
+import software.amazon.awssdk.services.macie2.model.InternalServerException;
+import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersRequest;
+import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersResponse;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.macie2.model.ThrottlingException;
+
+/**
+ * In-process stand-in for Macie for one account and region, with only the operations the custom data identifier handlers call. It keeps
+ * whether Macie is enabled and the custom data identifiers in memory, so handlers can run against it unchanged through
+ * {@code proxy.newProxy(() -> fake)}.
+ *
+ * Every operation can be given a latency distribution, a throttling rate and a 5xx rate, either by SDK operation name
+ * (for example {@code CreateCustomDataIdentifier}) or for {@link #ALL_OPERATIONS}. Faults are drawn before the operation touches any
+ * state, the same way a throttled or failed request never reaches the real service. Faults and latencies come from generators with
+ * a fixed seed, so a single threaded test sees the same draws on every run. The client is thread safe.
+ */
+final class FakeMacie2Client implements Macie2Client {
+
+    static final String ALL_OPERATIONS = "*";
+
+    static final String MACIE_NOT_ENABLED = "Macie is not enabled";
+    static final String MACIE_ALREADY_ENABLED = "Macie has already been enabled";
+
+    private static final String ACCOUNT_ID = "123456789012";
+    private static final String REGION = "us-east-1";
+    private static final long SEED = 42;
+    private static final int DEFAULT_MAX_RESULTS = 50;
+
+    private final Map<String, LongSupplier> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Double> throttleRates = new ConcurrentHashMap<>();
+    private final Map<String, Double> serverErrorRates = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> invocations = new ConcurrentHashMap<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final Random faults = new Random(SEED);
+
+    // guarded by this
+    private boolean macieEnabled;
+    private final NavigableMap<String, GetCustomDataIdentifierResponse> customDataIdentifiers = new TreeMap<>();
+    private final Map<String, String> clientTokens = new HashMap<>();
+
+    /**
+     * @return a fake for an account that already has Macie enabled, which custom data identifiers require
+     */
+    static FakeMacie2Client withMacieEnabled() {
+        final FakeMacie2Client client = new FakeMacie2Client();
+        client.enableMacie(EnableMacieRequest.builder().build());
+        return client;
+    }
+
+    static LongSupplier fixedLatency(final long millis) {
+        return () -> millis;
+    }
+
+    /**
+     * Long tailed latency: the median is {@code medianMillis}, {@code sigma} controls how far p99 sits from it.
+     */
+    static LongSupplier logNormalLatency(final double medianMillis, final double sigma) {
+        final Random random = new Random(SEED);
+        return () -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    FakeMacie2Client withLatency(final String operation, final LongSupplier latencyMillis) {
+        latencies.put(operation, latencyMillis);
+        return this;
+    }
+
+    FakeMacie2Client withThrottleRate(final String operation, final double rate) {
+        throttleRates.put(operation, rate);
+        return this;
+    }
+
+    FakeMacie2Client withServerErrorRate(final String operation, final double rate) {
+        serverErrorRates.put(operation, rate);
+        return this;
+    }
+
+    long invocations(final String operation) {
+        final AtomicLong count = invocations.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    long throttled() {
+        return throttled.get();
+    }
+
+    long serverErrors() {
+        return serverErrors.get();
+    }
+
+    synchronized int customDataIdentifierCount() {
+        return customDataIdentifiers.size();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // Macie session
+
+    @Override
+    public EnableMacieResponse enableMacie(final EnableMacieRequest request) {
+        call("EnableMacie");
+        synchronized (this) {
+            if (macieEnabled) {
+                throw error(ConflictException.builder(), 409, "ConflictException", MACIE_ALREADY_ENABLED);
+            }
+            macieEnabled = true;
+        }
+        return EnableMacieResponse.builder().build();
+    }
+
+    // Custom data identifiers
+
+    @Override
+    public CreateCustomDataIdentifierResponse createCustomDataIdentifier(final CreateCustomDataIdentifierRequest request) {
+        call("CreateCustomDataIdentifier");
+        synchronized (this) {
+            requireMacieEnabled();
+            GetCustomDataIdentifierResponse identifier = idempotentResult(request.clientToken(), customDataIdentifiers);
+            if (identifier == null) {
+                final String id = newId(request.clientToken());
+                identifier = GetCustomDataIdentifierResponse.builder()
+                    .id(id)
+                    .arn(arn("custom-data-identifier", id))
+                    .name(request.name())
+                    .description(request.description())
+                    .regex(request.regex())
+                    .keywords(request.keywords())
+                    .ignoreWords(request.ignoreWords())
+                    .maximumMatchDistance(request.maximumMatchDistance())
+                    .tags(request.tags())
+                    .createdAt(Instant.now())
+                    .deleted(false)
+                    .build();
+                customDataIdentifiers.put(id, identifier);
+            }
+            return CreateCustomDataIdentifierResponse.builder().customDataIdentifierId(identifier.id()).build();
+        }
+    }
+
+    @Override
+    public GetCustomDataIdentifierResponse getCustomDataIdentifier(final GetCustomDataIdentifierRequest request) {
+        call("GetCustomDataIdentifier");
+        synchronized (this) {
+            requireMacieEnabled();
+            return require(customDataIdentifiers, request.id());
+        }
+    }
+
+    @Override
+    public DeleteCustomDataIdentifierResponse deleteCustomDataIdentifier(final DeleteCustomDataIdentifierRequest request) {
+        call("DeleteCustomDataIdentifier");
+        synchronized (this) {
+            requireMacieEnabled();
+            require(customDataIdentifiers, request.id());
+            customDataIdentifiers.remove(request.id());
+        }
+        return DeleteCustomDataIdentifierResponse.builder().build();
+    }
+
+    @Override
+    public ListCustomDataIdentifiersResponse listCustomDataIdentifiers(final ListCustomDataIdentifiersRequest request) {
+        call("ListCustomDataIdentifiers");
+        synchronized (this) {
+            requireMacieEnabled();
+            final List<CustomDataIdentifierSummary> items = new ArrayList<>();
+            final String nextToken = page(customDataIdentifiers, request.nextToken(), request.maxResults(), identifier -> items.add(
+                CustomDataIdentifierSummary.builder()
+                    .id(identifier.id())
+                    .arn(identifier.arn())
+                    .name(identifier.name())
+                    .description(identifier.description())
+                    .createdAt(identifier.createdAt())
+                    .build()));
+            return ListCustomDataIdentifiersResponse.builder().items(items).nextToken(nextToken).build();
+        }
+    }
+
+    /**
+     * Counts the call, waits for the configured latency and throws the injected fault, if one is drawn.
+     */
+    private void call(final String operation) {
+        invocations.computeIfAbsent(operation, o -> new AtomicLong()).incrementAndGet();
+
+        final LongSupplier latency = setting(latencies, operation);
+        if (latency != null) {
+            sleep(latency.getAsLong());
+        }
+
+        final double draw = faults.nextDouble();
+        final double throttleRate = rate(throttleRates, operation);
+        if (draw < throttleRate) {
+            throttled.incrementAndGet();
+            throw error(ThrottlingException.builder(), 429, "ThrottlingException", "Rate exceeded");
+        }
+        if (draw < throttleRate + rate(serverErrorRates, operation)) {
+            serverErrors.incrementAndGet();
+            throw error(InternalServerException.builder(), 500, "InternalServerException", "Internal server error");
+        }
+    }
+
+    private void requireMacieEnabled() {
+        if (!macieEnabled) {
+            throw error(AccessDeniedException.builder(), 403, "AccessDeniedException", MACIE_NOT_ENABLED);
+        }
+    }
+
+    /**
+     * A retried create carries the same client token, it gets the resource the first attempt created, as long as it still exists.
+     */
+    private <T> T idempotentResult(final String clientToken, final Map<String, T> resources) {
+        final String id = clientToken == null ? null : clientTokens.get(clientToken);
+        return id == null ? null : resources.get(id);
+    }
+
+    private String newId(final String clientToken) {
+        final String id = UUID.randomUUID().toString().replace("-", "");
+        if (clientToken != null) {
+            clientTokens.put(clientToken, id);
+        }
+        return id;
+    }
+
+    private static String arn(final String resourceType, final String id) {
+        return String.format("arn:aws:macie2:%s:%s:%s/%s", REGION, ACCOUNT_ID, resourceType, id);
+    }
+
+    private static <T> T require(final Map<String, T> resources, final String id) {
+        final T resource = id == null ? null : resources.get(id);
+        if (resource == null) {
+            throw error(ResourceNotFoundException.builder(), 404, "ResourceNotFoundException", "The request failed because the specified resource wasn't found.");
+        }
+        return resource;
+    }
+
+    /**
+     * Pages in id order, the token is the last id of the previous page so concurrent creates and deletes don't shift pages.
+     */
+    private static <T> String page(final NavigableMap<String, T> resources, final String nextToken, final Integer maxResults,
+        final Consumer<T> consumer) {
+        final int limit = maxResults == null ? DEFAULT_MAX_RESULTS : maxResults;
+        final NavigableMap<String, T> remaining = nextToken == null ? resources : resources.tailMap(nextToken, false);
+        int count = 0;
+        String lastId = null;
+        for (final Map.Entry<String, T> entry : remaining.entrySet()) {
+            if (count == limit) {
+                return lastId;
+            }
+            consumer.accept(entry.getValue());
+            lastId = entry.getKey();
+            count++;
+        }
+        return null;
+    }
+
+    private <T> T setting(final Map<String, T> settings, final String operation) {
+        final T value = settings.get(operation);
+        return value != null ? value : settings.get(ALL_OPERATIONS);
+    }
+
+    private double rate(final Map<String, Double> rates, final String operation) {
+        final Double rate = setting(rates, operation);
+        return rate == null ? 0 : rate;
+    }
+
+    private static void sleep(final long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Macie2Exception error(final Macie2Exception.Builder builder, final int statusCode, final String errorCode, final String message) {
+        return (Macie2Exception) builder
+            .message(message)
+            .statusCode(statusCode)
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(errorCode)
+                .errorMessage(message)
+                .serviceName(SERVICE_NAME)
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build())
+            .build();
+    }
+}
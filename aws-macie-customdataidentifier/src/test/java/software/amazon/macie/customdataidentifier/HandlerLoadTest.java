@@ -0,0 +1,107 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.amazon.macie.customdataidentifier.FakeMacie2Client.ALL_OPERATIONS;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * Runs concurrent create, read and delete flows through the unchanged handlers against {@link FakeMacie2Client}.
+ * These handlers surface every service error as a failure, so the load run injects latency only.
+ * <p>
+ * The concurrent run is tagged {@code load} and only runs with {@code mvn -Pload-test test}, its thread interleaving and timing
+ * differ from run to run.
+ */
+public class HandlerLoadTest extends AbstractTestBase {
+
+    private static final int FLOWS = 200;
+    private static final int THREADS = 32;
+
+    @Test
+    @Tag("load")
+    public void concurrentFlows_Succeed() throws Exception {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled()
+            .withLatency(ALL_OPERATIONS, FakeMacie2Client.logNormalLatency(2, 0.5));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> flows = new ArrayList<>();
+            for (int i = 0; i < FLOWS; i++) {
+                final int flow = i;
+                flows.add(executor.submit(() -> createReadDelete(macie2, flow)));
+            }
+            for (final Future<?> flow : flows) {
+                flow.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(macie2.customDataIdentifierCount()).isZero();
+        assertThat(macie2.invocations("CreateCustomDataIdentifier")).isEqualTo(FLOWS);
+        assertThat(macie2.invocations("DeleteCustomDataIdentifier")).isEqualTo(FLOWS);
+    }
+
+    @Test
+    public void create_InjectedThrottlingFails() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled()
+            .withThrottleRate("CreateCustomDataIdentifier", 1.0);
+
+        assertThrows(CfnGeneralServiceException.class, () -> invoke(macie2, new CreateHandler(), createRequest(0)));
+        assertThat(macie2.throttled()).isEqualTo(1);
+        assertThat(macie2.customDataIdentifierCount()).isZero();
+    }
+
+    private void createReadDelete(final FakeMacie2Client macie2, final int flow) {
+        final ProgressEvent<ResourceModel, CallbackContext> created = invoke(macie2, new CreateHandler(), createRequest(flow));
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final String id = created.getResourceModel().getId();
+        assertThat(id).isNotNull();
+
+        final ProgressEvent<ResourceModel, CallbackContext> read = invoke(macie2, new ReadHandler(), ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().id(id).build())
+            .build());
+        assertThat(read.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(read.getResourceModel().getName()).isEqualTo(CUSTOM_DATA_IDENTIFIER_NAME + flow);
+
+        final ProgressEvent<ResourceModel, CallbackContext> deleted = invoke(macie2, new DeleteHandler(), ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().id(id).build())
+            .build());
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> createRequest(final int flow) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .clientRequestToken(CLIENT_TOKEN + flow)
+            .desiredResourceState(ResourceModel.builder()
+                .name(CUSTOM_DATA_IDENTIFIER_NAME + flow)
+                .description(CUSTOM_DATA_IDENTIFIER_DESCRIPTION)
+                .regex(CUSTOM_DATA_IDENTIFIER_REGEX)
+                .build())
+            .build();
+    }
+
+    private static ProgressEvent<ResourceModel, CallbackContext> invoke(final Macie2Client macie2, final BaseHandlerStd handler,
+        final ResourceHandlerRequest<ResourceModel> request) {
+        final AmazonWebServicesClientProxy proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS,
+            () -> Duration.ofSeconds(600).toMillis());
+        final ProxyClient<Macie2Client> proxyClient = proxy.newProxy(() -> macie2);
+        return handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+    }
+}
@@ -0,0 +1,215 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+public class LazyDfaTest {
+
+    // building blocks of the random patterns compared against java.util.regex
+    private static final String[] ATOMS = {"a", "b", "c", "[ab]", "[^a]", ".", "\\d", "[a-c]"};
+    private static final String[] QUANTIFIERS = {"", "", "", "*", "+", "?", "{1,3}", "{2}"};
+
+    @Test
+    public void find_LeftmostFirstLikeJavaRegex() {
+        // alternation order and greediness decide the match, not its length
+        assertThat(spans("a|ab", "abab")).containsExactly("0-1", "2-3");
+        assertThat(spans("ab|a", "abab")).containsExactly("0-2", "2-4");
+        assertThat(spans("a+", "aab aaa")).containsExactly("0-2", "4-7");
+        assertThat(spans("x*y", "xxy y")).containsExactly("0-3", "4-5");
+        assertThat(spans("(a|b)+c?", "abcabx")).containsExactly("0-3", "3-5");
+        assertThat(spans("\\d{3}-\\d{2}-\\d{4}", "ssn 123-45-6789 or 987-65-4321!")).containsExactly("4-15", "19-30");
+    }
+
+    @Test
+    public void find_DoesNotBacktrack() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            text.append("1-");
+        }
+
+        // exponential for java.util.regex
+        assertThat(spans("(\\d+-?)+x", text.toString())).isEmpty();
+    }
+
+    @Test
+    public void find_Escapes() {
+        assertThat(spans("\\Qa.b\\E", "a.b axb")).containsExactly("0-3");
+        assertThat(spans("\\x41\\u0042\\t\\n\\r\\f\\e\\.", "AB\t\n\r\f\u001B.")).containsExactly("0-8");
+        assertThat(spans("[\\w.-]+@\\w+", "first.last-1@example")).containsExactly("0-20");
+        assertThat(spans("\\D\\W\\S\\s", "a!x ")).containsExactly("0-4");
+        assertThat(spans("[^\\s]+", "ab cd")).containsExactly("0-2", "3-5");
+        // a class escape can't start a range, the dash is literal
+        assertThat(spans("[\\d-z]+", "1-z")).containsExactly("0-3");
+    }
+
+    @Test
+    public void find_DotSkipsLineTerminators() {
+        assertThat(spans("a.b", "a\nb a\rb a\u0085b a\u2028b a\u2029b axb")).containsExactly("20-23");
+    }
+
+    @Test
+    public void find_GroupsAndBoundedRepeats() {
+        assertThat(spans("(?:ab){2}", "ababab")).containsExactly("0-4");
+        assertThat(spans("(?<pair>ab){1,2}c", "abc ababc")).containsExactly("0-3", "4-9");
+        assertThat(spans("a{2,}", "a aa aaaa")).containsExactly("2-4", "5-9");
+        assertThat(spans("(a|)b", "ab b")).containsExactly("0-2", "3-4");
+    }
+
+    @Test
+    public void find_EvictsCacheAndKeepsMatching() {
+        // more DFA states than the cache holds
+        final String regex = "[ab]*a[ab]{12}c|a[ab]{13}";
+        final Random random = new Random(3);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append(random.nextBoolean() ? 'a' : 'b');
+        }
+
+        assertThat(spans(regex, text.toString())).isEqualTo(javaSpans(Pattern.compile(regex), text.toString()));
+    }
+
+    @Test
+    public void find_MatchesJavaRegexOnRandomPatterns() {
+        final Random random = new Random(11);
+        int compared = 0;
+        for (int i = 0; i < 2000; i++) {
+            final String regex = alternation(random, 0);
+            final LazyDfa dfa;
+            try {
+                dfa = LazyDfa.compile(regex);
+            } catch (final IllegalArgumentException e) {
+                continue;
+            }
+            final Pattern pattern = Pattern.compile(regex);
+            for (int j = 0; j < 5; j++) {
+                final String text = randomText(random);
+                final List<String> expected;
+                try {
+                    expected = javaSpans(pattern, new BudgetedText(text, 1_000_000));
+                } catch (final IllegalStateException e) {
+                    // java.util.regex backtracks too much on this one
+                    continue;
+                }
+                assertThat(spans(dfa, text)).as("/%s/ on %s", regex, text).isEqualTo(expected);
+                compared++;
+            }
+        }
+        assertThat(compared).isGreaterThan(1000);
+    }
+
+    @Test
+    public void compile_RejectsUnsupportedSyntax() {
+        for (final String regex : new String[] {"^a", "a$", "\\bA", "a*?", "a++", "a?+", "(?i)a", "(?=a)a", "(?>a)", "(a)\\1",
+            "\\pL", "\\0", "[a[b]]", "[a&&b]", "[]a]", "[b-a]", "\\x{41}", "\\xZZ", "\\u12", "\\Q\\E", "a*", "(a?)+b",
+            "(a|b?){2}", "a{100000}", "a{1,x}", "a\\", "[a", "(a", "a)", "*a", "\ud83d\ude00", "[\ud83d]", "\\Q\ud83d\\E",
+            "\\uD83D"}) {
+            assertThrows(IllegalArgumentException.class, () -> LazyDfa.compile(regex), regex);
+        }
+    }
+
+    @Test
+    public void compile_RejectsTooManyStates() {
+        assertThrows(IllegalArgumentException.class, () -> LazyDfa.compile("(a{100}){200}"));
+    }
+
+    private static List<String> spans(final String regex, final String text) {
+        return spans(LazyDfa.compile(regex), text);
+    }
+
+    private static List<String> spans(final LazyDfa dfa, final String text) {
+        final List<String> spans = new ArrayList<>();
+        final CustomDataIdentifierMatcher.Finder finder = dfa.finder(text);
+        while (finder.find()) {
+            spans.add(finder.start() + "-" + finder.end());
+        }
+        assertThat(finder.find()).isFalse();
+        return spans;
+    }
+
+    private static List<String> javaSpans(final Pattern pattern, final CharSequence text) {
+        final List<String> spans = new ArrayList<>();
+        final Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            spans.add(matcher.start() + "-" + matcher.end());
+        }
+        return spans;
+    }
+
+    private static String alternation(final Random random, final int depth) {
+        final StringBuilder regex = new StringBuilder(concatenation(random, depth));
+        for (int i = random.nextInt(3) == 0 ? random.nextInt(3) : 0; i > 0; i--) {
+            regex.append('|').append(concatenation(random, depth));
+        }
+        return regex.toString();
+    }
+
+    private static String concatenation(final Random random, final int depth) {
+        final StringBuilder regex = new StringBuilder();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            regex.append(atom(random, depth)).append(QUANTIFIERS[random.nextInt(QUANTIFIERS.length)]);
+        }
+        return regex.toString();
+    }
+
+    private static String atom(final Random random, final int depth) {
+        final int choice = random.nextInt(depth < 3 ? ATOMS.length + 2 : ATOMS.length);
+        if (choice == ATOMS.length) {
+            return "(" + alternation(random, depth + 1) + ")";
+        }
+        if (choice == ATOMS.length + 1) {
+            return "(?:" + alternation(random, depth + 1) + ")";
+        }
+        return ATOMS[choice];
+    }
+
+    private static String randomText(final Random random) {
+        final StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(12); i > 0; i--) {
+            text.append("abc1\n".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Fails once a regex has read more characters than it should ever need, to skip patterns java.util.regex takes forever on.
+     */
+    private static final class BudgetedText implements CharSequence {
+        private final String text;
+        private int budget;
+
+        private BudgetedText(final String text, final int budget) {
+            this.text = text;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (--budget < 0) {
+                throw new IllegalStateException("budget exhausted");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
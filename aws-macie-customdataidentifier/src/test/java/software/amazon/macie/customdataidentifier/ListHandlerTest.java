@@ -2,6 +2,7 @@ package software.amazon.macie.customdataidentifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
 import java.time.Duration;
@@ -14,8 +15,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.CustomDataIdentifierSummary;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierRequest;
+import software.amazon.awssdk.services.macie2.model.GetCustomDataIdentifierResponse;
 import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersRequest;
 import software.amazon.awssdk.services.macie2.model.ListCustomDataIdentifiersResponse;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -82,4 +86,43 @@ public class ListHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_whenHydrating_thenListCompleteResources() {
+        final ListHandler handler = new ListHandler(true);
+
+        final CustomDataIdentifierSummary summary = CustomDataIdentifierSummary.builder()
+                                                                            .id(CUSTOM_DATA_IDENTIFIER_ID)
+                                                                            .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                                                                            .createdAt(Instant.ofEpochSecond(CUSTOM_DATA_IDENTIFIER_CREATED_AT_LONG))
+                                                                            .build();
+        final CustomDataIdentifierSummary deleted = summary.toBuilder().id("deleted").build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                                                                                   .desiredResourceState(ResourceModel.builder().build())
+                                                                                   .build();
+
+        doReturn(ListCustomDataIdentifiersResponse.builder().items(summary, deleted).build())
+            .when(sdkClient)
+            .listCustomDataIdentifiers(ArgumentMatchers.any(ListCustomDataIdentifiersRequest.class));
+        doReturn(GetCustomDataIdentifierResponse.builder()
+                                               .id(CUSTOM_DATA_IDENTIFIER_ID)
+                                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                                               .regex(CUSTOM_DATA_IDENTIFIER_REGEX)
+                                               .build())
+            .when(sdkClient)
+            .getCustomDataIdentifier(GetCustomDataIdentifierRequest.builder().id(CUSTOM_DATA_IDENTIFIER_ID).build());
+        doThrow(ResourceNotFoundException.builder().build())
+            .when(sdkClient)
+            .getCustomDataIdentifier(GetCustomDataIdentifierRequest.builder().id("deleted").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).hasSize(1);
+        assertThat(response.getResourceModels().get(0).getRegex()).isEqualTo(CUSTOM_DATA_IDENTIFIER_REGEX);
+        assertThat(response.getResourceModels().get(0).getCreatedAt())
+            .isEqualTo(Instant.ofEpochSecond(CUSTOM_DATA_IDENTIFIER_CREATED_AT_LONG).toString());
+    }
 }
@@ -133,4 +133,35 @@ public class ReadHandlerTest extends AbstractTestBase {
         Assertions.assertThrows(CfnGeneralServiceException.class,
                                 () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
     }
+
+    @Test
+    public void fingerprint_whenReadMatchesDesiredModel_thenFingerprintsMatch() {
+        final ResourceModel model
+                = ResourceModel.builder()
+                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                               .description(CUSTOM_DATA_IDENTIFIER_DESCRIPTION)
+                               .regex(CUSTOM_DATA_IDENTIFIER_REGEX)
+                               .keywords(Arrays.asList("account", "acct"))
+                               .build();
+
+        final ResourceModel read = Translator.translateFromReadResponse(GetCustomDataIdentifierResponse.builder()
+                                               .id(CUSTOM_DATA_IDENTIFIER_ID)
+                                               .arn(CUSTOM_DATA_IDENTIFIER_ARN)
+                                               .name(CUSTOM_DATA_IDENTIFIER_NAME)
+                                               .description(CUSTOM_DATA_IDENTIFIER_DESCRIPTION)
+                                               .regex(CUSTOM_DATA_IDENTIFIER_REGEX)
+                                               .keywords("acct", "account", "acct")
+                                               .ignoreWords(new ArrayList<>())
+                                               .maximumMatchDistance(50)
+                                               .build());
+
+        assertThat(ReadHandler.fingerprint(read)).hasSize(32);
+        assertThat(ReadHandler.fingerprint(read)).isEqualTo(ReadHandler.fingerprint(model));
+
+        read.setRegex("[0-9]{10}");
+        assertThat(ReadHandler.fingerprint(read)).isNotEqualTo(ReadHandler.fingerprint(model));
+        read.setRegex(CUSTOM_DATA_IDENTIFIER_REGEX);
+        read.setIgnoreWords(Collections.singletonList("000000000000"));
+        assertThat(ReadHandler.fingerprint(read)).isNotEqualTo(ReadHandler.fingerprint(model));
+    }
 }
@@ -0,0 +1,162 @@
+package software.amazon.macie.customdataidentifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class RegexComplexityAnalyzerTest {
+
+    @Test
+    public void analyze_NestedRepeats() {
+        assertExponential("(a+)+");
+        assertExponential("(\\w+\\s?)*");
+        assertExponential("(?:[0-9]+-?){2,}");
+        // the separator can also be consumed by the inner repeat
+        assertExponential("^(([a-z])+.)+[A-Z]([a-z])+$");
+        assertExponential("([\\w.-]+\\.)+");
+    }
+
+    @Test
+    public void analyze_NullableRepeatedGroup() {
+        assertExponential("(a*)*");
+        assertExponential("(a?b?)+c");
+    }
+
+    @Test
+    public void analyze_OverlappingAlternation() {
+        assertExponential("(a|a)*b");
+        assertExponential("(\\d|\\w)+");
+        assertExponential("(x|[a-z]y)+");
+    }
+
+    @Test
+    public void analyze_AdjacentRepeats() {
+        final RegexComplexityAnalyzer.Result result = RegexComplexityAnalyzer.analyze("\\d+\\.?\\d+");
+
+        assertThat(result.complexity()).isEqualTo(RegexComplexityAnalyzer.Complexity.POLYNOMIAL);
+        assertThat(result.degree()).isEqualTo(2);
+        assertThat(result.worstCaseSteps(10)).isEqualTo(100.0);
+        assertThat(result.findings()).hasSize(1);
+        assertThat(result.toString()).contains("O(n^2)");
+
+        assertThat(RegexComplexityAnalyzer.analyze(".*x.*y.*").degree()).isEqualTo(3);
+        assertThat(RegexComplexityAnalyzer.analyze("a{2,}a{20}a{3,}").degree()).isEqualTo(3);
+    }
+
+    @Test
+    public void analyze_BoundedRepeatOverNestedRepeat() {
+        final RegexComplexityAnalyzer.Result result = RegexComplexityAnalyzer.analyze("(.*,){10}");
+
+        assertThat(result.complexity()).isEqualTo(RegexComplexityAnalyzer.Complexity.POLYNOMIAL);
+        assertThat(result.degree()).isEqualTo(10);
+        assertThat(result.findings()).hasSize(1);
+
+        assertThat(RegexComplexityAnalyzer.analyze("^(.*,){10}x").degree()).isEqualTo(10);
+        assertThat(RegexComplexityAnalyzer.analyze("(?:[\\w,]+,){3}").degree()).isEqualTo(3);
+        assertLinear("(?:\\d+-){3}");
+        assertLinear("(?:\\d{2}-){3}");
+        assertLinear("(\\d+)?");
+    }
+
+    @Test
+    public void analyze_LinearPatterns() {
+        assertLinear("[0-9]{12}");
+        assertLinear("(a+b)+");
+        assertLinear("(\\w+\\s)+");
+        assertLinear("\\d+-\\d+");
+        assertLinear("[\\w.-]+@[\\w-]+(\\.[\\w-]+)+");
+        assertLinear("(?:ab|cd)*");
+        assertLinear("x{1,100}y{1,100}");
+        assertLinear("\\b[A-Z]{2}\\d{6}\\b");
+        assertLinear("(?i)emp(loyee)?\\s*id[:#]?\\s*\\d+");
+        assertLinear("^\\d{3}(?:-\\d{2}){2}$");
+    }
+
+    @Test
+    public void analyze_PossessiveRepeatsDoNotBacktrack() {
+        assertLinear("(a++)+");
+        assertLinear("\\d++\\d+");
+        // lazy repeats still backtrack
+        assertExponential("(a+?)+");
+    }
+
+    @Test
+    public void analyze_Lookarounds() {
+        assertLinear("(?=a+)b");
+        assertLinear("(?<!x)\\d+(?!y)");
+        // the body of a lookaround is checked on its own
+        assertExponential("(?=(a+)+)b");
+        // a lookaround never makes a repeated group match the same text
+        assertLinear("((?<=a)b)+");
+    }
+
+    @Test
+    public void analyze_CharacterClasses() {
+        assertLinear("[a-z&&[^aeiou]]+[aeiou]+");
+        assertLinear("[^\\]]+\\]");
+        assertLinear("[\\x00-\\x1F\\t]+\\u0041+");
+        assertLinear("[\\d-]+ [a-]+");
+        assertLinear("[]a]+b+");
+        assertExponential("([a[bc]]+c)+");
+        assertExponential("([^a]+b)+");
+        // non-ASCII characters are all treated as one
+        assertExponential("([\u00e9-\u00ff]+\u0100)+");
+    }
+
+    @Test
+    public void analyze_Escapes() {
+        assertLinear("\\Q(a+)+\\E");
+        assertLinear("\\Q(a+)+");
+        assertLinear("\\t+\\n+\\r+\\f+\\e+");
+        assertLinear("\\x{41}+\\x42+");
+        assertLinear("\\D\\d+\\W\\w+\\S\\s+");
+        assertLinear("\\A\\d+\\z\\Z\\G");
+        assertExponential("(\\p{Alpha}+\\P{L})+");
+        assertExponential("(?<word>x+)(\\k<word>+)+");
+        assertExponential("(x)(\\1+)+");
+        assertExponential("(\\pL+\\pN)+");
+    }
+
+    @Test
+    public void analyze_FlagGroups() {
+        assertLinear("(?i)abc");
+        assertExponential("(?i:a+)+");
+        assertExponential("(?<name>a+)+");
+        assertExponential("(?>a|a)+");
+    }
+
+    @Test
+    public void analyze_MalformedPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("(a"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("a)"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("[a"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("[a&&b"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("a{2"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("a{2,x}"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("\\x4"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("\\xZZ"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("\\k<name"));
+        assertThrows(IllegalArgumentException.class, () -> RegexComplexityAnalyzer.analyze("a\\"));
+    }
+
+    @Test
+    public void worstCaseSteps_ByComplexity() {
+        assertThat(RegexComplexityAnalyzer.analyze("abc").worstCaseSteps(64)).isEqualTo(64.0);
+        assertThat(RegexComplexityAnalyzer.analyze("(a+)+").worstCaseSteps(10)).isEqualTo(1024.0);
+        assertThat(RegexComplexityAnalyzer.analyze("(a+)+").degree()).isEqualTo(1);
+    }
+
+    private static void assertExponential(final String regex) {
+        final RegexComplexityAnalyzer.Result result = RegexComplexityAnalyzer.analyze(regex);
+        assertThat(result.complexity()).as(regex).isEqualTo(RegexComplexityAnalyzer.Complexity.EXPONENTIAL);
+        assertThat(result.isLinear()).isFalse();
+        assertThat(result.findings()).as(regex).isNotEmpty();
+    }
+
+    private static void assertLinear(final String regex) {
+        final RegexComplexityAnalyzer.Result result = RegexComplexityAnalyzer.analyze(regex);
+        assertThat(result.complexity()).as(regex + " " + result).isEqualTo(RegexComplexityAnalyzer.Complexity.LINEAR);
+        assertThat(result.findings()).isEmpty();
+    }
+}
@@ -0,0 +1,85 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of finding criteria translation in both directions, the stream based {@link FindingCriteriaTranslator} the handlers use
+ * against the {@link LoopFindingCriteriaTranslator} candidate.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@benchmark}, the profile adds {@code -prof gc} so allocation per operation
+ * ({@code gc.alloc.rate.norm}) is reported next to the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindingCriteriaTranslationBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int keys;
+
+    private FindingCriteria modelCriteria;
+    private software.amazon.awssdk.services.macie2.model.FindingCriteria sdkCriteria;
+
+    @Setup
+    public void setup() {
+        final Map<String, CriterionAdditionalProperties> criterion = new HashMap<>();
+        for (int i = 0; i < keys; i++) {
+            criterion.put("criterion." + i, criterionFor(i));
+        }
+        modelCriteria = FindingCriteria.builder().criterion(criterion).build();
+        sdkCriteria = FindingCriteriaTranslator.toSdk(modelCriteria);
+    }
+
+    @Benchmark
+    public software.amazon.awssdk.services.macie2.model.FindingCriteria toSdkStreams() {
+        return FindingCriteriaTranslator.toSdk(modelCriteria);
+    }
+
+    @Benchmark
+    public software.amazon.awssdk.services.macie2.model.FindingCriteria toSdkLoops() {
+        return LoopFindingCriteriaTranslator.toSdk(modelCriteria);
+    }
+
+    @Benchmark
+    public FindingCriteria toModelStreams() {
+        return FindingCriteriaTranslator.toModel(sdkCriteria);
+    }
+
+    @Benchmark
+    public FindingCriteria toModelLoops() {
+        return LoopFindingCriteriaTranslator.toModel(sdkCriteria);
+    }
+
+    // Mix of the operator shapes real filters use: equality lists, exclusions, open and closed ranges, and empty lists
+    private static CriterionAdditionalProperties criterionFor(final int i) {
+        switch (i % 5) {
+            case 0:
+                return CriterionAdditionalProperties.builder().eq(Arrays.asList("value-" + i, "other-" + i, "third-" + i)).build();
+            case 1:
+                return CriterionAdditionalProperties.builder().neq(Collections.singletonList("excluded-" + i)).build();
+            case 2:
+                return CriterionAdditionalProperties.builder().gt(i).lt(i * 10).build();
+            case 3:
+                return CriterionAdditionalProperties.builder().gte(i).lte(i * 10).eq(Collections.emptyList()).build();
+            default:
+                return CriterionAdditionalProperties.builder().eq(Collections.singletonList("value-" + i)).gte(i).build();
+        }
+    }
+}
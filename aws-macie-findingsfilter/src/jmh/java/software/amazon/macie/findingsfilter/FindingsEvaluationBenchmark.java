@@ -0,0 +1,133 @@
+package software.amazon.macie.findingsfilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Answers finding criteria over 100,000 synthetic findings shaped like Macie's, by streaming the in-memory export through
+ * {@link FindingCriteriaEvaluator} on one thread, by evaluating the same export written to a file in parallel chunks, and by querying
+ * a {@link FindingsIndex} built from it once. Findings per second are reported by the {@code findings} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindingsEvaluationBenchmark {
+
+    private static final int FINDINGS = 100_000;
+    private static final String[] SEVERITIES = {"Low", "Medium", "High"};
+    private static final String[] CATEGORIES = {"PERSONAL_INFORMATION", "FINANCIAL_INFORMATION", "CREDENTIALS", "CUSTOM_IDENTIFIER"};
+
+    @Param({"1", "3", "6"})
+    public int criteria;
+
+    private byte[] export;
+    private Path exportFile;
+    private FindingCriteria findingCriteria;
+    private FindingCriteriaEvaluator evaluator;
+    private FindingsIndex index;
+
+    /**
+     * Findings read, JMH reports it per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Findings {
+        public long findings;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            findings = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        final Random random = new Random(42);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < FINDINGS; i++) {
+            final int severity = random.nextInt(3);
+            builder.append("{\"id\":\"").append(Integer.toHexString(random.nextInt())).append("\",\"accountId\":\"")
+                .append(100000000000L + random.nextInt(20)).append("\",\"archived\":false,\"category\":\"CLASSIFICATION\",")
+                .append("\"createdAt\":\"2020-06-").append(10 + random.nextInt(20)).append("T12:00:00.000Z\",")
+                .append("\"severity\":{\"description\":\"").append(SEVERITIES[severity]).append("\",\"score\":").append(severity + 1)
+                .append("},\"type\":\"SensitiveData:S3Object/Personal\",\"classificationDetails\":{\"jobId\":\"j-")
+                .append(random.nextInt(100)).append("\",\"result\":{\"mimeType\":\"text/csv\",\"sizeClassified\":")
+                .append(random.nextInt(1 << 20)).append(",\"sensitiveData\":[{\"category\":\"")
+                .append(CATEGORIES[random.nextInt(CATEGORIES.length)]).append("\",\"totalCount\":").append(random.nextInt(50))
+                .append("},{\"category\":\"").append(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .append("\",\"totalCount\":1}]}},\"resourcesAffected\":{\"s3Bucket\":{\"name\":\"bucket-").append(random.nextInt(50))
+                .append("\",\"tags\":[{\"key\":\"env\",\"value\":\"").append(random.nextBoolean() ? "prod" : "dev")
+                .append("\"}]},\"s3Object\":{\"key\":\"data/").append(i).append(".csv\",\"size\":").append(random.nextInt(1 << 24))
+                .append("}}}\n");
+        }
+        export = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        final Map<String, CriterionAdditionalProperties> criterion = new HashMap<>();
+        criterion.put("severity.description", CriterionAdditionalProperties.builder().eq(Arrays.asList("High", "Medium")).build());
+        if (criteria >= 3) {
+            criterion.put("resourcesAffected.s3Bucket.name", CriterionAdditionalProperties.builder()
+                .neq(Arrays.asList("bucket-1", "bucket-2")).build());
+            criterion.put("classificationDetails.result.sensitiveData.category", CriterionAdditionalProperties.builder()
+                .eq(Arrays.asList("CREDENTIALS", "FINANCIAL_INFORMATION")).build());
+        }
+        if (criteria >= 6) {
+            criterion.put("resourcesAffected.s3Object.size", CriterionAdditionalProperties.builder().gte(1024).build());
+            criterion.put("resourcesAffected.s3Bucket.tags.value", CriterionAdditionalProperties.builder()
+                .eq(Arrays.asList("prod")).build());
+            criterion.put("severity.score", CriterionAdditionalProperties.builder().gt(1).lte(3).build());
+        }
+        findingCriteria = FindingCriteria.builder().criterion(criterion).build();
+        evaluator = FindingCriteriaEvaluator.compile(findingCriteria);
+        index = FindingsIndex.build(new ByteArrayInputStream(export));
+        exportFile = Files.write(Files.createTempFile("findings", ".jsonl"), export);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(exportFile);
+    }
+
+    @Benchmark
+    public long evaluate(final Findings findings) {
+        findings.findings += FINDINGS;
+        return evaluator.evaluate(new ByteArrayInputStream(export)).matched();
+    }
+
+    @Benchmark
+    public long evaluateFile(final Findings findings) {
+        findings.findings += FINDINGS;
+        return evaluator.evaluate(exportFile, ForkJoinPool.commonPool(), 1024 * 1024).matched();
+    }
+
+    @Benchmark
+    public int index(final Findings findings) {
+        findings.findings += FINDINGS;
+        return index.count(findingCriteria);
+    }
+}
@@ -0,0 +1,70 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Candidate for {@link FindingCriteriaTranslationBenchmark}: the translation of {@link FindingCriteriaTranslator} with output maps sized
+ * up front and plain loops instead of stream collectors. Not used by the handlers unless the benchmark shows it allocates less.
+ */
+final class LoopFindingCriteriaTranslator {
+
+    private LoopFindingCriteriaTranslator() {
+    }
+
+    static software.amazon.awssdk.services.macie2.model.FindingCriteria toSdk(final FindingCriteria criteria) {
+        final Map<String, CriterionAdditionalProperties> criterion = criteria.getCriterion() == null
+            ? Collections.emptyMap() : criteria.getCriterion();
+        final Map<String, software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties> sdkCriterion
+            = new HashMap<>(capacity(criterion.size()));
+        for (final Map.Entry<String, CriterionAdditionalProperties> entry : criterion.entrySet()) {
+            final CriterionAdditionalProperties properties = entry.getValue();
+            sdkCriterion.put(entry.getKey(), software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties.builder()
+                .eq(nonEmptyOrNull(properties.getEq()))
+                .neq(nonEmptyOrNull(properties.getNeq()))
+                .gt(toLong(properties.getGt()))
+                .gte(toLong(properties.getGte()))
+                .lt(toLong(properties.getLt()))
+                .lte(toLong(properties.getLte()))
+                .build());
+        }
+        return software.amazon.awssdk.services.macie2.model.FindingCriteria.builder().criterion(sdkCriterion).build();
+    }
+
+    static FindingCriteria toModel(final software.amazon.awssdk.services.macie2.model.FindingCriteria criteria) {
+        final Map<String, software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties> sdkCriterion = criteria.criterion();
+        final Map<String, CriterionAdditionalProperties> criterion = new HashMap<>(capacity(sdkCriterion.size()));
+        for (final Map.Entry<String, software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties> entry : sdkCriterion.entrySet()) {
+            final software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties properties = entry.getValue();
+            criterion.put(entry.getKey(), CriterionAdditionalProperties.builder()
+                .eq(nonEmptyOrNull(properties.eq()))
+                .neq(nonEmptyOrNull(properties.neq()))
+                .gt(toInteger(properties.gt()))
+                .gte(toInteger(properties.gte()))
+                .lt(toInteger(properties.lt()))
+                .lte(toInteger(properties.lte()))
+                .build());
+        }
+        return FindingCriteria.builder().criterion(criterion).build();
+    }
+
+    // The SDK hands out empty auto construct lists for absent operators, the model and the API both expect null instead
+    private static List<String> nonEmptyOrNull(final List<String> values) {
+        return values == null || values.isEmpty() ? null : values;
+    }
+
+    private static Long toLong(final Integer value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static Integer toInteger(final Long value) {
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    private static int capacity(final int size) {
+        // large enough that the map never rehashes at the default load factor
+        return size < 3 ? size + 1 : (int) (size / 0.75f) + 1;
+    }
+}
@@ -1,15 +1,8 @@
 package software.amazon.macie.findingsfilter;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.http.HttpStatus;
+import java.util.Objects;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.CreateFindingsFilterRequest;
-import software.amazon.awssdk.services.macie2.model.Macie2Exception;
 import software.amazon.awssdk.services.macie2.model.UpdateFindingsFilterRequest;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
@@ -24,24 +17,37 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public abstract class BaseMacieFindingFilterHandler extends BaseHandler<CallbackContext> {
 
-    // All Macie session APIs return this message whe Macie is not enabled
-    // Error code being 403, we can't depend on error code for this.
-    // Filter already exists returns 400
-    protected final static String MACIE_NOT_ENABLED = "Macie is not enabled";
-    protected final static String FILTER_ALREADY_EXISTS = "Filter name already exists. A unique name is required.";
+    protected final static String MACIE_NOT_ENABLED = ErrorClassifier.MACIE_NOT_ENABLED;
+    protected final static String FILTER_ALREADY_EXISTS = ErrorClassifier.FILTER_ALREADY_EXISTS;
     protected static final String RESOURCE_EXISTS_CFN_MESSAGE = "Resource of type '%s' with identifier '%s' already exists.";
     protected static final String RESOURCE_MISSING_CFN_MESSAGE = "Resource of type '%s' with identifier '%s' was not found.";
-    private final static String RETRY_MESSAGE = "Detected retryable error for AWS account id [%s], retrying. Exception message: %s";
-    private final static String EXCEPTION_MESSAGE = "Exception occurred for AWS account id [%s]. Exception message: %s";
+    private final static String RETRY_MESSAGE = "Detected retryable error for AWS account id [%s], retrying in %d seconds (attempt %d). Exception message: %s";
+    // without Macie the filter exists but can't be reached
+    private static final ErrorClassifier ERRORS = ErrorClassifier.forMacie(HandlerErrorCode.AccessDenied);
+    // Set to "true" to send finding criteria in the canonical form of FindingCriteriaOptimizer, and to compare criteria by that form
+    protected static final String OPTIMIZE_CRITERIA_ENV = "MACIE_OPTIMIZE_CRITERIA";
+
+    private final boolean optimizeCriteria;
+
+    protected BaseMacieFindingFilterHandler() {
+        this(Boolean.parseBoolean(System.getenv(OPTIMIZE_CRITERIA_ENV)));
+    }
+
+    protected BaseMacieFindingFilterHandler(final boolean optimizeCriteria) {
+        this.optimizeCriteria = optimizeCriteria;
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(AmazonWebServicesClientProxy proxy,
         ResourceHandlerRequest<ResourceModel> request, CallbackContext callbackContext, Logger logger) {
+        final CallbackContext context = callbackContext != null ? callbackContext : new CallbackContext();
+        final EmfMetrics metrics = new EmfMetrics(logger);
+        final ProxyClient<Macie2Client> proxyClient = MeteredProxyClient.wrap(proxy.newProxy(ClientBuilder::getClient), metrics, context::getRetryAttempts);
         return handleRequest(
             proxy,
             request,
-            callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(ClientBuilder::getClient),
+            context,
+            proxyClient,
             logger);
     }
 
@@ -77,103 +83,118 @@ public abstract class BaseMacieFindingFilterHandler extends BaseHandler<Callback
             .build();
     }
 
-    private software.amazon.awssdk.services.macie2.model.FindingCriteria macieSdkFindingCriteria(final ResourceModel model) {
-        Map<String, software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties> criterion = model.getFindingCriteria().getCriterion().entrySet()
-            .stream()
-            .collect(Collectors.toMap(
-                Entry::getKey,
-                entry -> macieSdkCriterionAdditionalProperties(entry.getValue())
-            ));
-        return software.amazon.awssdk.services.macie2.model.FindingCriteria.builder()
-            .criterion(criterion).build();
+    /**
+     * Builds an update request carrying only the properties that differ from the previous state, all properties when there is none.
+     */
+    protected UpdateFindingsFilterRequest updateFindingFilterRequest(final ResourceModel model, final ResourceModel previousModel) {
+        if (previousModel == null) {
+            return updateFindingFilterRequest(model);
+        }
+        final UpdateFindingsFilterRequest.Builder builder = UpdateFindingsFilterRequest.builder().id(model.getId());
+        if (!Objects.equals(model.getName(), previousModel.getName())) {
+            builder.name(model.getName());
+        }
+        if (!Objects.equals(model.getDescription(), previousModel.getDescription())) {
+            builder.description(model.getDescription());
+        }
+        if (!sameFindingCriteria(model, previousModel)) {
+            builder.findingCriteria(macieSdkFindingCriteria(model));
+        }
+        if (!Objects.equals(model.getAction(), previousModel.getAction())) {
+            builder.action(model.getAction());
+        }
+        if (!Objects.equals(model.getPosition(), previousModel.getPosition())) {
+            builder.position(model.getPosition());
+        }
+        return builder.build();
     }
 
-    private software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties macieSdkCriterionAdditionalProperties(
-        final software.amazon.macie.findingsfilter.CriterionAdditionalProperties input) {
-        return software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties.builder()
-            .eq(getCollectionOrNull(input.getEq()))
-            .neq(getCollectionOrNull(input.getNeq()))
-            .gt(getLongOrNull(input.getGt()))
-            .gte(getLongOrNull(input.getGte()))
-            .lt(getLongOrNull(input.getLt()))
-            .lte(getLongOrNull(input.getLte()))
-            .build();
+    /**
+     * @return true when none of the writable properties differ, read-only properties (Id, Arn, FindingsFilterListItems) are ignored
+     */
+    protected boolean sameWritableProperties(final ResourceModel model, final ResourceModel previousModel) {
+        return previousModel != null
+            && Objects.equals(model.getName(), previousModel.getName())
+            && Objects.equals(model.getDescription(), previousModel.getDescription())
+            && sameFindingCriteria(model, previousModel)
+            && Objects.equals(model.getAction(), previousModel.getAction())
+            && Objects.equals(model.getPosition(), previousModel.getPosition());
     }
 
-    // SDK to CFN model
-
-    protected FindingCriteria cfnModelFindingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria criteria) {
-        Map<String, software.amazon.macie.findingsfilter.CriterionAdditionalProperties> modelFindingCriteria
-            = criteria.criterion().entrySet().stream().collect(Collectors.toMap(
-            Entry::getKey,
-            entry -> cfnModelCriterionAdditionalProperties(entry.getValue())
-        ));
-        return FindingCriteria.builder().criterion(modelFindingCriteria).build();
+    // criteria differing only in order, duplicates or redundant operators are the same filter once optimized
+    private boolean sameFindingCriteria(final ResourceModel model, final ResourceModel previousModel) {
+        return optimizeCriteria
+            ? FindingCriteriaOptimizer.equivalent(model.getFindingCriteria(), previousModel.getFindingCriteria())
+            : Objects.equals(model.getFindingCriteria(), previousModel.getFindingCriteria());
     }
 
-    private software.amazon.macie.findingsfilter.CriterionAdditionalProperties cfnModelCriterionAdditionalProperties(
-        software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties criterionAdditionalProperties) {
-        return software.amazon.macie.findingsfilter.CriterionAdditionalProperties.builder()
-            .eq(getCollectionOrNull(criterionAdditionalProperties.eq()))
-            .neq(getCollectionOrNull(criterionAdditionalProperties.neq()))
-            .gt(getIntegerOrNull(criterionAdditionalProperties.gt()))
-            .gte(getIntegerOrNull(criterionAdditionalProperties.gte()))
-            .lt(getIntegerOrNull(criterionAdditionalProperties.lt()))
-            .lte(getIntegerOrNull(criterionAdditionalProperties.lte()))
-            .build();
+    private software.amazon.awssdk.services.macie2.model.FindingCriteria macieSdkFindingCriteria(final ResourceModel model) {
+        return FindingCriteriaTranslator.toSdk(sentFindingCriteria(model));
     }
 
-    // Quick utils
-    protected Long getLongOrNull(Integer value) {
-        return value == null ? null : Long.valueOf(value);
+    /**
+     * @return the finding criteria of the model as they are sent to Macie, the canonical form when criteria are optimized
+     */
+    protected FindingCriteria sentFindingCriteria(final ResourceModel model) {
+        return optimizeCriteria ? FindingCriteriaOptimizer.optimize(model.getFindingCriteria()) : model.getFindingCriteria();
     }
 
-    protected Integer getIntegerOrNull(Long value) {
-        return value == null ? null : Math.toIntExact(value);
-    }
+    // SDK to CFN model
 
-    protected List<String> getCollectionOrNull(List<String> value) {
-        return CollectionUtils.isEmpty(value) ? null : value;
+    protected FindingCriteria cfnModelFindingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria criteria) {
+        return FindingCriteriaTranslator.toModel(criteria);
     }
 
     // Exception handling
 
-    private Boolean macieNotEnabled(Exception exception) {
-        return exception.getMessage().contains(MACIE_NOT_ENABLED);
-    }
-
-    private Boolean retryError(Exception exception) {
-        return exception instanceof Macie2Exception
-            && ((Macie2Exception) exception).awsErrorDetails().sdkHttpResponse().statusCode() == HttpStatus.SC_INTERNAL_SERVER_ERROR;
-    }
-
-    private Boolean notFound(Exception exception) {
-        return exception instanceof Macie2Exception
-            && ((Macie2Exception) exception).awsErrorDetails().sdkHttpResponse().statusCode() == HttpStatus.SC_NOT_FOUND;
+    /**
+     * Only Create, Update and Delete may return IN_PROGRESS. Read and List fail with Throttling or ServiceInternalError once the
+     * SDK has spent its own retries, and CloudFormation retries them.
+     */
+    protected boolean retriesWithCallbackDelay() {
+        return true;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleError(final String operation,
         ResourceHandlerRequest<ResourceModel> request, final Exception exception, final ResourceModel model,
         final CallbackContext context, final Logger logger) {
-        // All InternalServerExceptions are retryable
-        if (retryError(exception)) {
-            logger.log(String.format(RETRY_MESSAGE, request.getAwsAccountId(), exception.getMessage()));
-            return ProgressEvent.progress(model, context);
+        if (RetryPolicy.isRetryable(exception) && !retriesWithCallbackDelay()) {
+            final HandlerErrorCode errorCode = RetryPolicy.isThrottling(exception)
+                ? HandlerErrorCode.Throttling : HandlerErrorCode.ServiceInternalError;
+            ERRORS.log(logger, operation, request.getAwsAccountId(), exception, errorCode);
+            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .status(OperationStatus.FAILED)
+                .errorCode(errorCode)
+                .message(exception.getMessage())
+                .build();
+        }
+        // Throttling, server side and network errors are retried after a callback delay, until the retry budget is spent
+        if (RetryPolicy.isRetryable(exception) && context.getRetryAttempts() < RetryPolicy.MAX_RETRY_ATTEMPTS) {
+            context.setRetryAttempts(context.getRetryAttempts() + 1);
+            final int delaySeconds = RetryPolicy.callbackDelaySeconds(context.getRetryAttempts());
+            logger.log(String.format(RETRY_MESSAGE, request.getAwsAccountId(), delaySeconds, context.getRetryAttempts(), exception.getMessage()));
+            new EmfMetrics(logger).entry(operation)
+                .metric("Retries", 1, EmfMetrics.COUNT)
+                .metric("RetryDelay", delaySeconds, EmfMetrics.SECONDS)
+                .property("RetryAttempt", context.getRetryAttempts())
+                .emit();
+            return ProgressEvent.defaultInProgressHandler(context, delaySeconds, model);
         }
 
-        logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(exception)));
+        final HandlerErrorCode errorCode = ERRORS.classify(exception);
+        ERRORS.log(logger, operation, request.getAwsAccountId(), exception, errorCode);
         ProgressEventBuilder<ResourceModel, CallbackContext> failureProgressEvent = ProgressEvent.<ResourceModel, CallbackContext>builder()
             .status(OperationStatus.FAILED);
 
         // Check of business exceptions
-        if (macieNotEnabled(exception)) {
+        if (errorCode == HandlerErrorCode.AccessDenied) {
             throw new CfnAccessDeniedException(operation, exception);
-        } else if (notFound(exception)) {
+        } else if (errorCode == HandlerErrorCode.NotFound) {
             return failureProgressEvent
                 .errorCode(HandlerErrorCode.NotFound)
                 .message(String.format(RESOURCE_MISSING_CFN_MESSAGE, ResourceModel.TYPE_NAME, model.getId()))
                 .build();
-        } else if (exception.getMessage().contains(FILTER_ALREADY_EXISTS)) {
+        } else if (errorCode == HandlerErrorCode.AlreadyExists) {
             return failureProgressEvent
                 .errorCode(HandlerErrorCode.AlreadyExists)
                 .message(String.format(RESOURCE_EXISTS_CFN_MESSAGE, ResourceModel.TYPE_NAME, model.getName()))
@@ -1,13 +1,18 @@
 package software.amazon.macie.findingsfilter;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 @Builder
+@EqualsAndHashCode(callSuper = true)
 public class CallbackContext extends StdCallbackContext {
-
+    // Retries of throttled and transient failures handed back to CloudFormation as callback delays
+    private int retryAttempts;
 }
@@ -13,6 +13,18 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public class CreateHandler extends BaseMacieFindingFilterHandler {
 
     protected static final String OPERATION = "macie2::CreateFindingsFilter";
+    // Set to "true" to read the live state back after create instead of building it from the create request
+    protected static final String VERIFY_WITH_READ_ENV = "MACIE_CREATE_VERIFY_WITH_READ";
+
+    private final boolean verifyWithRead;
+
+    public CreateHandler() {
+        this(Boolean.parseBoolean(System.getenv(VERIFY_WITH_READ_ENV)));
+    }
+
+    CreateHandler(final boolean verifyWithRead) {
+        this.verifyWithRead = verifyWithRead;
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -34,8 +46,8 @@ public class CreateHandler extends BaseMacieFindingFilterHandler {
             .handleError((_request, _exception, _client, _model, _context) -> handleError(OPERATION, request, _exception, _model, _context, logger))
             // Update model so identifier can be used by subsequent read call.
             .done(this::buildModelFromResponse)
-            // we then delegate to ReadHandler to read the live state and send back successful response.
-            .then((r) -> new ReadHandler()
+            // we then delegate to ReadHandler to read the live state and send back successful response, unless the model is already complete.
+            .then((r) -> r.isSuccess() ? r : new ReadHandler(true)
                 .handleRequest(proxy, request, callbackContext, client, logger));
     }
 
@@ -45,9 +57,23 @@ public class CreateHandler extends BaseMacieFindingFilterHandler {
 
         model.setId(response.id());
         model.setArn(response.arn());
+        // Macie assigns the position and the action when none is sent, only a read can tell which ones
+        if (verifyWithRead || createFindingsFilterRequest.position() == null || createFindingsFilterRequest.action() == null) {
+            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .resourceModel(model)
+                .status(OperationStatus.IN_PROGRESS)
+                .build();
+        }
+
+        // Write through: the request holds every other property, normalized the same way ReadHandler would
+        model.setName(createFindingsFilterRequest.name());
+        model.setDescription(createFindingsFilterRequest.description());
+        model.setAction(createFindingsFilterRequest.actionAsString());
+        model.setPosition(createFindingsFilterRequest.position());
+        model.setFindingCriteria(cfnModelFindingCriteria(createFindingsFilterRequest.findingCriteria()));
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
             .resourceModel(model)
-            .status(OperationStatus.IN_PROGRESS)
+            .status(OperationStatus.SUCCESS)
             .build();
     }
 }
@@ -0,0 +1,109 @@
+package software.amazon.macie.findingsfilter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import software.amazon.cloudformation.proxy.Logger;
+
+/**
+ * Writes metrics as CloudWatch Embedded Metric Format (EMF) lines through the handler logger. CloudWatch Logs turns them into metrics
+ * on ingestion, no PutMetricData call is made. Every entry is dimensioned by resource type and operation.
+ */
+final class EmfMetrics {
+
+    static final String NAMESPACE = "Macie/ResourceProviders";
+    // Set to "false" to stop writing metric lines
+    static final String METRICS_ENV = "MACIE_EMF_METRICS";
+
+    static final String MILLISECONDS = "Milliseconds";
+    static final String SECONDS = "Seconds";
+    static final String BYTES = "Bytes";
+    static final String COUNT = "Count";
+
+    private static final String RESOURCE_TYPE = "ResourceType";
+    private static final String OPERATION = "Operation";
+    private static final List<List<String>> DIMENSIONS = Collections.singletonList(Arrays.asList(RESOURCE_TYPE, OPERATION));
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Logger logger;
+    private final boolean enabled;
+    private final LongSupplier currentTimeMillis;
+
+    EmfMetrics(final Logger logger) {
+        this(logger, !"false".equalsIgnoreCase(System.getenv(METRICS_ENV)), System::currentTimeMillis);
+    }
+
+    EmfMetrics(final Logger logger, final boolean enabled, final LongSupplier currentTimeMillis) {
+        this.logger = logger;
+        this.enabled = enabled;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    Entry entry(final String operation) {
+        return new Entry(operation);
+    }
+
+    /**
+     * One EMF line: metric values plus properties that are searchable in Logs Insights but are not metrics themselves.
+     */
+    final class Entry {
+        private final String operation;
+        private final List<Map<String, String>> definitions = new ArrayList<>();
+        private final Map<String, Object> values = new LinkedHashMap<>();
+
+        private Entry(final String operation) {
+            this.operation = operation;
+        }
+
+        Entry metric(final String name, final Number value, final String unit) {
+            final Map<String, String> definition = new LinkedHashMap<>();
+            definition.put("Name", name);
+            definition.put("Unit", unit);
+            definitions.add(definition);
+            values.put(name, value);
+            return this;
+        }
+
+        Entry property(final String name, final Object value) {
+            if (value != null) {
+                values.put(name, value);
+            }
+            return this;
+        }
+
+        void emit() {
+            if (!enabled || definitions.isEmpty()) {
+                return;
+            }
+            final Map<String, Object> directive = new LinkedHashMap<>();
+            directive.put("Namespace", NAMESPACE);
+            directive.put("Dimensions", DIMENSIONS);
+            directive.put("Metrics", definitions);
+
+            final Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("Timestamp", currentTimeMillis.getAsLong());
+            metadata.put("CloudWatchMetrics", Collections.singletonList(directive));
+
+            final Map<String, Object> line = new LinkedHashMap<>();
+            line.put("_aws", metadata);
+            line.put(RESOURCE_TYPE, ResourceModel.TYPE_NAME);
+            line.put(OPERATION, operation);
+            line.putAll(values);
+            try {
+                logger.log(MAPPER.writeValueAsString(line));
+            } catch (final JsonProcessingException e) {
+                // metrics must never fail the handler
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package software.amazon.macie.findingsfilter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Evaluates the finding criteria of a findings filter locally, against finding JSON documents such as a Macie findings export
+ * (one finding per line, optionally gzipped), to preview what a filter would match before deploying it.
+ * <p>
+ * Criteria are ANDed. For a field with several values (a path through an array) {@code eq} needs one of them in the list,
+ * {@code neq} needs none of them in the list and the range operators need one value within all the bounds. A missing field fails
+ * {@code eq} and range criteria and passes {@code neq}. Values are compared as their JSON text, so {@code eq: ["true"]} matches a
+ * boolean and {@code eq: ["3"]} a number.
+ * <p>
+ * Instances are immutable and thread safe, give each thread its own {@link FindingFieldReader.FieldValues}. {@link #evaluate(Path)}
+ * evaluates chunks of a plain export in parallel on the common fork-join pool.
+ */
+final class FindingCriteriaEvaluator {
+
+    static final JsonFactory JSON = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    private final FindingFieldReader reader;
+    private final Predicate[] predicates;
+
+    private FindingCriteriaEvaluator(final FindingFieldReader reader, final Predicate[] predicates) {
+        this.reader = reader;
+        this.predicates = predicates;
+    }
+
+    static FindingCriteriaEvaluator compile(final ResourceModel model) {
+        return compile(model.getFindingCriteria());
+    }
+
+    /**
+     * @param criteria null matches every finding
+     */
+    static FindingCriteriaEvaluator compile(final FindingCriteria criteria) {
+        return compileAll(Collections.singletonList(criteria)).get(0);
+    }
+
+    /**
+     * Compiles several criteria against one shared reader of the union of their paths, so a finding read once can be tested by
+     * each of them.
+     */
+    static List<FindingCriteriaEvaluator> compileAll(final List<FindingCriteria> criteriaList) {
+        final Map<String, Integer> slots = new HashMap<>();
+        final List<String> paths = new ArrayList<>();
+        final BitSet numeric = new BitSet();
+        final List<Predicate[]> compiled = new ArrayList<>(criteriaList.size());
+        for (final FindingCriteria criteria : criteriaList) {
+            final Map<String, CriterionAdditionalProperties> criterion = criteria == null || criteria.getCriterion() == null
+                ? Collections.emptyMap() : criteria.getCriterion();
+            final List<Predicate> predicates = new ArrayList<>(criterion.size());
+            for (final Map.Entry<String, CriterionAdditionalProperties> entry : criterion.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                final int slot = slots.computeIfAbsent(entry.getKey(), path -> {
+                    paths.add(path);
+                    return paths.size() - 1;
+                });
+                final Predicate predicate = new Predicate(slot, entry.getValue());
+                if (predicate.hasRange) {
+                    numeric.set(slot);
+                }
+                predicates.add(predicate);
+            }
+            compiled.add(predicates.toArray(new Predicate[0]));
+        }
+        final FindingFieldReader reader = new FindingFieldReader(paths, numeric);
+        final List<FindingCriteriaEvaluator> evaluators = new ArrayList<>(compiled.size());
+        for (final Predicate[] predicates : compiled) {
+            evaluators.add(new FindingCriteriaEvaluator(reader, predicates));
+        }
+        return evaluators;
+    }
+
+    FindingFieldReader reader() {
+        return reader;
+    }
+
+    boolean test(final FindingFieldReader.FieldValues values) {
+        for (final Predicate predicate : predicates) {
+            if (!predicate.test(values)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the document is not a JSON object
+     */
+    boolean matches(final String json) {
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("a finding must be a JSON object");
+            }
+            final FindingFieldReader.FieldValues values = reader.newValues();
+            reader.read(parser, values);
+            return test(values);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Evaluates a findings export on the common fork-join pool, see {@link FindingsExport}. Plain exports must hold one finding per
+     * line.
+     *
+     * @throws UncheckedIOException if the file cannot be read or is not valid JSON
+     */
+    Result evaluate(final Path export) {
+        return evaluate(export, ForkJoinPool.commonPool(), FindingsExport.DEFAULT_CHUNK_SIZE);
+    }
+
+    Result evaluate(final Path export, final ForkJoinPool pool, final int chunkSize) {
+        return FindingsExport.evaluate(export, pool, chunkSize, this::evaluate, Result::add);
+    }
+
+    /**
+     * @param input a sequence of finding objects, usually one per line; not closed
+     */
+    Result evaluate(final InputStream input) {
+        try (JsonParser parser = JSON.createParser(input)) {
+            return evaluate(parser);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Result evaluate(final JsonParser parser) throws IOException {
+        final Result result = new Result();
+        final FindingFieldReader.FieldValues values = reader.newValues();
+        for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("expected a finding object, found " + token);
+            }
+            reader.read(parser, values);
+            result.findings++;
+            if (test(values)) {
+                result.matched++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens a findings export, through gzip when the file name ends with {@code .gz}.
+     */
+    static InputStream open(final Path export) throws IOException {
+        final InputStream input = new BufferedInputStream(Files.newInputStream(export), 1 << 16);
+        return export.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(input, 1 << 16) : input;
+    }
+
+    /**
+     * Number of findings read and of findings the criteria matched.
+     */
+    static final class Result {
+        private long findings;
+        private long matched;
+
+        private Result add(final Result other) {
+            findings += other.findings;
+            matched += other.matched;
+            return this;
+        }
+
+        long findings() {
+            return findings;
+        }
+
+        long matched() {
+            return matched;
+        }
+    }
+
+    /**
+     * The operators of one field.
+     */
+    private static final class Predicate {
+        private final int slot;
+        private final Set<String> eq;
+        private final Set<String> neq;
+        private final boolean hasRange;
+        private final double gt;
+        private final double gte;
+        private final double lt;
+        private final double lte;
+
+        private Predicate(final int slot, final CriterionAdditionalProperties properties) {
+            this.slot = slot;
+            this.eq = toSet(properties.getEq());
+            this.neq = toSet(properties.getNeq());
+            this.hasRange = properties.getGt() != null || properties.getGte() != null || properties.getLt() != null
+                || properties.getLte() != null;
+            this.gt = properties.getGt() == null ? Double.NEGATIVE_INFINITY : properties.getGt();
+            this.gte = properties.getGte() == null ? Double.NEGATIVE_INFINITY : properties.getGte();
+            this.lt = properties.getLt() == null ? Double.POSITIVE_INFINITY : properties.getLt();
+            this.lte = properties.getLte() == null ? Double.POSITIVE_INFINITY : properties.getLte();
+        }
+
+        boolean test(final FindingFieldReader.FieldValues values) {
+            final int count = values.count(slot);
+            if (eq != null && !anyIn(values, count, eq)) {
+                return false;
+            }
+            if (neq != null && anyIn(values, count, neq)) {
+                return false;
+            }
+            if (hasRange) {
+                for (int i = 0; i < count; i++) {
+                    final double value = values.number(slot, i);
+                    // NaN fails every comparison
+                    if (value > gt && value >= gte && value < lt && value <= lte) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+
+        private boolean anyIn(final FindingFieldReader.FieldValues values, final int count, final Set<String> set) {
+            for (int i = 0; i < count; i++) {
+                if (set.contains(values.text(slot, i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // the SDK and the model both use empty lists and null for an absent operator
+        private static Set<String> toSet(final List<String> values) {
+            return values == null || values.isEmpty() ? null : new HashSet<>(values);
+        }
+    }
+}
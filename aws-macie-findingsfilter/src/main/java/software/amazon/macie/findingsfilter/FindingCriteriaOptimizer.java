@@ -0,0 +1,121 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Rewrites finding criteria into a canonical, compact form that matches the same findings: criterion keys and value lists sorted,
+ * duplicate values dropped, {@code gt}/{@code gte} and {@code lt}/{@code lte} pairs merged into the tighter bound, {@code eq} values
+ * that {@code neq} excludes dropped, and range bounds dropped when every {@code eq} value already satisfies them.
+ * <p>
+ * A path through an array can hold several values in one finding, so only rewrites that hold whichever value matches each operator
+ * are made. {@code neq} values outside {@code eq} are kept: a finding can hold both an {@code eq} value and a {@code neq} value. A
+ * criterion no value can satisfy is left as it is rather than emptied, since an empty criterion matches everything.
+ */
+final class FindingCriteriaOptimizer {
+
+    private FindingCriteriaOptimizer() {
+    }
+
+    /**
+     * @return the canonical form, null for null
+     */
+    static FindingCriteria optimize(final FindingCriteria criteria) {
+        if (criteria == null || criteria.getCriterion() == null) {
+            return criteria;
+        }
+        final Map<String, CriterionAdditionalProperties> criterion = new TreeMap<>();
+        for (final Map.Entry<String, CriterionAdditionalProperties> entry : criteria.getCriterion().entrySet()) {
+            criterion.put(entry.getKey(), entry.getValue() == null ? null : optimize(entry.getValue()));
+        }
+        return FindingCriteria.builder().criterion(criterion).build();
+    }
+
+    static CriterionAdditionalProperties optimize(final CriterionAdditionalProperties properties) {
+        List<String> eq = sorted(properties.getEq());
+        final List<String> neq = sorted(properties.getNeq());
+
+        // of gt a and gte b, gte b is tighter when b > a; of lt a and lte b, lte b is tighter when b < a
+        Integer gt = properties.getGt();
+        Integer gte = properties.getGte();
+        if (gt != null && gte != null) {
+            if (gte > gt) {
+                gt = null;
+            } else {
+                gte = null;
+            }
+        }
+        Integer lt = properties.getLt();
+        Integer lte = properties.getLte();
+        if (lt != null && lte != null) {
+            if (lte < lt) {
+                lt = null;
+            } else {
+                lte = null;
+            }
+        }
+
+        if (eq != null) {
+            final List<String> remaining = new ArrayList<>(eq.size());
+            boolean allInRange = true;
+            for (final String value : eq) {
+                if (neq == null || !neq.contains(value)) {
+                    remaining.add(value);
+                    final double number = FindingFieldReader.parseNumber(value);
+                    allInRange &= (gt == null || number > gt) && (gte == null || number >= gte) && (lt == null || number < lt)
+                        && (lte == null || number <= lte);
+                }
+            }
+            if (!remaining.isEmpty()) {
+                eq = remaining;
+                // the value that satisfies eq satisfies the bounds too
+                if (allInRange) {
+                    gt = null;
+                    gte = null;
+                    lt = null;
+                    lte = null;
+                }
+            }
+        }
+        return CriterionAdditionalProperties.builder().eq(eq).neq(neq).gt(gt).gte(gte).lt(lt).lte(lte).build();
+    }
+
+    /**
+     * Feeds the canonical form of the criteria to the fingerprint, so criteria matching the same findings through the rewrites above
+     * fingerprint the same whatever their key and value order.
+     */
+    static Fingerprint fingerprint(final FindingCriteria criteria, final Fingerprint fingerprint) {
+        final FindingCriteria canonical = optimize(criteria);
+        if (canonical == null || canonical.getCriterion() == null) {
+            return fingerprint;
+        }
+        for (final Map.Entry<String, CriterionAdditionalProperties> entry : canonical.getCriterion().entrySet()) {
+            fingerprint.add('k', entry.getKey());
+            final CriterionAdditionalProperties properties = entry.getValue();
+            if (properties != null) {
+                fingerprint.addAll('e', properties.getEq())
+                    .addAll('n', properties.getNeq())
+                    .add('g', properties.getGt())
+                    .add('G', properties.getGte())
+                    .add('l', properties.getLt())
+                    .add('L', properties.getLte());
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Whether both criteria have the same canonical form.
+     */
+    static boolean equivalent(final FindingCriteria a, final FindingCriteria b) {
+        return Objects.equals(optimize(a), optimize(b));
+    }
+
+    private static List<String> sorted(final List<String> values) {
+        return values == null || values.isEmpty() ? null : new ArrayList<>(new TreeSet<>(values));
+    }
+}
@@ -0,0 +1,76 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import org.apache.commons.collections.CollectionUtils;
+
+/**
+ * Translates finding criteria between the resource model and the Macie SDK, for Create, Update and Read.
+ */
+final class FindingCriteriaTranslator {
+
+    private FindingCriteriaTranslator() {
+    }
+
+    static software.amazon.awssdk.services.macie2.model.FindingCriteria toSdk(final FindingCriteria criteria) {
+        final Map<String, CriterionAdditionalProperties> modelCriterion = criteria.getCriterion() == null
+            ? Collections.emptyMap() : criteria.getCriterion();
+        Map<String, software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties> criterion = modelCriterion.entrySet()
+            .stream()
+            .collect(Collectors.toMap(
+                Entry::getKey,
+                entry -> macieSdkCriterionAdditionalProperties(entry.getValue())
+            ));
+        return software.amazon.awssdk.services.macie2.model.FindingCriteria.builder()
+            .criterion(criterion).build();
+    }
+
+    static FindingCriteria toModel(final software.amazon.awssdk.services.macie2.model.FindingCriteria criteria) {
+        Map<String, CriterionAdditionalProperties> modelFindingCriteria
+            = criteria.criterion().entrySet().stream().collect(Collectors.toMap(
+            Entry::getKey,
+            entry -> cfnModelCriterionAdditionalProperties(entry.getValue())
+        ));
+        return FindingCriteria.builder().criterion(modelFindingCriteria).build();
+    }
+
+    private static software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties macieSdkCriterionAdditionalProperties(
+        final CriterionAdditionalProperties input) {
+        return software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties.builder()
+            .eq(getCollectionOrNull(input.getEq()))
+            .neq(getCollectionOrNull(input.getNeq()))
+            .gt(getLongOrNull(input.getGt()))
+            .gte(getLongOrNull(input.getGte()))
+            .lt(getLongOrNull(input.getLt()))
+            .lte(getLongOrNull(input.getLte()))
+            .build();
+    }
+
+    private static CriterionAdditionalProperties cfnModelCriterionAdditionalProperties(
+        software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties criterionAdditionalProperties) {
+        return CriterionAdditionalProperties.builder()
+            .eq(getCollectionOrNull(criterionAdditionalProperties.eq()))
+            .neq(getCollectionOrNull(criterionAdditionalProperties.neq()))
+            .gt(getIntegerOrNull(criterionAdditionalProperties.gt()))
+            .gte(getIntegerOrNull(criterionAdditionalProperties.gte()))
+            .lt(getIntegerOrNull(criterionAdditionalProperties.lt()))
+            .lte(getIntegerOrNull(criterionAdditionalProperties.lte()))
+            .build();
+    }
+
+    private static Long getLongOrNull(Integer value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static Integer getIntegerOrNull(Long value) {
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    // The SDK hands out empty auto construct lists for absent operators, the model and the API both expect null instead
+    private static List<String> getCollectionOrNull(List<String> value) {
+        return CollectionUtils.isEmpty(value) ? null : value;
+    }
+}
@@ -0,0 +1,173 @@
+package software.amazon.macie.findingsfilter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pulls the values of a fixed set of dotted field paths, such as {@code severity.description} or
+ * {@code resourcesAffected.s3Bucket.name}, out of finding JSON documents with the Jackson streaming parser. The paths are kept in a
+ * trie, so every subtree that none of them goes through is skipped without being materialized. Arrays anywhere along a path are
+ * flattened: a path can have several values in one finding, or none.
+ * <p>
+ * Paths flagged as numeric also get a number per value, for range criteria: JSON numbers as they are, ISO-8601 timestamps as epoch
+ * milliseconds (the unit Macie uses for date criteria), numeric strings parsed, anything else NaN.
+ */
+final class FindingFieldReader {
+
+    private final Node root = new Node();
+    private final int pathCount;
+    private final BitSet numeric;
+
+    /**
+     * @param paths one slot per path, in order
+     * @param numeric indexes of the paths that need numbers
+     */
+    FindingFieldReader(final List<String> paths, final BitSet numeric) {
+        this.pathCount = paths.size();
+        this.numeric = (BitSet) numeric.clone();
+        for (int slot = 0; slot < paths.size(); slot++) {
+            Node node = root;
+            for (final String name : paths.get(slot).split("\\.")) {
+                node = node.children.computeIfAbsent(name, key -> new Node());
+            }
+            node.slot = slot;
+        }
+    }
+
+    FieldValues newValues() {
+        return new FieldValues(pathCount);
+    }
+
+    /**
+     * Reads one finding, the parser positioned on its START_OBJECT, and leaves the parser on the matching END_OBJECT.
+     */
+    void read(final JsonParser parser, final FieldValues values) throws IOException {
+        values.clear();
+        readObject(parser, root, values);
+    }
+
+    private void readObject(final JsonParser parser, final Node node, final FieldValues values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final Node child = node.children.get(parser.getCurrentName());
+            final JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else {
+                readValue(parser, token, child, values);
+            }
+        }
+    }
+
+    private void readValue(final JsonParser parser, final JsonToken token, final Node node, final FieldValues values) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                readObject(parser, node, values);
+                break;
+            case START_ARRAY:
+                for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                    readValue(parser, element, node, values);
+                }
+                break;
+            case VALUE_NULL:
+                break;
+            default:
+                if (node.slot >= 0) {
+                    values.add(node.slot, parser.getText(), numeric.get(node.slot) ? number(parser, token) : Double.NaN);
+                }
+                break;
+        }
+    }
+
+    /**
+     * The number of the scalar the parser is on, NaN when it has none.
+     */
+    static double number(final JsonParser parser, final JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        return token == JsonToken.VALUE_STRING ? parseNumber(parser.getText()) : Double.NaN;
+    }
+
+    /**
+     * The number of a string value: epoch milliseconds for an ISO-8601 timestamp, the value of a decimal string, NaN otherwise.
+     */
+    static double parseNumber(final String text) {
+        try {
+            if (text.length() >= 20 && text.charAt(4) == '-' && text.charAt(10) == 'T') {
+                return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            }
+            return isDecimal(text) ? Double.parseDouble(text) : Double.NaN;
+        } catch (final NumberFormatException | DateTimeParseException e) {
+            return Double.NaN;
+        }
+    }
+
+    // most strings aren't numbers, don't pay for an exception on each of them
+    private static boolean isDecimal(final String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private int slot = -1;
+    }
+
+    /**
+     * Values of every path for the finding read last. Reused from one finding to the next, one instance per thread.
+     */
+    static final class FieldValues {
+        private final String[][] texts;
+        private final double[][] numbers;
+        private final int[] counts;
+
+        private FieldValues(final int slots) {
+            this.texts = new String[slots][1];
+            this.numbers = new double[slots][1];
+            this.counts = new int[slots];
+        }
+
+        int count(final int slot) {
+            return counts[slot];
+        }
+
+        String text(final int slot, final int index) {
+            return texts[slot][index];
+        }
+
+        double number(final int slot, final int index) {
+            return numbers[slot][index];
+        }
+
+        private void add(final int slot, final String text, final double number) {
+            final int count = counts[slot];
+            if (count == texts[slot].length) {
+                texts[slot] = Arrays.copyOf(texts[slot], count * 2);
+                numbers[slot] = Arrays.copyOf(numbers[slot], count * 2);
+            }
+            texts[slot][count] = text;
+            numbers[slot][count] = number;
+            counts[slot] = count + 1;
+        }
+
+        private void clear() {
+            Arrays.fill(counts, 0);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package software.amazon.macie.findingsfilter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Reads a findings export for local evaluation. Plain JSON lines exports are split into chunks on line boundaries that are evaluated
+ * in parallel on a fork-join pool, so they must hold one finding per line. Chunks up to the chunk size are memory mapped, a line
+ * longer than that is read through the channel. Gzipped exports, names ending with {@code .gz}, are read in a single pass on the
+ * calling thread.
+ */
+final class FindingsExport {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private FindingsExport() {
+    }
+
+    /**
+     * Evaluates the findings of one chunk, or of a whole gzipped export, into a new partial result.
+     */
+    interface ChunkEvaluator<R> {
+        R evaluate(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * @param merge combines the results of two chunks, the earlier one first
+     * @throws UncheckedIOException if the file cannot be read or is not valid JSON
+     */
+    static <R> R evaluate(final Path export, final ForkJoinPool pool, final int chunkSize, final ChunkEvaluator<R> evaluator,
+        final BinaryOperator<R> merge) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        if (export.getFileName().toString().endsWith(".gz")) {
+            try (InputStream input = FindingCriteriaEvaluator.open(export);
+                JsonParser parser = FindingCriteriaEvaluator.JSON.createParser(input)) {
+                return evaluator.evaluate(parser);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(export, StandardOpenOption.READ)) {
+            return pool.invoke(new ChunkTask<>(channel, 0, channel.size(), chunkSize, evaluator, merge));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Evaluates the findings whose lines start in [from, to), splitting on line boundaries until chunks are small enough to map.
+     */
+    private static final class ChunkTask<R> extends RecursiveTask<R> {
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final int chunkSize;
+        private final ChunkEvaluator<R> evaluator;
+        private final BinaryOperator<R> merge;
+
+        private ChunkTask(final FileChannel channel, final long from, final long to, final int chunkSize,
+            final ChunkEvaluator<R> evaluator, final BinaryOperator<R> merge) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.evaluator = evaluator;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            try {
+                if (to - from <= chunkSize) {
+                    final ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+                    try (JsonParser parser = FindingCriteriaEvaluator.JSON.createParser(new ByteBufferInputStream(chunk))) {
+                        return evaluator.evaluate(parser);
+                    }
+                }
+                final long middle = from + (to - from) / 2;
+                long split = nextLine(channel, middle, to);
+                if (split == to && from + chunkSize < middle) {
+                    // no line starts in the second half, cut after the line that crosses the end of the first chunk instead
+                    split = nextLine(channel, from + chunkSize, to);
+                }
+                if (split < to) {
+                    final ChunkTask<R> left = new ChunkTask<>(channel, from, split, chunkSize, evaluator, merge);
+                    left.fork();
+                    final R right = new ChunkTask<>(channel, split, to, chunkSize, evaluator, merge).compute();
+                    return merge.apply(left.join(), right);
+                }
+                // the line crossing the end of the first chunk runs to the end of the range, which may be too long to map
+                try (JsonParser parser = FindingCriteriaEvaluator.JSON.createParser(new ChannelInputStream(channel, from, to))) {
+                    return evaluator.evaluate(parser);
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Position just after the first newline at or after {@code position}, or {@code limit} when there is none before it.
+     */
+    private static long nextLine(final FileChannel channel, final long position, final long limit) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long offset = position;
+        while (offset < limit) {
+            buffer.clear();
+            final int read = channel.read(buffer, offset);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read && offset + i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return limit;
+    }
+
+    /**
+     * Reads [from, to) of the channel with positional reads, so chunk tasks sharing the channel do not move its position.
+     */
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long limit;
+
+        private ChannelInputStream(final FileChannel channel, final long from, final long to) {
+            this.channel = channel;
+            this.position = from;
+            this.limit = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (position >= limit) {
+                return -1;
+            }
+            final int count = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, limit - position)), position);
+            if (count > 0) {
+                position += count;
+            }
+            return count;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import software.amazon.awssdk.services.macie2.model.FindingsFilterAction;
+
+/**
+ * Finds findings filters that can never take effect: filters whose criteria contradict themselves (for example {@code gt} above
+ * {@code lt}, or every {@code eq} value also in {@code neq}), filters fully shadowed by an ARCHIVE filter with a lower
+ * {@code Position} whose criteria cover theirs, and pairs of filters that can match the same finding.
+ * <p>
+ * Each criterion becomes a constraint on its field: a sorted set of the {@code eq} values left once {@code neq} and the range
+ * exclude theirs, a sorted {@code neq} set and a closed interval of numbers. Pairs are not compared blindly: per field, eq values
+ * are indexed by value, intervals in an interval tree and the numbers of eq values in a sorted array, so each filter only gets the
+ * filters that agree with it on all its fields as candidates, which are then checked exactly with sorted-set intersections.
+ * <p>
+ * Paths through an array of the finding ({@link #REPEATED_PATHS}) can have several values in one finding, and are analyzed the way
+ * {@link FindingCriteriaEvaluator} matches them: {@code eq} and the range only need one value each, possibly different ones, and
+ * {@code neq} needs none. So {@code eq} values out of range don't make such a criterion empty, an ARCHIVE filter's {@code neq}
+ * doesn't cover another filter's {@code eq}, and candidates are not pruned on such fields. Every other path is single valued.
+ */
+final class FindingsFilterAnalyzer {
+
+    // prefixes of the criteria paths that go through an array in the Macie finding schema
+    static final List<String> REPEATED_PATHS = Collections.unmodifiableList(Arrays.asList(
+        "classificationDetails.result.customDataIdentifiers.detections.",
+        "classificationDetails.result.sensitiveData.",
+        "resourcesAffected.s3Bucket.tags.",
+        "resourcesAffected.s3Object.tags."));
+
+    private static final Constraint UNCONSTRAINED = new Constraint(CriterionAdditionalProperties.builder().build(), false);
+
+    private FindingsFilterAnalyzer() {
+    }
+
+    static Report analyze(final Collection<ResourceModel> filters) {
+        final List<ResourceModel> ordered = new ArrayList<>(filters);
+        ordered.sort(FindingsFilterProgram.POSITION_ORDER);
+        final int count = ordered.size();
+
+        final List<Map<String, Constraint>> constraints = new ArrayList<>(count);
+        final BitSet live = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            final Map<String, Constraint> filterConstraints = constraints(ordered.get(i).getFindingCriteria());
+            constraints.add(filterConstraints);
+            if (filterConstraints.values().stream().noneMatch(Constraint::isEmpty)) {
+                live.set(i);
+            }
+        }
+
+        final Map<String, FieldIndex> fields = new HashMap<>();
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+            for (final Map.Entry<String, Constraint> entry : constraints.get(i).entrySet()) {
+                fields.computeIfAbsent(entry.getKey(), path -> new FieldIndex()).add(i, entry.getValue());
+            }
+        }
+        for (final FieldIndex field : fields.values()) {
+            field.freeze();
+        }
+
+        final List<Pair> overlapping = new ArrayList<>();
+        final int[] shadowedBy = new int[count];
+        Arrays.fill(shadowedBy, -1);
+        for (int a = live.nextSetBit(0); a >= 0; a = live.nextSetBit(a + 1)) {
+            final BitSet candidates = (BitSet) live.clone();
+            candidates.clear(0, a + 1);
+            for (final Map.Entry<String, Constraint> entry : constraints.get(a).entrySet()) {
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                fields.get(entry.getKey()).retainCompatible(entry.getValue(), count, candidates);
+            }
+            final boolean archives = FindingsFilterAction.ARCHIVE.toString().equals(ordered.get(a).getAction());
+            for (int b = candidates.nextSetBit(0); b >= 0; b = candidates.nextSetBit(b + 1)) {
+                if (overlap(constraints.get(a), constraints.get(b))) {
+                    overlapping.add(new Pair(ordered.get(a), ordered.get(b)));
+                    if (archives && shadowedBy[b] < 0 && covers(constraints.get(a), constraints.get(b))) {
+                        shadowedBy[b] = a;
+                    }
+                }
+            }
+        }
+
+        final List<ResourceModel> empty = new ArrayList<>();
+        final List<Pair> shadowed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (!live.get(i)) {
+                empty.add(ordered.get(i));
+            } else if (shadowedBy[i] >= 0) {
+                shadowed.add(new Pair(ordered.get(shadowedBy[i]), ordered.get(i)));
+            }
+        }
+        return new Report(empty, shadowed, overlapping);
+    }
+
+    private static Map<String, Constraint> constraints(final FindingCriteria criteria) {
+        final Map<String, Constraint> constraints = new HashMap<>();
+        if (criteria != null && criteria.getCriterion() != null) {
+            criteria.getCriterion().forEach((path, properties) -> {
+                if (properties != null) {
+                    constraints.put(path, new Constraint(properties, repeated(path)));
+                }
+            });
+        }
+        return constraints;
+    }
+
+    private static boolean repeated(final String path) {
+        for (final String prefix : REPEATED_PATHS) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // only the fields both constrain can disagree, a field one filter leaves open accepts whatever the other one needs
+    private static boolean overlap(final Map<String, Constraint> a, final Map<String, Constraint> b) {
+        final Map<String, Constraint> smaller = a.size() <= b.size() ? a : b;
+        final Map<String, Constraint> larger = smaller == a ? b : a;
+        for (final Map.Entry<String, Constraint> entry : smaller.entrySet()) {
+            final Constraint other = larger.get(entry.getKey());
+            if (other != null && !entry.getValue().intersects(other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean covers(final Map<String, Constraint> outer, final Map<String, Constraint> inner) {
+        for (final Map.Entry<String, Constraint> entry : outer.entrySet()) {
+            if (!entry.getValue().covers(inner.getOrDefault(entry.getKey(), UNCONSTRAINED))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filters found by {@link #analyze}, each list in {@code Position} order.
+     */
+    static final class Report {
+        private final List<ResourceModel> empty;
+        private final List<Pair> shadowed;
+        private final List<Pair> overlapping;
+
+        private Report(final List<ResourceModel> empty, final List<Pair> shadowed, final List<Pair> overlapping) {
+            this.empty = Collections.unmodifiableList(empty);
+            this.shadowed = Collections.unmodifiableList(shadowed);
+            this.overlapping = Collections.unmodifiableList(overlapping);
+        }
+
+        /**
+         * Filters no finding can match.
+         */
+        List<ResourceModel> empty() {
+            return empty;
+        }
+
+        /**
+         * Filters (later) whose findings are all archived by an earlier filter first, paired with the first such filter (earlier).
+         */
+        List<Pair> shadowed() {
+            return shadowed;
+        }
+
+        /**
+         * Pairs of filters that can both match one finding, shadowed pairs included.
+         */
+        List<Pair> overlapping() {
+            return overlapping;
+        }
+    }
+
+    /**
+     * Two filters, the one applied first and the one applied later.
+     */
+    static final class Pair {
+        private final ResourceModel earlier;
+        private final ResourceModel later;
+
+        private Pair(final ResourceModel earlier, final ResourceModel later) {
+            this.earlier = earlier;
+            this.later = later;
+        }
+
+        ResourceModel earlier() {
+            return earlier;
+        }
+
+        ResourceModel later() {
+            return later;
+        }
+
+        @Override
+        public String toString() {
+            return earlier.getName() + " > " + later.getName();
+        }
+    }
+
+    /**
+     * The values a criterion accepts for one field. A field with neither eq nor a range also accepts a missing field.
+     */
+    private static final class Constraint {
+        // several values per finding, each operator is met by any of them
+        private final boolean repeated;
+        // sorted, null without eq
+        private final String[] eq;
+        private final double[] eqNumbers;
+        // sorted
+        private final String[] neq;
+        private final boolean hasRange;
+        private final double low;
+        private final double high;
+
+        private Constraint(final CriterionAdditionalProperties properties, final boolean repeated) {
+            this.repeated = repeated;
+            this.neq = sorted(properties.getNeq());
+            this.hasRange = properties.getGt() != null || properties.getGte() != null || properties.getLt() != null
+                || properties.getLte() != null;
+            this.low = FindingsIndex.lowest(properties);
+            this.high = FindingsIndex.highest(properties);
+            if (properties.getEq() == null || properties.getEq().isEmpty()) {
+                this.eq = null;
+                this.eqNumbers = null;
+            } else {
+                final List<String> values = new ArrayList<>();
+                for (final String value : sorted(properties.getEq())) {
+                    // on a repeated field another value can be the one in range
+                    if (Arrays.binarySearch(neq, value) < 0
+                        && (repeated || !hasRange || inRange(FindingFieldReader.parseNumber(value)))) {
+                        values.add(value);
+                    }
+                }
+                this.eq = values.toArray(new String[0]);
+                this.eqNumbers = new double[eq.length];
+                for (int i = 0; i < eq.length; i++) {
+                    eqNumbers[i] = FindingFieldReader.parseNumber(eq[i]);
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            if (repeated) {
+                return (eq != null && eq.length == 0) || (hasRange && !(low <= high));
+            }
+            return eq != null ? eq.length == 0 : hasRange && !(low <= high);
+        }
+
+        // NaN is never in range
+        private boolean inRange(final double number) {
+            return number >= low && number <= high;
+        }
+
+        private boolean accepts(final String value) {
+            if (eq != null) {
+                return Arrays.binarySearch(eq, value) >= 0;
+            }
+            return Arrays.binarySearch(neq, value) < 0 && (!hasRange || inRange(FindingFieldReader.parseNumber(value)));
+        }
+
+        private boolean intersects(final Constraint other) {
+            if (repeated) {
+                // each side's eq needs one value the other side's neq allows, a range always has such a value
+                return (eq == null || !containsAll(other.neq, eq)) && (other.eq == null || !containsAll(neq, other.eq));
+            }
+            if (eq != null && other.eq != null) {
+                return intersect(eq, other.eq);
+            }
+            if (eq != null || other.eq != null) {
+                final Constraint values = eq != null ? this : other;
+                final Constraint test = values == this ? other : this;
+                for (final String value : values.eq) {
+                    if (test.accepts(value)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            // a range holds infinitely many values, a neq list can't exclude them all
+            return !hasRange || !other.hasRange || Math.max(low, other.low) <= Math.min(high, other.high);
+        }
+
+        /**
+         * Whether every value {@code inner} accepts, a missing field included, this accepts too.
+         */
+        private boolean covers(final Constraint inner) {
+            if (repeated) {
+                return coversRepeated(inner);
+            }
+            if (inner.eq != null) {
+                for (final String value : inner.eq) {
+                    if (!accepts(value)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (eq != null) {
+                return false;
+            }
+            if (hasRange && !(inner.hasRange && inner.low >= low && inner.high <= high)) {
+                return false;
+            }
+            for (final String value : neq) {
+                if (inner.accepts(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // every value a finding must hold for inner, it must hold for this too; values inner allows besides never help
+        private boolean coversRepeated(final Constraint inner) {
+            if (eq != null && (inner.eq == null || !containsAll(eq, inner.eq))) {
+                return false;
+            }
+            if (hasRange && !(inner.hasRange && inner.low >= low && inner.high <= high) && !inner.eqInRange(low, high)) {
+                return false;
+            }
+            // a value this excludes may sit next to the values inner needs, unless inner excludes it as well
+            return containsAll(inner.neq, neq);
+        }
+
+        private boolean eqInRange(final double rangeLow, final double rangeHigh) {
+            if (eq == null) {
+                return false;
+            }
+            for (final double number : eqNumbers) {
+                if (!(number >= rangeLow && number <= rangeHigh)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // both sorted
+        private static boolean containsAll(final String[] values, final String[] subset) {
+            for (final String value : subset) {
+                if (Arrays.binarySearch(values, value) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String[] sorted(final List<String> values) {
+            return values == null ? new String[0] : new TreeSet<>(values).toArray(new String[0]);
+        }
+
+        private static boolean intersect(final String[] a, final String[] b) {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                final int order = a[i].compareTo(b[j]);
+                if (order == 0) {
+                    return true;
+                }
+                if (order < 0) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The constraints of every filter on one field, indexed to find the filters a constraint may agree with.
+     */
+    private static final class FieldIndex {
+        private final BitSet constrained = new BitSet();
+        // neq only, agrees with nearly anything
+        private final BitSet open = new BitSet();
+        private final Map<String, BitSet> eqPostings = new HashMap<>();
+        private final List<double[]> pendingNumbers = new ArrayList<>();
+        private final List<double[]> pendingIntervals = new ArrayList<>();
+        private double[] numbers;
+        private int[] numberFilters;
+        private IntervalTree intervals;
+
+        private void add(final int filter, final Constraint constraint) {
+            constrained.set(filter);
+            if (constraint.eq != null) {
+                for (int i = 0; i < constraint.eq.length; i++) {
+                    eqPostings.computeIfAbsent(constraint.eq[i], value -> new BitSet()).set(filter);
+                    if (!Double.isNaN(constraint.eqNumbers[i])) {
+                        pendingNumbers.add(new double[] {constraint.eqNumbers[i], filter});
+                    }
+                }
+            } else if (constraint.hasRange) {
+                pendingIntervals.add(new double[] {constraint.low, constraint.high, filter});
+            } else {
+                open.set(filter);
+            }
+        }
+
+        private void freeze() {
+            pendingNumbers.sort((a, b) -> Double.compare(a[0], b[0]));
+            numbers = new double[pendingNumbers.size()];
+            numberFilters = new int[pendingNumbers.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = pendingNumbers.get(i)[0];
+                numberFilters[i] = (int) pendingNumbers.get(i)[1];
+            }
+            intervals = new IntervalTree(pendingIntervals);
+            pendingNumbers.clear();
+            pendingIntervals.clear();
+        }
+
+        /**
+         * Clears from {@code candidates} the filters whose constraint on this field certainly disagrees with {@code constraint}.
+         */
+        private void retainCompatible(final Constraint constraint, final int count, final BitSet candidates) {
+            if (constraint.repeated || (constraint.eq == null && !constraint.hasRange)) {
+                return;
+            }
+            final BitSet compatible = new BitSet(count);
+            compatible.set(0, count);
+            compatible.andNot(constrained);
+            compatible.or(open);
+            if (constraint.eq != null) {
+                for (int i = 0; i < constraint.eq.length; i++) {
+                    final BitSet postings = eqPostings.get(constraint.eq[i]);
+                    if (postings != null) {
+                        compatible.or(postings);
+                    }
+                    if (!Double.isNaN(constraint.eqNumbers[i])) {
+                        intervals.overlapping(constraint.eqNumbers[i], constraint.eqNumbers[i], compatible);
+                    }
+                }
+            } else {
+                intervals.overlapping(constraint.low, constraint.high, compatible);
+                int i = lowerBound(numbers, constraint.low);
+                for (; i < numbers.length && numbers[i] <= constraint.high; i++) {
+                    compatible.set(numberFilters[i]);
+                }
+            }
+            candidates.and(compatible);
+        }
+
+        private static int lowerBound(final double[] values, final double key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (values[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Static interval tree: intervals sorted by low end in an implicit balanced tree whose nodes know the highest end below them,
+     * so a query only descends into subtrees that can hold an overlapping interval.
+     */
+    private static final class IntervalTree {
+        private final double[] lows;
+        private final double[] highs;
+        private final double[] maxHighs;
+        private final int[] filters;
+
+        private IntervalTree(final List<double[]> intervals) {
+            intervals.sort((a, b) -> Double.compare(a[0], b[0]));
+            final int size = intervals.size();
+            this.lows = new double[size];
+            this.highs = new double[size];
+            this.maxHighs = new double[size];
+            this.filters = new int[size];
+            for (int i = 0; i < size; i++) {
+                lows[i] = intervals.get(i)[0];
+                highs[i] = intervals.get(i)[1];
+                filters[i] = (int) intervals.get(i)[2];
+            }
+            maxHigh(0, size);
+        }
+
+        private double maxHigh(final int from, final int to) {
+            if (from >= to) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            final int middle = (from + to) >>> 1;
+            maxHighs[middle] = Math.max(highs[middle], Math.max(maxHigh(from, middle), maxHigh(middle + 1, to)));
+            return maxHighs[middle];
+        }
+
+        /**
+         * Sets the filters of the intervals overlapping [low, high].
+         */
+        private void overlapping(final double low, final double high, final BitSet result) {
+            overlapping(0, lows.length, low, high, result);
+        }
+
+        private void overlapping(final int from, final int to, final double low, final double high, final BitSet result) {
+            if (from >= to) {
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            if (maxHighs[middle] < low) {
+                return;
+            }
+            overlapping(from, middle, low, high, result);
+            if (lows[middle] > high) {
+                return;
+            }
+            if (highs[middle] >= low) {
+                result.set(filters[middle]);
+            }
+            overlapping(middle + 1, to, low, high, result);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.FindingsFilterListItem;
+import software.amazon.awssdk.services.macie2.model.GetFindingsFilterRequest;
+import software.amazon.awssdk.services.macie2.model.GetFindingsFilterResponse;
+import software.amazon.awssdk.services.macie2.model.ListFindingsFiltersRequest;
+import software.amazon.awssdk.services.macie2.model.ListFindingsFiltersResponse;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
+
+/**
+ * Checks every findings filter of an account against the models a set of stacks asks for in one pass, instead of one Read per
+ * resource through CloudFormation drift detection. All filters are listed, the ones a desired model refers to are read with up to
+ * {@code parallelism} GetFindingsFilter calls in flight, and each pair is compared by {@link ReadHandler#fingerprint(ResourceModel)}.
+ * <p>
+ * A desired model refers to the filter with its id, or when it has none to the filter with its name, names being unique in an account.
+ * Action and position left out of a desired model are whatever Macie assigned, so they don't count as drift. Two desired models
+ * that refer to the same filter, or ask for the same name, are reported as duplicates instead of being compared.
+ */
+public final class FindingsFilterDriftSweeper {
+
+    public static final int DEFAULT_PARALLELISM = 10;
+    private static final int MAX_LIST_RESULTS = 50;
+
+    private final Macie2Client client;
+    private final int parallelism;
+
+    public FindingsFilterDriftSweeper() {
+        this(ClientBuilder.getClient(), DEFAULT_PARALLELISM);
+    }
+
+    public FindingsFilterDriftSweeper(final Macie2Client client, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.client = client;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param desired the models to compare, usually every AWS::Macie::FindingsFilter of the stacks in the account and region
+     * @throws software.amazon.awssdk.services.macie2.model.Macie2Exception when a call fails, after the SDK retries
+     */
+    public Report sweep(final Collection<ResourceModel> desired) {
+        final Map<String, FindingsFilterListItem> listed = new LinkedHashMap<>();
+        final Map<String, String> idsByName = new HashMap<>();
+        String nextToken = null;
+        do {
+            final ListFindingsFiltersResponse page = client.listFindingsFilters(ListFindingsFiltersRequest.builder()
+                .maxResults(MAX_LIST_RESULTS)
+                .nextToken(nextToken)
+                .build());
+            for (final FindingsFilterListItem item : page.findingsFilterListItems()) {
+                listed.put(item.id(), item);
+                idsByName.put(item.name(), item.id());
+            }
+            nextToken = page.nextToken();
+        } while (nextToken != null);
+
+        final Report report = new Report();
+        final Map<String, ResourceModel> managed = new LinkedHashMap<>();
+        final Set<String> ids = new HashSet<>();
+        final Set<String> names = new HashSet<>();
+        for (final ResourceModel model : desired) {
+            final String id = model.getId() != null ? model.getId() : idsByName.get(model.getName());
+            final boolean duplicateId = id != null && !ids.add(id);
+            // names are unique in an account, so two models asking for one can't both be in sync
+            final boolean duplicateName = model.getName() != null && !names.add(model.getName());
+            if (duplicateId || duplicateName) {
+                report.duplicates.add(model);
+            } else if (id == null || !listed.containsKey(id)) {
+                report.missing.add(model);
+            } else {
+                managed.put(id, model);
+            }
+        }
+        for (final FindingsFilterListItem item : listed.values()) {
+            if (!managed.containsKey(item.id())) {
+                report.unmanaged.add(ResourceModel.builder().id(item.id()).arn(item.arn()).name(item.name()).build());
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, managed.size())));
+        try {
+            final List<Future<GetFindingsFilterResponse>> reads = new ArrayList<>(managed.size());
+            for (final String id : managed.keySet()) {
+                reads.add(executor.submit(() -> read(id)));
+            }
+            int i = 0;
+            for (final ResourceModel model : managed.values()) {
+                final GetFindingsFilterResponse response = join(reads.get(i++));
+                if (response == null) {
+                    // deleted between the list and the read
+                    report.missing.add(model);
+                } else {
+                    final ResourceModel actual = ResourceModel.builder().id(response.id()).build();
+                    report.compare(model, ReadHandler.translateFromReadResponse(actual, response));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    private GetFindingsFilterResponse read(final String id) {
+        try {
+            return client.getFindingsFilter(GetFindingsFilterRequest.builder().id(id).build());
+        } catch (final ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static <T> T join(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while reading findings filters", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Outcome of a sweep. Desired models keep the order they were given in, unmanaged filters are in list order.
+     */
+    public static final class Report {
+        private final List<String> inSync = new ArrayList<>();
+        private final List<Drift> drifted = new ArrayList<>();
+        private final List<ResourceModel> missing = new ArrayList<>();
+        private final List<ResourceModel> unmanaged = new ArrayList<>();
+        private final List<ResourceModel> duplicates = new ArrayList<>();
+
+        private void compare(final ResourceModel desired, final ResourceModel actual) {
+            // what the template leaves to Macie is whatever Macie chose
+            final ResourceModel expected = ResourceModel.builder()
+                .name(desired.getName())
+                .description(desired.getDescription())
+                .action(desired.getAction() != null ? desired.getAction() : actual.getAction())
+                .position(desired.getPosition() != null ? desired.getPosition() : actual.getPosition())
+                .findingCriteria(desired.getFindingCriteria())
+                .build();
+            final String expectedFingerprint = ReadHandler.fingerprint(expected);
+            final String actualFingerprint = ReadHandler.fingerprint(actual);
+            if (expectedFingerprint.equals(actualFingerprint)) {
+                inSync.add(actual.getId());
+            } else {
+                drifted.add(new Drift(desired, actual, expectedFingerprint, actualFingerprint));
+            }
+        }
+
+        /**
+         * Ids of the filters that hold what their desired model asks for.
+         */
+        public List<String> inSync() {
+            return Collections.unmodifiableList(inSync);
+        }
+
+        public List<Drift> drifted() {
+            return Collections.unmodifiableList(drifted);
+        }
+
+        /**
+         * Desired models whose filter doesn't exist, deleted outside CloudFormation.
+         */
+        public List<ResourceModel> missing() {
+            return Collections.unmodifiableList(missing);
+        }
+
+        /**
+         * Filters no desired model refers to, with the id, ARN and name the list gives.
+         */
+        public List<ResourceModel> unmanaged() {
+            return Collections.unmodifiableList(unmanaged);
+        }
+
+        /**
+         * Desired models that refer to the same filter as, or ask for the name of, a model before them. Only the first is compared.
+         */
+        public List<ResourceModel> duplicates() {
+            return Collections.unmodifiableList(duplicates);
+        }
+    }
+
+    /**
+     * A filter that exists but differs from its desired model.
+     */
+    public static final class Drift {
+        private final ResourceModel desired;
+        private final ResourceModel actual;
+        private final String expectedFingerprint;
+        private final String actualFingerprint;
+
+        private Drift(final ResourceModel desired, final ResourceModel actual, final String expectedFingerprint,
+            final String actualFingerprint) {
+            this.desired = desired;
+            this.actual = actual;
+            this.expectedFingerprint = expectedFingerprint;
+            this.actualFingerprint = actualFingerprint;
+        }
+
+        public ResourceModel desired() {
+            return desired;
+        }
+
+        public ResourceModel actual() {
+            return actual;
+        }
+
+        public String expectedFingerprint() {
+            return expectedFingerprint;
+        }
+
+        public String actualFingerprint() {
+            return actualFingerprint;
+        }
+
+        @Override
+        public String toString() {
+            return actual.getId() + " " + expectedFingerprint + " != " + actualFingerprint;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package software.amazon.macie.findingsfilter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import software.amazon.awssdk.services.macie2.model.FindingsFilterAction;
+
+/**
+ * Runs all the findings filters of an account over a findings export the way Macie applies them: in {@code Position} order, a finding
+ * archived by a filter is not seen by the filters after it. Each finding is read once, with the union of the paths every filter
+ * needs, and walked down the filters until one archives it.
+ * <p>
+ * For each filter the report counts the findings it claims first (no earlier filter matched them) and all the findings it matches
+ * among those still visible to it.
+ * <p>
+ * Exports are read through {@link FindingsExport}: plain JSON lines exports are evaluated in parallel chunks and must hold one finding
+ * per line, gzipped exports are read in a single pass on the calling thread.
+ */
+final class FindingsFilterProgram {
+
+    // Macie numbers positions from 1, a filter without one is sorted last
+    static final Comparator<ResourceModel> POSITION_ORDER = Comparator.comparing(ResourceModel::getPosition,
+        Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<ResourceModel> filters;
+    private final FindingCriteriaEvaluator[] evaluators;
+    private final boolean[] archives;
+    private final FindingFieldReader reader;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    FindingsFilterProgram(final Collection<ResourceModel> filters) {
+        this(filters, ForkJoinPool.commonPool(), FindingsExport.DEFAULT_CHUNK_SIZE);
+    }
+
+    FindingsFilterProgram(final Collection<ResourceModel> filters, final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        final List<ResourceModel> ordered = new ArrayList<>(filters);
+        ordered.sort(POSITION_ORDER);
+        final List<FindingCriteria> criteria = new ArrayList<>(ordered.size());
+        for (final ResourceModel filter : ordered) {
+            criteria.add(filter.getFindingCriteria());
+        }
+        final List<FindingCriteriaEvaluator> compiled = FindingCriteriaEvaluator.compileAll(criteria);
+        this.filters = Collections.unmodifiableList(ordered);
+        this.evaluators = compiled.toArray(new FindingCriteriaEvaluator[0]);
+        this.archives = new boolean[ordered.size()];
+        for (int i = 0; i < archives.length; i++) {
+            archives[i] = FindingsFilterAction.ARCHIVE.toString().equals(ordered.get(i).getAction());
+        }
+        this.reader = compiled.isEmpty() ? FindingCriteriaEvaluator.compile((FindingCriteria) null).reader() : compiled.get(0).reader();
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * The filters in the order they apply, the order of the counts in a {@link Report}.
+     */
+    List<ResourceModel> filters() {
+        return filters;
+    }
+
+    /**
+     * @throws UncheckedIOException if the file cannot be read or is not valid JSON
+     * @throws IllegalArgumentException if a finding is not a JSON object
+     */
+    Report evaluate(final Path export) {
+        return FindingsExport.evaluate(export, pool, chunkSize, this::evaluate, Report::add);
+    }
+
+    /**
+     * @param input a sequence of finding objects; not closed
+     * @throws IllegalArgumentException if a finding is not a JSON object
+     */
+    Report evaluate(final InputStream input) {
+        try (JsonParser parser = FindingCriteriaEvaluator.JSON.createParser(input)) {
+            return evaluate(parser);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Report evaluate(final JsonParser parser) throws IOException {
+        final Report report = new Report(filters.size());
+        final FindingFieldReader.FieldValues values = reader.newValues();
+        for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("expected a finding object, found " + token);
+            }
+            reader.read(parser, values);
+            report.findings++;
+            boolean claimed = false;
+            for (int i = 0; i < evaluators.length; i++) {
+                if (evaluators[i].test(values)) {
+                    report.matched[i]++;
+                    if (!claimed) {
+                        report.claimed[i]++;
+                        claimed = true;
+                    }
+                    if (archives[i]) {
+                        report.archived++;
+                        break;
+                    }
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Per filter counts, in {@link #filters()} order.
+     */
+    static final class Report {
+        private final long[] claimed;
+        private final long[] matched;
+        private long findings;
+        private long archived;
+
+        private Report(final int filters) {
+            this.claimed = new long[filters];
+            this.matched = new long[filters];
+        }
+
+        private Report add(final Report other) {
+            for (int i = 0; i < claimed.length; i++) {
+                claimed[i] += other.claimed[i];
+                matched[i] += other.matched[i];
+            }
+            findings += other.findings;
+            archived += other.archived;
+            return this;
+        }
+
+        long findings() {
+            return findings;
+        }
+
+        /**
+         * Findings an ARCHIVE filter hides.
+         */
+        long archived() {
+            return archived;
+        }
+
+        /**
+         * Findings this filter is the first to match.
+         */
+        long claimed(final int filter) {
+            return claimed[filter];
+        }
+
+        /**
+         * Findings this filter matches that no earlier filter archived.
+         */
+        long matched(final int filter) {
+            return matched[filter];
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package software.amazon.macie.findingsfilter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar in-memory index of a findings export, built once and queried with any number of finding criteria, for iterating on a
+ * filter without rescanning the export each time.
+ * <p>
+ * Every scalar leaf path of the findings, such as {@code severity.description}, gets a column. Strings are dictionary encoded: each
+ * distinct value of a column is stored once with the set of rows holding it, a sorted row list while it is rare and a bitmap once it
+ * is common. Values with a number (see {@link FindingFieldReader}) are also kept as a long column sorted by value, so a range is a
+ * binary search. A query intersects the row sets of its criteria and answers exactly what {@link FindingCriteriaEvaluator} would.
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+final class FindingsIndex {
+
+    private final int size;
+    private final Map<String, Column> columns;
+
+    private FindingsIndex(final int size, final Map<String, Column> columns) {
+        this.size = size;
+        this.columns = columns;
+    }
+
+    /**
+     * Indexes a findings export, gzipped when the file name ends with {@code .gz}.
+     *
+     * @throws UncheckedIOException if the file cannot be read or is not valid JSON
+     */
+    static FindingsIndex build(final Path export) {
+        try (InputStream input = FindingCriteriaEvaluator.open(export)) {
+            return build(input);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param input a sequence of finding objects, usually one per line; not closed
+     * @throws IllegalArgumentException if a finding is not a JSON object
+     */
+    static FindingsIndex build(final InputStream input) {
+        final Loader loader = new Loader();
+        try (JsonParser parser = FindingCriteriaEvaluator.JSON.createParser(input)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("expected a finding object, found " + token);
+                }
+                loader.readObject(parser, loader.root);
+                loader.row++;
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (final Column column : loader.columns.values()) {
+            column.freeze(loader.row);
+        }
+        return new FindingsIndex(loader.row, Collections.unmodifiableMap(loader.columns));
+    }
+
+    /**
+     * Number of findings indexed, rows are numbered from 0 in export order.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param criteria null selects every finding
+     * @return the rows of the findings the criteria match
+     */
+    BitSet select(final FindingCriteria criteria) {
+        final BitSet rows = new BitSet(size);
+        rows.set(0, size);
+        final Map<String, CriterionAdditionalProperties> criterion = criteria == null || criteria.getCriterion() == null
+            ? Collections.emptyMap() : criteria.getCriterion();
+        for (final Map.Entry<String, CriterionAdditionalProperties> entry : criterion.entrySet()) {
+            if (entry.getValue() != null) {
+                apply(columns.get(entry.getKey()), entry.getValue(), rows);
+                if (rows.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        return rows;
+    }
+
+    int count(final FindingCriteria criteria) {
+        return select(criteria).cardinality();
+    }
+
+    // a field no finding has fails eq and ranges and passes neq, like a missing field in FindingCriteriaEvaluator
+    private void apply(final Column column, final CriterionAdditionalProperties properties, final BitSet rows) {
+        if (properties.getEq() != null && !properties.getEq().isEmpty()) {
+            if (column == null) {
+                rows.clear();
+                return;
+            }
+            rows.and(column.union(properties.getEq(), size));
+        }
+        if (properties.getNeq() != null && !properties.getNeq().isEmpty() && column != null) {
+            rows.andNot(column.union(properties.getNeq(), size));
+        }
+        if (properties.getGt() != null || properties.getGte() != null || properties.getLt() != null || properties.getLte() != null) {
+            if (column == null) {
+                rows.clear();
+                return;
+            }
+            rows.and(column.range(properties, size));
+        }
+    }
+
+    /**
+     * The smallest number the range operators accept. As in FindingCriteriaEvaluator a value must be above an absent lower bound,
+     * which leaves out negative infinity.
+     */
+    static double lowest(final CriterionAdditionalProperties properties) {
+        return Math.max(Math.nextUp(properties.getGt() == null ? Double.NEGATIVE_INFINITY : properties.getGt()),
+            properties.getGte() == null ? Double.NEGATIVE_INFINITY : properties.getGte());
+    }
+
+    /**
+     * The largest number the range operators accept, below positive infinity.
+     */
+    static double highest(final CriterionAdditionalProperties properties) {
+        return Math.min(Math.nextDown(properties.getLt() == null ? Double.POSITIVE_INFINITY : properties.getLt()),
+            properties.getLte() == null ? Double.POSITIVE_INFINITY : properties.getLte());
+    }
+
+    /**
+     * Reads the findings into columns, one trie node per path so field names are only hashed, not concatenated, per value.
+     */
+    private static final class Loader {
+        private final Node root = new Node(null);
+        private final Map<String, Column> columns = new HashMap<>();
+        private int row;
+
+        private void readObject(final JsonParser parser, final Node node) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                Node child = node.children.get(name);
+                if (child == null) {
+                    child = new Node(node.path == null ? name : node.path + '.' + name);
+                    node.children.put(name, child);
+                }
+                readValue(parser, parser.nextToken(), child);
+            }
+        }
+
+        private void readValue(final JsonParser parser, final JsonToken token, final Node node) throws IOException {
+            switch (token) {
+                case START_OBJECT:
+                    readObject(parser, node);
+                    break;
+                case START_ARRAY:
+                    for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                        readValue(parser, element, node);
+                    }
+                    break;
+                case VALUE_NULL:
+                    break;
+                default:
+                    if (node.column == null) {
+                        node.column = new Column();
+                        columns.put(node.path, node.column);
+                    }
+                    node.column.add(row, parser.getText(), FindingFieldReader.number(parser, token));
+                    break;
+            }
+        }
+    }
+
+    private static final class Node {
+        private final String path;
+        private final Map<String, Node> children = new HashMap<>();
+        private Column column;
+
+        private Node(final String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * The values of one path: a dictionary of the distinct strings to their rows, and the numbers sorted with their rows.
+     */
+    private static final class Column {
+        private final Map<String, RowSet> dictionary = new HashMap<>();
+        private long[] keys = new long[16];
+        private int[] keyRows = new int[16];
+        private int keyCount;
+
+        private void add(final int row, final String text, final double number) {
+            dictionary.computeIfAbsent(text, key -> new RowSet()).add(row);
+            if (!Double.isNaN(number)) {
+                if (keyCount == keys.length) {
+                    keys = Arrays.copyOf(keys, keyCount * 2);
+                    keyRows = Arrays.copyOf(keyRows, keyCount * 2);
+                }
+                keys[keyCount] = sortable(number);
+                keyRows[keyCount] = row;
+                keyCount++;
+            }
+        }
+
+        private void freeze(final int size) {
+            for (final RowSet rows : dictionary.values()) {
+                rows.freeze(size);
+            }
+            final Integer[] order = new Integer[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+            final long[] sortedKeys = new long[keyCount];
+            final int[] sortedRows = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                sortedKeys[i] = keys[order[i]];
+                sortedRows[i] = keyRows[order[i]];
+            }
+            keys = sortedKeys;
+            keyRows = sortedRows;
+        }
+
+        private BitSet union(final List<String> values, final int size) {
+            final BitSet union = new BitSet(size);
+            for (final String value : values) {
+                final RowSet rows = dictionary.get(value);
+                if (rows != null) {
+                    rows.orInto(union);
+                }
+            }
+            return union;
+        }
+
+        /**
+         * Rows with a number within all the bounds.
+         */
+        private BitSet range(final CriterionAdditionalProperties properties, final int size) {
+            final double low = lowest(properties);
+            final double high = highest(properties);
+            final BitSet rows = new BitSet(size);
+            if (low > high) {
+                return rows;
+            }
+            final long highKey = sortable(high);
+            for (int i = lowerBound(sortable(low)); i < keys.length && keys[i] <= highKey; i++) {
+                rows.set(keyRows[i]);
+            }
+            return rows;
+        }
+
+        private int lowerBound(final long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (keys[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // a long that sorts like the double, -0.0 folded into 0.0 since they compare equal
+        private static long sortable(final double number) {
+            final long bits = Double.doubleToLongBits(number + 0.0);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Rows holding one value: appended in increasing order, kept as a sorted array unless a bitmap is smaller.
+     */
+    private static final class RowSet {
+        private int[] rows = new int[2];
+        private int count;
+        private BitSet bitmap;
+
+        private void add(final int row) {
+            // the same value twice in one finding, through an array
+            if (count > 0 && rows[count - 1] == row) {
+                return;
+            }
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = row;
+        }
+
+        // a bitmap takes size / 8 bytes against 4 per row in the array
+        private void freeze(final int size) {
+            if (count > size / 32) {
+                bitmap = new BitSet(size);
+                for (int i = 0; i < count; i++) {
+                    bitmap.set(rows[i]);
+                }
+                rows = null;
+            } else {
+                rows = Arrays.copyOf(rows, count);
+            }
+        }
+
+        private void orInto(final BitSet union) {
+            if (bitmap != null) {
+                union.or(bitmap);
+            } else {
+                for (final int row : rows) {
+                    union.set(row);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Incremental 128 bit content hash, for comparing resources by one short string instead of field by field. Every value is fed with a
+ * tag naming the field and its length, so two different sequences of fields don't feed the same characters; collections are fed
+ * sorted and without duplicates, and null and empty values are both left out.
+ * <p>
+ * Two 64 bit lanes, FNV-1a and a multiply-rotate one, are mixed together when the hash is read. It's meant to tell resources apart,
+ * not to resist someone crafting collisions. The encoding is stable across processes and versions of this class should keep it so.
+ */
+final class Fingerprint {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private long h1 = 0xcbf29ce484222325L;
+    private long h2 = 0x9e3779b97f4a7c15L;
+
+    Fingerprint add(final char tag, final String value) {
+        if (value != null && !value.isEmpty()) {
+            mix(tag);
+            mixString(value);
+        }
+        return this;
+    }
+
+    Fingerprint add(final char tag, final Number value) {
+        return value == null ? this : add(tag, value.toString());
+    }
+
+    /**
+     * Feeds the distinct values in natural order, so the order and repeats of the collection don't change the hash.
+     */
+    Fingerprint addAll(final char tag, final Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return this;
+        }
+        final TreeSet<String> sorted = new TreeSet<>(values);
+        mix(tag);
+        mixLength(sorted.size());
+        for (final String value : sorted) {
+            mixString(value);
+        }
+        return this;
+    }
+
+    /**
+     * @return the hash as 32 lowercase hex digits
+     */
+    @Override
+    public String toString() {
+        long a = h1 + h2;
+        long b = h2 + a;
+        a = fmix(a);
+        b = fmix(b);
+        a += b;
+        b += a;
+        return String.format("%016x%016x", a, b);
+    }
+
+    private void mixString(final String value) {
+        mixLength(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            mix(value.charAt(i));
+        }
+    }
+
+    private void mixLength(final int length) {
+        mix((char) (length >>> 16));
+        mix((char) length);
+    }
+
+    private void mix(final char c) {
+        h1 = ((h1 ^ (c >>> 8)) * FNV_PRIME ^ (c & 0xFF)) * FNV_PRIME;
+        h2 = Long.rotateLeft(h2 ^ (c * C1), 31) * C2;
+    }
+
+    // MurmurHash3 finalizer
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
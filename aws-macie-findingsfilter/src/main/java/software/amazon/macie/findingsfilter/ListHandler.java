@@ -10,13 +10,39 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 public class ListHandler extends BaseMacieFindingFilterHandler {
 
     protected static final String OPERATION = "macie2::ListFindingsFilters";
     private static final int MAX_LIST_RESULTS = 50;
+    // Set to "true" to follow nextToken within a single invocation
+    protected static final String AGGREGATE_PAGES_ENV = "MACIE_LIST_AGGREGATE_PAGES";
+    // Milliseconds of the invocation that page aggregation may use
+    protected static final String AGGREGATE_TIME_BUDGET_ENV = "MACIE_LIST_AGGREGATE_TIME_BUDGET_MS";
+    // Handler timeout is 60 seconds, leave most of it for the wrapper and the response round trip
+    private static final Duration DEFAULT_AGGREGATE_TIME_BUDGET = Duration.ofSeconds(20);
+    // Keeps the progress event well under the handler response size limit
+    protected static final int MAX_AGGREGATED_ITEMS = 1000;
+
+    private final boolean aggregatePages;
+    private final Duration timeBudget;
+    private final int maxItems;
+    private final LongSupplier nanoClock;
+
+    public ListHandler() {
+        this(Boolean.parseBoolean(System.getenv(AGGREGATE_PAGES_ENV)), aggregateTimeBudget(), MAX_AGGREGATED_ITEMS, System::nanoTime);
+    }
+
+    ListHandler(final boolean aggregatePages, final Duration timeBudget, final int maxItems, final LongSupplier nanoClock) {
+        this.aggregatePages = aggregatePages;
+        this.timeBudget = timeBudget;
+        this.maxItems = maxItems;
+        this.nanoClock = nanoClock;
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -37,13 +63,47 @@ public class ListHandler extends BaseMacieFindingFilterHandler {
                 .nextToken(request.getNextToken())
                 .build())
             // Make a service call. Handler does not worry about credentials, they are auto injected
-            .makeServiceCall((r, c) -> c.injectCredentialsAndInvokeV2(r, c.client()::listFindingsFilters))
+            .makeServiceCall(this::listFindingsFilters)
             // return appropriate failed progress event status by mapping business exceptions.
             .handleError((_request, _exception, _client, _model, _context) -> handleError(OPERATION, request, _exception, _model, _context, logger))
             // build model from successful response
             .done(this::buildModelFromResponse);
     }
 
+    @Override
+    protected boolean retriesWithCallbackDelay() {
+        return false;
+    }
+
+    private ListFindingsFiltersResponse listFindingsFilters(ListFindingsFiltersRequest request, ProxyClient<Macie2Client> client) {
+        final long start = nanoClock.getAsLong();
+        final ListFindingsFiltersResponse firstPage = client.injectCredentialsAndInvokeV2(request, client.client()::listFindingsFilters);
+        if (!aggregatePages) {
+            return firstPage;
+        }
+
+        final long deadline = start + timeBudget.toNanos();
+        final List<software.amazon.awssdk.services.macie2.model.FindingsFilterListItem> items
+            = new ArrayList<>(firstPage.findingsFilterListItems());
+        String nextToken = firstPage.nextToken();
+        long lastPageNanos = nanoClock.getAsLong() - start;
+        // only start a page if it fits both the item limit and, judging by the last page, the time budget
+        while (nextToken != null && items.size() + MAX_LIST_RESULTS <= maxItems && nanoClock.getAsLong() + lastPageNanos < deadline) {
+            final long pageStart = nanoClock.getAsLong();
+            final ListFindingsFiltersResponse page = client.injectCredentialsAndInvokeV2(request.toBuilder().nextToken(nextToken).build(),
+                client.client()::listFindingsFilters);
+            items.addAll(page.findingsFilterListItems());
+            nextToken = page.nextToken();
+            lastPageNanos = nanoClock.getAsLong() - pageStart;
+        }
+        return firstPage.toBuilder().findingsFilterListItems(items).nextToken(nextToken).build();
+    }
+
+    private static Duration aggregateTimeBudget() {
+        final String budget = System.getenv(AGGREGATE_TIME_BUDGET_ENV);
+        return budget == null ? DEFAULT_AGGREGATE_TIME_BUDGET : Duration.ofMillis(Long.parseLong(budget));
+    }
+
     private ProgressEvent<ResourceModel, CallbackContext> buildModelFromResponse(ListFindingsFiltersRequest request,
         ListFindingsFiltersResponse response,
         ProxyClient<Macie2Client> clientProxyClient, ResourceModel model, CallbackContext context) {
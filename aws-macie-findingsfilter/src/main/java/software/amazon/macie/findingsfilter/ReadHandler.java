@@ -13,6 +13,19 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public class ReadHandler extends BaseMacieFindingFilterHandler {
     protected static final String OPERATION = "macie2::GetFindingsFilter";
 
+    private final boolean retriesWithCallbackDelay;
+
+    public ReadHandler() {
+        this(false);
+    }
+
+    /**
+     * @param retriesWithCallbackDelay true when the read finishes a create or update, which may come back after a callback delay
+     */
+    ReadHandler(final boolean retriesWithCallbackDelay) {
+        this.retriesWithCallbackDelay = retriesWithCallbackDelay;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -37,18 +50,46 @@ public class ReadHandler extends BaseMacieFindingFilterHandler {
             .done(this::buildModelFromResponse);
     }
 
+    @Override
+    protected boolean retriesWithCallbackDelay() {
+        return retriesWithCallbackDelay;
+    }
+
+    /**
+     * Content fingerprint of a findings filter: 32 hex digits over its name, description, action, position and the canonical form of
+     * its finding criteria. A desired model and the model this handler reads fingerprint the same when Macie holds what the model
+     * asks for, so a drift check over many filters can compare one string per filter. The id and ARN are left out; a desired model
+     * without a position takes the one Macie assigned before comparing.
+     */
+    public static String fingerprint(final ResourceModel model) {
+        final Fingerprint fingerprint = new Fingerprint()
+            .add('N', model.getName())
+            .add('D', model.getDescription())
+            .add('A', model.getAction())
+            .add('P', model.getPosition());
+        return FindingCriteriaOptimizer.fingerprint(model.getFindingCriteria(), fingerprint).toString();
+    }
+
     private ProgressEvent<ResourceModel, CallbackContext> buildModelFromResponse(final GetFindingsFilterRequest request,
         final GetFindingsFilterResponse response, final ProxyClient<Macie2Client> clientProxyClient, final ResourceModel model,
         final CallbackContext callbackContext) {
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            .resourceModel(translateFromReadResponse(model, response))
+            .status(OperationStatus.SUCCESS)
+            .build();
+    }
+
+    /**
+     * Sets the properties a GetFindingsFilter response holds on {@code model}, all but the id.
+     * @return {@code model}
+     */
+    static ResourceModel translateFromReadResponse(final ResourceModel model, final GetFindingsFilterResponse response) {
         model.setDescription(response.description());
         model.setName(response.name());
         model.setAction(response.actionAsString());
         model.setArn(response.arn());
         model.setPosition(response.position());
-        model.setFindingCriteria(cfnModelFindingCriteria(response.findingCriteria()));
-        return ProgressEvent.<ResourceModel, CallbackContext>builder()
-            .resourceModel(model)
-            .status(OperationStatus.SUCCESS)
-            .build();
+        model.setFindingCriteria(FindingCriteriaTranslator.toModel(response.findingCriteria()));
+        return model;
     }
 }
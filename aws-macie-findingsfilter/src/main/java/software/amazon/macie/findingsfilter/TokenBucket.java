@@ -0,0 +1,55 @@
+package software.amazon.macie.findingsfilter;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Client side rate limit for retries. Static instances are shared by every invocation served by the same warm container, so a burst of
+ * throttled requests spreads its retries out instead of sending them all back at once.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(final int capacity, final Duration refillInterval) {
+        this(capacity, refillInterval, System::nanoTime);
+    }
+
+    TokenBucket(final int capacity, final Duration refillInterval, final LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = 1.0 / refillInterval.toNanos();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token, going into debt when the bucket is empty.
+     *
+     * @return how long the caller should wait before using the token, {@link Duration#ZERO} when one was available
+     */
+    synchronized Duration acquire() {
+        refill();
+        tokens -= 1;
+        return tokens >= 0 ? Duration.ZERO : Duration.ofNanos((long) Math.ceil(-tokens / tokensPerNano));
+    }
+
+    synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        final long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -10,6 +10,14 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public class UpdateHandler extends BaseMacieFindingFilterHandler {
 
     protected static final String OPERATION = "macie2::updateFindingsFilter";
+    private static final String NO_CHANGES_MESSAGE = "No changes to findings filter [%s] for AWS account id [%s], skipping update.";
+
+    public UpdateHandler() {
+    }
+
+    UpdateHandler(final boolean optimizeCriteria) {
+        super(optimizeCriteria);
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -20,11 +28,22 @@ public class UpdateHandler extends BaseMacieFindingFilterHandler {
         final Logger logger
     ) {
         final ResourceModel model = request.getDesiredResourceState();
+        final ResourceModel previousModel = request.getPreviousResourceState();
+
+        // Nothing to update, previous state already holds the read-only properties.
+        if (sameWritableProperties(model, previousModel)) {
+            logger.log(String.format(NO_CHANGES_MESSAGE, previousModel.getId(), request.getAwsAccountId()));
+            model.setId(previousModel.getId());
+            model.setArn(previousModel.getArn());
+            // report the criteria the way an update and a read return them
+            model.setFindingCriteria(sentFindingCriteria(model));
+            return ProgressEvent.defaultSuccessHandler(model);
+        }
 
         // initiate the call context.
         return proxy.initiate(OPERATION, client, model, callbackContext)
             // transform Resource model properties to UpdateFindingsFilter API
-            .translateToServiceRequest(this::updateFindingFilterRequest)
+            .translateToServiceRequest((m) -> updateFindingFilterRequest(m, previousModel))
             // Make a service call. Handler does not worry about credentials, they are auto injected
             .makeServiceCall((r, c) -> c.injectCredentialsAndInvokeV2(r, c.client()::updateFindingsFilter))
             // return appropriate failed progress event status by mapping business exceptions.
@@ -32,7 +51,7 @@ public class UpdateHandler extends BaseMacieFindingFilterHandler {
             // Once ACTIVE return progress
             .progress()
             // we then delegate to ReadHandler to read the live state and send back successful response.
-            .then((r) -> new ReadHandler()
+            .then((r) -> new ReadHandler(true)
                 .handleRequest(proxy, request, callbackContext, client, logger));
     }
 }
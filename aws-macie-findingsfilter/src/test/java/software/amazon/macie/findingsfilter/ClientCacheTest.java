@@ -0,0 +1,85 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+
+public class ClientCacheTest {
+
+    private static final String REGION = "us-east-1";
+    private static final String OTHER_REGION = "us-west-2";
+    private static final String ENDPOINT = "https://macie2.us-east-1.amazonaws.com";
+
+    private final AtomicLong clock = new AtomicLong();
+    private ClientCache<Macie2Client> cache;
+
+    @BeforeEach
+    public void setup() {
+        clock.set(0);
+        cache = new ClientCache<>(2, Duration.ofMinutes(1), clock::get);
+    }
+
+    @Test
+    public void get_ReusesClientForSameRegionAndEndpoint() {
+        final Macie2Client client = mock(Macie2Client.class);
+
+        assertThat(cache.get(REGION, null, () -> client)).isSameAs(client);
+        assertThat(cache.get(REGION, null, () -> mock(Macie2Client.class))).isSameAs(client);
+
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_KeysOnEndpoint() {
+        final Macie2Client client = mock(Macie2Client.class);
+        final Macie2Client endpointClient = mock(Macie2Client.class);
+
+        assertThat(cache.get(REGION, null, () -> client)).isSameAs(client);
+        assertThat(cache.get(REGION, ENDPOINT, () -> endpointClient)).isSameAs(endpointClient);
+
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_EvictsLeastRecentlyUsedWhenFull() {
+        final Macie2Client first = mock(Macie2Client.class);
+        final Macie2Client second = mock(Macie2Client.class);
+        final Macie2Client third = mock(Macie2Client.class);
+
+        cache.get(REGION, null, () -> first);
+        cache.get(OTHER_REGION, null, () -> second);
+        // touch the first client so the second one becomes the eldest
+        cache.get(REGION, null, () -> first);
+        cache.get(REGION, ENDPOINT, () -> third);
+
+        verify(second).close();
+        verify(first, never()).close();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_EvictsIdleClients() {
+        final Macie2Client idle = mock(Macie2Client.class);
+        final Macie2Client fresh = mock(Macie2Client.class);
+
+        cache.get(REGION, null, () -> idle);
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(cache.get(REGION, null, () -> fresh)).isSameAs(fresh);
+        verify(idle).close();
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+        assertThat(cache.toString()).contains("hits=0", "misses=2", "evictions=1");
+    }
+}
@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.macie.findingsfilter.BaseMacieFindingFilterHandler.FILTER_ALREADY_EXISTS;
 import static software.amazon.macie.findingsfilter.BaseMacieFindingFilterHandler.MACIE_NOT_ENABLED;
@@ -81,7 +83,8 @@ public class CreateHandlerTest {
 
 
     @Test
-    public void handleRequest_SimpleSuccess() {
+    public void handleRequest_VerifyWithRead_SimpleSuccess() {
+        handler = new CreateHandler(true);
         GetFindingsFilterResponse findingsFilterResponse = GetFindingsFilterResponse.builder()
             .id(FILTER_ID)
             .arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID))
@@ -135,6 +138,97 @@ public class CreateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_WriteThrough_SkipsRead() {
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(CreateFindingsFilterRequest.class), any())).thenReturn(
+            CreateFindingsFilterResponse.builder().id(FILTER_ID).arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID)).build());
+
+        final ResourceModel positionedModel = ResourceModel.builder()
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .action(FILTER_ACTION)
+            .position(FILTER_POSITION)
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+        final ResourceModel desiredOutputModel = ResourceModel.builder()
+            .id(FILTER_ID)
+            .arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID))
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .action(FILTER_ACTION)
+            .position(FILTER_POSITION)
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(positionedModel)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(desiredOutputModel);
+        assertThat(response.getErrorCode()).isNull();
+        verify(proxyMacie2Client, never()).injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any());
+    }
+
+    @Test
+    public void handleRequest_WriteThrough_NoPosition_ReadsAssignedPosition() {
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(CreateFindingsFilterRequest.class), any())).thenReturn(
+            CreateFindingsFilterResponse.builder().id(FILTER_ID).arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID)).build());
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any())).thenReturn(
+            GetFindingsFilterResponse.builder()
+                .id(FILTER_ID)
+                .name(FILTER_NAME)
+                .action(FILTER_ACTION)
+                .position(FILTER_POSITION)
+                .findingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria.builder().criterion(ImmutableMap.of()).build())
+                .build());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getPosition()).isEqualTo(FILTER_POSITION);
+    }
+
+    @Test
+    public void handleRequest_WriteThrough_NoAction_ReadsAssignedAction() {
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(CreateFindingsFilterRequest.class), any())).thenReturn(
+            CreateFindingsFilterResponse.builder().id(FILTER_ID).arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID)).build());
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any())).thenReturn(
+            GetFindingsFilterResponse.builder()
+                .id(FILTER_ID)
+                .name(FILTER_NAME)
+                .action(FILTER_ACTION)
+                .position(FILTER_POSITION)
+                .findingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria.builder().criterion(ImmutableMap.of()).build())
+                .build());
+
+        final ResourceModel noActionModel = ResourceModel.builder()
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .position(FILTER_POSITION)
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(noActionModel)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getAction()).isEqualTo(FILTER_ACTION);
+        verify(proxyMacie2Client).injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any());
+    }
+
     @Test
     public void handleRequest_AlreadyCreated_Fails() {
         AwsServiceException filterAlreadyCreatedException = Macie2Exception.builder()
@@ -0,0 +1,364 @@
+package software.amazon.macie.findingsfilter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.AccessDeniedException;
+import software.amazon.awssdk.services.macie2.model.ConflictException;
+import software.amazon.awssdk.services.macie2.model.CreateFindingsFilterRequest;
+import software.amazon.awssdk.services.macie2.model.CreateFindingsFilterResponse;
+import software.amazon.awssdk.services.macie2.model.DeleteFindingsFilterRequest;
+import software.amazon.awssdk.services.macie2.model.DeleteFindingsFilterResponse;
+import software.amazon.awssdk.services.macie2.model.EnableMacieRequest;
+import software.amazon.awssdk.services.macie2.model.EnableMacieResponse;
+import software.amazon.awssdk.services.macie2.model.FindingsFilterListItem;
+import software.amazon.awssdk.services.macie2.model.GetFindingsFilterRequest;
+import software.amazon.awssdk.services.macie2.model.GetFindingsFilterResponse;
+import software.amazon.awssdk.services.macie2.model.InternalServerException;
+import software.amazon.awssdk.services.macie2.model.ListFindingsFiltersRequest;
+import software.amazon.awssdk.services.macie2.model.ListFindingsFiltersResponse;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.macie2.model.ThrottlingException;
+import software.amazon.awssdk.services.macie2.model.UpdateFindingsFilterRequest;
+import software.amazon.awssdk.services.macie2.model.UpdateFindingsFilterResponse;
+import software.amazon.awssdk.services.macie2.model.ValidationException;
+
+/**
+ * In-process stand-in for Macie for one account and region, with only the operations the findings filter handlers call. It keeps
+ * whether Macie is enabled and the findings filters in memory, so handlers can run against it unchanged through
+ * {@code proxy.newProxy(() -> fake)}.
+ *
+ * Every operation can be given a latency distribution, a throttling rate and a 5xx rate, either by SDK operation name
+ * (for example {@code CreateFindingsFilter}) or for {@link #ALL_OPERATIONS}. Faults are drawn before the operation touches any
+ * state, the same way a throttled or failed request never reaches the real service. Faults and latencies come from generators with
+ * a fixed seed, so a single threaded test sees the same draws on every run. The client is thread safe.
+ */
+final class FakeMacie2Client implements Macie2Client {
+
+    static final String ALL_OPERATIONS = "*";
+
+    static final String MACIE_NOT_ENABLED = "Macie is not enabled";
+    static final String MACIE_ALREADY_ENABLED = "Macie has already been enabled";
+    static final String FILTER_ALREADY_EXISTS = "Filter name already exists. A unique name is required.";
+
+    private static final String ACCOUNT_ID = "123456789012";
+    private static final String REGION = "us-east-1";
+    private static final long SEED = 42;
+    private static final int DEFAULT_MAX_RESULTS = 50;
+
+    private final Map<String, LongSupplier> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Double> throttleRates = new ConcurrentHashMap<>();
+    private final Map<String, Double> serverErrorRates = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> invocations = new ConcurrentHashMap<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final Random faults = new Random(SEED);
+
+    // guarded by this
+    private boolean macieEnabled;
+    private final NavigableMap<String, GetFindingsFilterResponse> findingsFilters = new TreeMap<>();
+    private final Map<String, String> clientTokens = new HashMap<>();
+
+    /**
+     * @return a fake for an account that already has Macie enabled, which findings filters require
+     */
+    static FakeMacie2Client withMacieEnabled() {
+        final FakeMacie2Client client = new FakeMacie2Client();
+        client.enableMacie(EnableMacieRequest.builder().build());
+        return client;
+    }
+
+    static LongSupplier fixedLatency(final long millis) {
+        return () -> millis;
+    }
+
+    /**
+     * Long tailed latency: the median is {@code medianMillis}, {@code sigma} controls how far p99 sits from it.
+     */
+    static LongSupplier logNormalLatency(final double medianMillis, final double sigma) {
+        final Random random = new Random(SEED);
+        return () -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    FakeMacie2Client withLatency(final String operation, final LongSupplier latencyMillis) {
+        latencies.put(operation, latencyMillis);
+        return this;
+    }
+
+    FakeMacie2Client withThrottleRate(final String operation, final double rate) {
+        throttleRates.put(operation, rate);
+        return this;
+    }
+
+    FakeMacie2Client withServerErrorRate(final String operation, final double rate) {
+        serverErrorRates.put(operation, rate);
+        return this;
+    }
+
+    long invocations(final String operation) {
+        final AtomicLong count = invocations.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    long throttled() {
+        return throttled.get();
+    }
+
+    long serverErrors() {
+        return serverErrors.get();
+    }
+
+    synchronized int findingsFilterCount() {
+        return findingsFilters.size();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // Macie session
+
+    @Override
+    public EnableMacieResponse enableMacie(final EnableMacieRequest request) {
+        call("EnableMacie");
+        synchronized (this) {
+            if (macieEnabled) {
+                throw error(ConflictException.builder(), 409, "ConflictException", MACIE_ALREADY_ENABLED);
+            }
+            macieEnabled = true;
+        }
+        return EnableMacieResponse.builder().build();
+    }
+
+    // Findings filters
+
+    @Override
+    public CreateFindingsFilterResponse createFindingsFilter(final CreateFindingsFilterRequest request) {
+        call("CreateFindingsFilter");
+        synchronized (this) {
+            requireMacieEnabled();
+            GetFindingsFilterResponse filter = idempotentResult(request.clientToken(), findingsFilters);
+            if (filter == null) {
+                requireUniqueFilterName(request.name(), null);
+                final String id = newId(request.clientToken());
+                filter = GetFindingsFilterResponse.builder()
+                    .id(id)
+                    .arn(arn("findings-filter", id))
+                    .name(request.name())
+                    .description(request.description())
+                    .action(request.actionAsString())
+                    .findingCriteria(request.findingCriteria())
+                    .position(request.position() == null ? nextPosition() : request.position())
+                    .tags(request.tags())
+                    .build();
+                findingsFilters.put(id, filter);
+            }
+            return CreateFindingsFilterResponse.builder().id(filter.id()).arn(filter.arn()).build();
+        }
+    }
+
+    @Override
+    public GetFindingsFilterResponse getFindingsFilter(final GetFindingsFilterRequest request) {
+        call("GetFindingsFilter");
+        synchronized (this) {
+            requireMacieEnabled();
+            return require(findingsFilters, request.id());
+        }
+    }
+
+    @Override
+    public UpdateFindingsFilterResponse updateFindingsFilter(final UpdateFindingsFilterRequest request) {
+        call("UpdateFindingsFilter");
+        synchronized (this) {
+            requireMacieEnabled();
+            final GetFindingsFilterResponse.Builder updated = require(findingsFilters, request.id()).toBuilder();
+            if (request.name() != null) {
+                requireUniqueFilterName(request.name(), request.id());
+                updated.name(request.name());
+            }
+            if (request.description() != null) {
+                updated.description(request.description());
+            }
+            if (request.actionAsString() != null) {
+                updated.action(request.actionAsString());
+            }
+            if (request.findingCriteria() != null) {
+                updated.findingCriteria(request.findingCriteria());
+            }
+            if (request.position() != null) {
+                updated.position(request.position());
+            }
+            final GetFindingsFilterResponse filter = updated.build();
+            findingsFilters.put(filter.id(), filter);
+            return UpdateFindingsFilterResponse.builder().id(filter.id()).arn(filter.arn()).build();
+        }
+    }
+
+    @Override
+    public DeleteFindingsFilterResponse deleteFindingsFilter(final DeleteFindingsFilterRequest request) {
+        call("DeleteFindingsFilter");
+        synchronized (this) {
+            requireMacieEnabled();
+            require(findingsFilters, request.id());
+            findingsFilters.remove(request.id());
+        }
+        return DeleteFindingsFilterResponse.builder().build();
+    }
+
+    @Override
+    public ListFindingsFiltersResponse listFindingsFilters(final ListFindingsFiltersRequest request) {
+        call("ListFindingsFilters");
+        synchronized (this) {
+            requireMacieEnabled();
+            final List<FindingsFilterListItem> items = new ArrayList<>();
+            final String nextToken = page(findingsFilters, request.nextToken(), request.maxResults(), filter -> items.add(
+                FindingsFilterListItem.builder().id(filter.id()).arn(filter.arn()).name(filter.name()).tags(filter.tags()).build()));
+            return ListFindingsFiltersResponse.builder().findingsFilterListItems(items).nextToken(nextToken).build();
+        }
+    }
+
+    /**
+     * Counts the call, waits for the configured latency and throws the injected fault, if one is drawn.
+     */
+    private void call(final String operation) {
+        invocations.computeIfAbsent(operation, o -> new AtomicLong()).incrementAndGet();
+
+        final LongSupplier latency = setting(latencies, operation);
+        if (latency != null) {
+            sleep(latency.getAsLong());
+        }
+
+        final double draw = faults.nextDouble();
+        final double throttleRate = rate(throttleRates, operation);
+        if (draw < throttleRate) {
+            throttled.incrementAndGet();
+            throw error(ThrottlingException.builder(), 429, "ThrottlingException", "Rate exceeded");
+        }
+        if (draw < throttleRate + rate(serverErrorRates, operation)) {
+            serverErrors.incrementAndGet();
+            throw error(InternalServerException.builder(), 500, "InternalServerException", "Internal server error");
+        }
+    }
+
+    private void requireMacieEnabled() {
+        if (!macieEnabled) {
+            throw error(AccessDeniedException.builder(), 403, "AccessDeniedException", MACIE_NOT_ENABLED);
+        }
+    }
+
+    private void requireUniqueFilterName(final String name, final String exceptId) {
+        for (final GetFindingsFilterResponse filter : findingsFilters.values()) {
+            if (filter.name().equals(name) && !filter.id().equals(exceptId)) {
+                throw error(ValidationException.builder(), 400, "ValidationException", FILTER_ALREADY_EXISTS);
+            }
+        }
+    }
+
+    private int nextPosition() {
+        int position = 0;
+        for (final GetFindingsFilterResponse filter : findingsFilters.values()) {
+            position = Math.max(position, filter.position());
+        }
+        return position + 1;
+    }
+
+    /**
+     * A retried create carries the same client token, it gets the resource the first attempt created, as long as it still exists.
+     */
+    private <T> T idempotentResult(final String clientToken, final Map<String, T> resources) {
+        final String id = clientToken == null ? null : clientTokens.get(clientToken);
+        return id == null ? null : resources.get(id);
+    }
+
+    private String newId(final String clientToken) {
+        final String id = UUID.randomUUID().toString().replace("-", "");
+        if (clientToken != null) {
+            clientTokens.put(clientToken, id);
+        }
+        return id;
+    }
+
+    private static String arn(final String resourceType, final String id) {
+        return String.format("arn:aws:macie2:%s:%s:%s/%s", REGION, ACCOUNT_ID, resourceType, id);
+    }
+
+    private static <T> T require(final Map<String, T> resources, final String id) {
+        final T resource = id == null ? null : resources.get(id);
+        if (resource == null) {
+            throw error(ResourceNotFoundException.builder(), 404, "ResourceNotFoundException", "The request failed because the specified resource wasn't found.");
+        }
+        return resource;
+    }
+
+    /**
+     * Pages in id order, the token is the last id of the previous page so concurrent creates and deletes don't shift pages.
+     */
+    private static <T> String page(final NavigableMap<String, T> resources, final String nextToken, final Integer maxResults,
+        final Consumer<T> consumer) {
+        final int limit = maxResults == null ? DEFAULT_MAX_RESULTS : maxResults;
+        final NavigableMap<String, T> remaining = nextToken == null ? resources : resources.tailMap(nextToken, false);
+        int count = 0;
+        String lastId = null;
+        for (final Map.Entry<String, T> entry : remaining.entrySet()) {
+            if (count == limit) {
+                return lastId;
+            }
+            consumer.accept(entry.getValue());
+            lastId = entry.getKey();
+            count++;
+        }
+        return null;
+    }
+
+    private <T> T setting(final Map<String, T> settings, final String operation) {
+        final T value = settings.get(operation);
+        return value != null ? value : settings.get(ALL_OPERATIONS);
+    }
+
+    private double rate(final Map<String, Double> rates, final String operation) {
+        final Double rate = setting(rates, operation);
+        return rate == null ? 0 : rate;
+    }
+
+    private static void sleep(final long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Macie2Exception error(final Macie2Exception.Builder builder, final int statusCode, final String errorCode, final String message) {
+        return (Macie2Exception) builder
+            .message(message)
+            .statusCode(statusCode)
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(errorCode)
+                .errorMessage(message)
+                .serviceName(SERVICE_NAME)
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build())
+            .build();
+    }
+}
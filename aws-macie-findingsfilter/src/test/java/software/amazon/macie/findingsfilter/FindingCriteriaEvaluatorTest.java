@@ -0,0 +1,224 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.criteria;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.eq;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.neq;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.range;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FindingCriteriaEvaluatorTest {
+
+    private static final String FINDING = "{\"id\":\"1\",\"accountId\":\"999999999999\",\"archived\":false,"
+        + "\"severity\":{\"description\":\"High\",\"score\":3},"
+        + "\"createdAt\":\"2020-06-01T12:00:00.000Z\","
+        + "\"classificationDetails\":{\"result\":{\"sensitiveData\":[{\"category\":\"PERSONAL_INFORMATION\"},{\"category\":\"CREDENTIALS\"}]}},"
+        + "\"resourcesAffected\":{\"s3Bucket\":{\"name\":\"my-bucket\",\"tags\":[{\"key\":\"env\",\"value\":\"prod\"}]},"
+        + "\"s3Object\":{\"key\":\"a.csv\",\"size\":2048}}}";
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void matches_NestedPaths() {
+        assertThat(matches(ImmutableMap.of(
+            "severity.description", eq("High", "Medium"),
+            "resourcesAffected.s3Bucket.name", eq("my-bucket")))).isTrue();
+        assertThat(matches(ImmutableMap.of(
+            "severity.description", eq("High"),
+            "resourcesAffected.s3Bucket.name", eq("other-bucket")))).isFalse();
+    }
+
+    @Test
+    public void matches_ArraysMatchAnyElementForEqAndNoElementForNeq() {
+        final String category = "classificationDetails.result.sensitiveData.category";
+
+        assertThat(matches(ImmutableMap.of(category, eq("CREDENTIALS")))).isTrue();
+        assertThat(matches(ImmutableMap.of(category, eq("FINANCIAL_INFORMATION")))).isFalse();
+        assertThat(matches(ImmutableMap.of(category, neq("FINANCIAL_INFORMATION")))).isTrue();
+        assertThat(matches(ImmutableMap.of(category, neq("FINANCIAL_INFORMATION", "CREDENTIALS")))).isFalse();
+        assertThat(matches(ImmutableMap.of("resourcesAffected.s3Bucket.tags.value", eq("prod")))).isTrue();
+    }
+
+    @Test
+    public void matches_RangeOperators() {
+        assertThat(matches(ImmutableMap.of("severity.score", range(2, null, null, 3)))).isTrue();
+        assertThat(matches(ImmutableMap.of("severity.score", range(null, 3, 4, null)))).isTrue();
+        assertThat(matches(ImmutableMap.of("severity.score", range(3, null, null, null)))).isFalse();
+        assertThat(matches(ImmutableMap.of("severity.score", range(null, null, 3, null)))).isFalse();
+        assertThat(matches(ImmutableMap.of("resourcesAffected.s3Object.size", range(null, 1024, null, null)))).isTrue();
+    }
+
+    @Test
+    public void matches_DatesCompareAsEpochMillis() {
+        assertThat(matches(ImmutableMap.of("createdAt", range(0, null, null, null)))).isTrue();
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("createdAt", range(null, null, Integer.MAX_VALUE, null))))
+            .matches("{\"createdAt\":\"1970-01-01T00:00:01Z\"}")).isTrue();
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("createdAt", range(null, null, 1000, null))))
+            .matches("{\"createdAt\":\"1970-01-01T00:00:01+00:00\"}")).isFalse();
+    }
+
+    @Test
+    public void matches_NonNumericValuesFailRanges() {
+        assertThat(matches(ImmutableMap.of("severity.description", range(0, null, null, null)))).isFalse();
+        assertThat(matches(ImmutableMap.of("resourcesAffected.s3Bucket", range(0, null, null, null)))).isFalse();
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("size", range(1, null, null, null))))
+            .matches("{\"size\":\"12.5\"}")).isTrue();
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("size", range(null, null, null, 10))))
+            .matches("{\"size\":true}")).isFalse();
+    }
+
+    @Test
+    public void matches_MissingFieldFailsEqAndRangeAndPassesNeq() {
+        assertThat(matches(ImmutableMap.of("resourcesAffected.s3Bucket.owner", eq("me")))).isFalse();
+        assertThat(matches(ImmutableMap.of("resourcesAffected.s3Bucket.owner", neq("me")))).isTrue();
+        assertThat(matches(ImmutableMap.of("missing.score", range(null, 0, null, null)))).isFalse();
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("owner", eq("me")))).matches("{\"owner\":null}")).isFalse();
+    }
+
+    @Test
+    public void matches_ScalarsCompareAsJsonText() {
+        assertThat(matches(ImmutableMap.of("archived", eq("false")))).isTrue();
+        assertThat(matches(ImmutableMap.of("severity.score", eq("3")))).isTrue();
+        assertThat(matches(ImmutableMap.of("severity.score", neq("3")))).isFalse();
+    }
+
+    @Test
+    public void matches_EmptyOperatorsAndNullCriteriaMatchEverything() {
+        assertThat(FindingCriteriaEvaluator.compile((FindingCriteria) null).matches(FINDING)).isTrue();
+        assertThat(FindingCriteriaEvaluator.compile(FindingCriteria.builder().build()).matches(FINDING)).isTrue();
+        assertThat(FindingCriteriaEvaluator.compile(ResourceModel.builder().build()).matches("{}")).isTrue();
+        assertThat(matches(ImmutableMap.of("accountId", CriterionAdditionalProperties.builder()
+            .eq(ImmutableList.of()).neq(ImmutableList.of()).build()))).isTrue();
+        assertThat(matches(Collections.singletonMap("accountId", null))).isTrue();
+    }
+
+    @Test
+    public void matches_ModelCriteria() {
+        final ResourceModel model = ResourceModel.builder()
+            .name("name")
+            .action("ARCHIVE")
+            .findingCriteria(criteria(ImmutableMap.of("accountId", eq("999999999999"), "severity.score", range(null, 2, null, null))))
+            .build();
+
+        assertThat(FindingCriteriaEvaluator.compile(model).matches(FINDING)).isTrue();
+    }
+
+    @Test
+    public void matches_ManyValuesForOnePath() {
+        final StringBuilder json = new StringBuilder("{\"tags\":[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"value\":\"v").append(i).append("\"}");
+        }
+        json.append("]}");
+
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("tags.value", eq("v99")))).matches(json.toString())).isTrue();
+        assertThat(FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("tags.value", neq("v57")))).matches(json.toString())).isFalse();
+    }
+
+    @Test
+    public void matches_RejectsNonObject() {
+        final FindingCriteriaEvaluator evaluator = FindingCriteriaEvaluator.compile(criteria(ImmutableMap.of("accountId", eq("1"))));
+
+        assertThrows(IllegalArgumentException.class, () -> evaluator.matches("[]"));
+        assertThrows(UncheckedIOException.class, () -> evaluator.matches("{\"accountId\":"));
+    }
+
+    @Test
+    public void evaluate_StreamsJsonLinesExport() throws IOException {
+        final Path export = tempDir.resolve("findings.jsonl");
+        Files.write(export, lines(1000).getBytes(StandardCharsets.UTF_8));
+
+        final FindingCriteriaEvaluator.Result result = FindingCriteriaEvaluator
+            .compile(criteria(ImmutableMap.of("severity.description", eq("High"), "severity.score", range(null, 2, null, null))))
+            .evaluate(export);
+
+        assertThat(result.findings()).isEqualTo(1000);
+        assertThat(result.matched()).isEqualTo(334);
+    }
+
+    @Test
+    public void evaluate_SmallChunksCountLikeOnePass() throws IOException {
+        final byte[] lines = lines(1000).getBytes(StandardCharsets.UTF_8);
+        final Path export = Files.write(tempDir.resolve("findings.jsonl"), lines);
+        final FindingCriteriaEvaluator evaluator = FindingCriteriaEvaluator
+            .compile(criteria(ImmutableMap.of("severity.description", neq("Low"), "severity.score", range(1, null, null, null))));
+
+        final FindingCriteriaEvaluator.Result onePass = evaluator.evaluate(new ByteArrayInputStream(lines));
+        final FindingCriteriaEvaluator.Result chunked = evaluator.evaluate(export, new ForkJoinPool(4), 997);
+
+        assertThat(chunked.findings()).isEqualTo(1000);
+        assertThat(chunked.matched()).isEqualTo(onePass.matched());
+        assertThat(onePass.matched()).isEqualTo(667);
+    }
+
+    @Test
+    public void evaluate_LinesLongerThanChunkCountLikeOnePass() throws IOException {
+        final byte[] lines = lines(100).getBytes(StandardCharsets.UTF_8);
+        final Path export = Files.write(tempDir.resolve("findings.jsonl"), lines);
+        final FindingCriteriaEvaluator evaluator = FindingCriteriaEvaluator
+            .compile(criteria(ImmutableMap.of("severity.description", neq("Low"))));
+
+        final FindingCriteriaEvaluator.Result onePass = evaluator.evaluate(new ByteArrayInputStream(lines));
+        final FindingCriteriaEvaluator.Result chunked = evaluator.evaluate(export, new ForkJoinPool(4), 8);
+
+        assertThat(chunked.findings()).isEqualTo(100);
+        assertThat(chunked.matched()).isEqualTo(onePass.matched());
+    }
+
+    @Test
+    public void evaluate_ReadsGzippedExport() throws IOException {
+        final Path export = tempDir.resolve("findings.jsonl.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(export))) {
+            output.write(lines(300).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final FindingCriteriaEvaluator.Result result = FindingCriteriaEvaluator
+            .compile(criteria(ImmutableMap.of("severity.description", neq("High"))))
+            .evaluate(export);
+
+        assertThat(result.findings()).isEqualTo(300);
+        assertThat(result.matched()).isEqualTo(200);
+    }
+
+    @Test
+    public void evaluate_RejectsNonObjectAndMissingFile() {
+        final FindingCriteriaEvaluator evaluator = FindingCriteriaEvaluator.compile((FindingCriteria) null);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> evaluator.evaluate(new ByteArrayInputStream("{}\n42\n".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(UncheckedIOException.class, () -> evaluator.evaluate(tempDir.resolve("missing.jsonl")));
+    }
+
+    private static boolean matches(final Map<String, CriterionAdditionalProperties> criterion) {
+        return FindingCriteriaEvaluator.compile(criteria(criterion)).matches(FINDING);
+    }
+
+    // severity cycles through High/3, Medium/2 and Low/1, starting with High
+    private static String lines(final int count) {
+        final String[] severities = {"{\"description\":\"High\",\"score\":3}", "{\"description\":\"Medium\",\"score\":2}",
+            "{\"description\":\"Low\",\"score\":1}"};
+        final StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            lines.append("{\"id\":\"").append(i).append("\",\"ignored\":{\"a\":[1,{\"b\":2}]},\"severity\":")
+                .append(severities[i % 3]).append("}\n");
+        }
+        return lines.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package software.amazon.macie.findingsfilter;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builders for the finding criteria the evaluator, index, optimizer and analyzer tests run.
+ */
+final class FindingCriteriaFixtures {
+
+    private FindingCriteriaFixtures() {
+    }
+
+    static FindingCriteria criteria(final Map<String, CriterionAdditionalProperties> criterion) {
+        return FindingCriteria.builder().criterion(criterion).build();
+    }
+
+    static CriterionAdditionalProperties eq(final String... values) {
+        return CriterionAdditionalProperties.builder().eq(ImmutableList.copyOf(values)).build();
+    }
+
+    static CriterionAdditionalProperties neq(final String... values) {
+        return CriterionAdditionalProperties.builder().neq(ImmutableList.copyOf(values)).build();
+    }
+
+    static CriterionAdditionalProperties range(final Integer gt, final Integer gte, final Integer lt, final Integer lte) {
+        return CriterionAdditionalProperties.builder().gt(gt).gte(gte).lt(lt).lte(lte).build();
+    }
+
+    /**
+     * Operators drawn independently: an eq list of two values, a neq value, a lower and an upper bound, each bound exclusive,
+     * inclusive or both. Often contradictory or redundant, which is what the optimizer and analyzer tests need.
+     */
+    static CriterionAdditionalProperties randomProperties(final Random random, final String[] values, final int[] bounds) {
+        final CriterionAdditionalProperties.CriterionAdditionalPropertiesBuilder builder = CriterionAdditionalProperties.builder();
+        if (random.nextInt(3) == 0) {
+            builder.eq(ImmutableList.of(values[random.nextInt(values.length)], values[random.nextInt(values.length)]));
+        }
+        if (random.nextInt(3) == 0) {
+            builder.neq(ImmutableList.of(values[random.nextInt(values.length)]));
+        }
+        if (random.nextBoolean()) {
+            builder.gt(random.nextBoolean() ? bounds[random.nextInt(bounds.length)] : null)
+                .gte(random.nextBoolean() ? bounds[random.nextInt(bounds.length)] : null);
+        }
+        if (random.nextBoolean()) {
+            builder.lt(random.nextBoolean() ? bounds[random.nextInt(bounds.length)] : null)
+                .lte(random.nextBoolean() ? bounds[random.nextInt(bounds.length)] : null);
+        }
+        return builder.build();
+    }
+}
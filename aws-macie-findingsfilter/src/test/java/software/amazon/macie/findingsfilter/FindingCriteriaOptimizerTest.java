@@ -0,0 +1,125 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.randomProperties;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.range;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class FindingCriteriaOptimizerTest {
+
+    private static final String[] FIELDS = {"severity.description", "severity.score", "accountId"};
+    private static final String[] VALUES = {"0", "1", "2", "3", "High", "Low"};
+    private static final int[] BOUNDS = {0, 1, 2, 3, 4};
+
+    @Test
+    public void optimize_SortsAndDeduplicatesValues() {
+        final CriterionAdditionalProperties optimized = FindingCriteriaOptimizer.optimize(CriterionAdditionalProperties.builder()
+            .eq(ImmutableList.of("Low", "High", "Low")).neq(ImmutableList.of("b", "a", "b")).build());
+
+        assertThat(optimized.getEq()).containsExactly("High", "Low");
+        assertThat(optimized.getNeq()).containsExactly("a", "b");
+        assertThat(FindingCriteriaOptimizer.optimize(CriterionAdditionalProperties.builder().eq(ImmutableList.of()).build()).getEq())
+            .isNull();
+    }
+
+    @Test
+    public void optimize_KeepsTheTighterBound() {
+        assertThat(FindingCriteriaOptimizer.optimize(range(1, 2, 5, 5)))
+            .isEqualTo(range(null, 2, 5, null));
+        assertThat(FindingCriteriaOptimizer.optimize(range(2, 2, 4, 3)))
+            .isEqualTo(range(2, null, null, 3));
+    }
+
+    @Test
+    public void optimize_DropsExcludedValuesAndSatisfiedBounds() {
+        assertThat(FindingCriteriaOptimizer.optimize(CriterionAdditionalProperties.builder()
+            .eq(ImmutableList.of("3", "1", "2")).neq(ImmutableList.of("1", "7")).gt(1).lte(3).build()))
+            .isEqualTo(CriterionAdditionalProperties.builder().eq(ImmutableList.of("2", "3")).neq(ImmutableList.of("1", "7")).build());
+        // High has no number, so the bound still leaves it out
+        assertThat(FindingCriteriaOptimizer.optimize(CriterionAdditionalProperties.builder()
+            .eq(ImmutableList.of("High", "2")).gt(1).build()))
+            .isEqualTo(CriterionAdditionalProperties.builder().eq(ImmutableList.of("2", "High")).gt(1).build());
+    }
+
+    @Test
+    public void optimize_LeavesUnsatisfiableCriteriaAlone() {
+        final CriterionAdditionalProperties properties = CriterionAdditionalProperties.builder()
+            .eq(ImmutableList.of("1")).neq(ImmutableList.of("1")).build();
+
+        assertThat(FindingCriteriaOptimizer.optimize(properties)).isEqualTo(properties);
+    }
+
+    @Test
+    public void fingerprint_IgnoresOrderAndRedundancy() {
+        final FindingCriteria a = FindingCriteria.builder().criterion(ImmutableMap.of(
+            "accountId", CriterionAdditionalProperties.builder().eq(ImmutableList.of("2", "1")).build(),
+            "severity.score", range(1, 2, null, null))).build();
+        final FindingCriteria b = FindingCriteria.builder().criterion(ImmutableMap.of(
+            "severity.score", range(null, 2, null, null),
+            "accountId", CriterionAdditionalProperties.builder().eq(ImmutableList.of("1", "2", "1")).build())).build();
+        final FindingCriteria c = FindingCriteria.builder().criterion(ImmutableMap.of(
+            "accountId", CriterionAdditionalProperties.builder().neq(ImmutableList.of("1", "2")).build())).build();
+
+        assertThat(fingerprint(a)).isEqualTo(fingerprint(b));
+        assertThat(FindingCriteriaOptimizer.equivalent(a, b)).isTrue();
+        assertThat(fingerprint(a)).isNotEqualTo(fingerprint(c));
+        assertThat(FindingCriteriaOptimizer.equivalent(a, c)).isFalse();
+        assertThat(FindingCriteriaOptimizer.equivalent(null, null)).isTrue();
+        assertThat(FindingCriteriaOptimizer.equivalent(a, null)).isFalse();
+    }
+
+    @Test
+    public void optimize_MatchesTheSameFindings() {
+        final Random random = new Random(17);
+        for (int round = 0; round < 200; round++) {
+            final Map<String, CriterionAdditionalProperties> criterion = new HashMap<>();
+            for (int j = 1 + random.nextInt(2); j > 0; j--) {
+                criterion.put(FIELDS[random.nextInt(FIELDS.length)], randomProperties(random, VALUES, BOUNDS));
+            }
+            final FindingCriteria criteria = FindingCriteria.builder().criterion(criterion).build();
+            final FindingCriteriaEvaluator original = FindingCriteriaEvaluator.compile(criteria);
+            final FindingCriteriaEvaluator optimized = FindingCriteriaEvaluator.compile(FindingCriteriaOptimizer.optimize(criteria));
+            for (int i = 0; i < 50; i++) {
+                final String finding = randomFinding(random);
+                assertThat(optimized.matches(finding)).as("%s on %s", criterion, finding).isEqualTo(original.matches(finding));
+            }
+        }
+    }
+
+    private static String fingerprint(final FindingCriteria criteria) {
+        return FindingCriteriaOptimizer.fingerprint(criteria, new Fingerprint()).toString();
+    }
+
+    // fields hold one value, or an array of two, or are missing
+    private static String randomFinding(final Random random) {
+        final List<String> fields = new ArrayList<>();
+        for (final String path : FIELDS) {
+            if (random.nextInt(5) == 0) {
+                continue;
+            }
+            String value = randomValue(random);
+            if (random.nextInt(3) == 0) {
+                value = "[" + value + "," + randomValue(random) + "]";
+            }
+            final String[] names = path.split("\\.");
+            String json = value;
+            for (int i = names.length - 1; i > 0; i--) {
+                json = "{\"" + names[i] + "\":" + json + "}";
+            }
+            fields.add("\"" + names[0] + "\":" + json);
+        }
+        return "{" + String.join(",", fields) + "}";
+    }
+
+    private static String randomValue(final Random random) {
+        return random.nextInt(3) == 0 ? String.valueOf(random.nextInt(5)) : "\"" + VALUES[random.nextInt(VALUES.length)] + "\"";
+    }
+}
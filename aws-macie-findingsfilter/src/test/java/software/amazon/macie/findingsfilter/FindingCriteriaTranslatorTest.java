@@ -0,0 +1,46 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+public class FindingCriteriaTranslatorTest {
+
+    private static final String ACCOUNT_ID = "accountId";
+    private static final String SEVERITY = "severity.score";
+
+    @Test
+    public void toSdk_TranslatesOperatorsAndDropsEmptyLists() {
+        final FindingCriteria criteria = FindingCriteria.builder()
+            .criterion(ImmutableMap.of(
+                ACCOUNT_ID, CriterionAdditionalProperties.builder().eq(ImmutableList.of("999999999999")).neq(ImmutableList.of()).build(),
+                SEVERITY, CriterionAdditionalProperties.builder().gte(2).lt(3).build()))
+            .build();
+
+        final software.amazon.awssdk.services.macie2.model.FindingCriteria sdkCriteria = FindingCriteriaTranslator.toSdk(criteria);
+
+        assertThat(sdkCriteria.criterion().get(ACCOUNT_ID).eq()).containsExactly("999999999999");
+        assertThat(sdkCriteria.criterion().get(ACCOUNT_ID).hasNeq()).isFalse();
+        assertThat(sdkCriteria.criterion().get(SEVERITY).gte()).isEqualTo(2L);
+        assertThat(sdkCriteria.criterion().get(SEVERITY).lt()).isEqualTo(3L);
+        assertThat(sdkCriteria.criterion().get(SEVERITY).gt()).isNull();
+    }
+
+    @Test
+    public void toModel_RoundTripsCriteria() {
+        final FindingCriteria criteria = FindingCriteria.builder()
+            .criterion(ImmutableMap.of(
+                ACCOUNT_ID, CriterionAdditionalProperties.builder().eq(ImmutableList.of("999999999999")).build(),
+                SEVERITY, CriterionAdditionalProperties.builder().gt(1).lte(3).build()))
+            .build();
+
+        assertThat(FindingCriteriaTranslator.toModel(FindingCriteriaTranslator.toSdk(criteria))).isEqualTo(criteria);
+    }
+
+    @Test
+    public void toSdk_MissingCriterionTranslatesToEmptyCriteria() {
+        assertThat(FindingCriteriaTranslator.toSdk(FindingCriteria.builder().build()).criterion()).isEmpty();
+    }
+}
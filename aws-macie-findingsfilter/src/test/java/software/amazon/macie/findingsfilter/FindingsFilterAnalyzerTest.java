@@ -0,0 +1,220 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.eq;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.neq;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.randomProperties;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.range;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class FindingsFilterAnalyzerTest {
+
+    private static final String REPEATED_FIELD = "classificationDetails.result.sensitiveData.category";
+    private static final String[] FIELDS = {"severity.description", "severity.score", "accountId", "resourcesAffected.s3Bucket.name",
+        REPEATED_FIELD};
+    private static final String[] VALUES = {"0", "1", "2", "3", "High", "Low", "b0", "b1"};
+    private static final int[] BOUNDS = {0, 1, 2, 3, 4};
+
+    @Test
+    public void analyze_ReportsContradictoryCriteriaAsEmpty() {
+        final FindingsFilterAnalyzer.Report report = FindingsFilterAnalyzer.analyze(ImmutableList.of(
+            filter("gt-above-lt", 1, "NOOP", ImmutableMap.of("severity.score", range(3, null, 2, null))),
+            filter("gte-above-lte", 2, "NOOP", ImmutableMap.of("severity.score", range(null, 3, null, 2))),
+            filter("gt-equals-lte", 3, "NOOP", ImmutableMap.of("severity.score", range(2, null, null, 2))),
+            filter("eq-all-in-neq", 4, "NOOP", ImmutableMap.of("accountId", CriterionAdditionalProperties.builder()
+                .eq(ImmutableList.of("1", "2")).neq(ImmutableList.of("2", "1")).build())),
+            filter("eq-out-of-range", 5, "NOOP", ImmutableMap.of("severity.score", CriterionAdditionalProperties.builder()
+                .eq(ImmutableList.of("1", "High")).gt(1).build())),
+            filter("open-interval", 6, "NOOP", ImmutableMap.of("severity.score", range(1, null, 3, null))),
+            filter("eq-in-range", 7, "NOOP", ImmutableMap.of("severity.score", CriterionAdditionalProperties.builder()
+                .eq(ImmutableList.of("1", "2")).gt(1).build()))));
+
+        assertThat(names(report.empty())).containsExactly("gt-above-lt", "gte-above-lte", "gt-equals-lte", "eq-all-in-neq",
+            "eq-out-of-range");
+        // empty filters are left out of the other reports
+        assertThat(pairs(report.overlapping())).containsExactly("open-interval > eq-in-range");
+    }
+
+    @Test
+    public void analyze_ReportsFiltersShadowedByEarlierArchiveFilters() {
+        final FindingsFilterAnalyzer.Report report = FindingsFilterAnalyzer.analyze(ImmutableList.of(
+            filter("narrow-eq", 5, "NOOP", ImmutableMap.of("severity.description", eq("Low"), "accountId", eq("1"))),
+            filter("archive-low", 2, "ARCHIVE", ImmutableMap.of("severity.description", eq("Low", "Medium"))),
+            filter("noop-high", 1, "NOOP", ImmutableMap.of("severity.description", eq("High"))),
+            filter("high-and-small", 6, "ARCHIVE", ImmutableMap.of("severity.description", eq("High"),
+                "severity.score", range(null, null, 2, null))),
+            filter("archive-range", 3, "ARCHIVE", ImmutableMap.of("severity.score", range(null, 1, null, 3))),
+            filter("inner-range", 7, "NOOP", ImmutableMap.of("severity.score", range(1, null, 3, null))),
+            filter("outer-range", 8, "NOOP", ImmutableMap.of("severity.score", range(null, 0, null, null))),
+            filter("archive-not-b0", 4, "ARCHIVE", ImmutableMap.of("resourcesAffected.s3Bucket.name", neq("b0"))),
+            filter("only-b1", 9, "NOOP", ImmutableMap.of("resourcesAffected.s3Bucket.name", eq("b1"))),
+            filter("not-b0-or-b1", 10, "NOOP", ImmutableMap.of("resourcesAffected.s3Bucket.name", neq("b1", "b0")))));
+
+        // a NOOP filter doesn't hide anything, a later or wider filter doesn't shadow
+        assertThat(pairs(report.shadowed())).containsExactly(
+            "archive-low > narrow-eq",
+            "archive-range > inner-range",
+            "archive-not-b0 > only-b1",
+            "archive-not-b0 > not-b0-or-b1");
+        assertThat(pairs(report.overlapping())).contains(
+            "noop-high > high-and-small",
+            "archive-range > outer-range",
+            "archive-range > high-and-small",
+            "inner-range > outer-range");
+        assertThat(pairs(report.overlapping())).doesNotContain("noop-high > archive-low", "only-b1 > not-b0-or-b1");
+    }
+
+    @Test
+    public void analyze_RepeatedFieldsNeedOneValuePerOperator() {
+        final String tag = "resourcesAffected.s3Bucket.tags.key";
+        final FindingsFilterAnalyzer.Report report = FindingsFilterAnalyzer.analyze(ImmutableList.of(
+            filter("archive-not-x", 1, "ARCHIVE", ImmutableMap.of(tag, neq("x"))),
+            filter("only-y", 2, "NOOP", ImmutableMap.of(tag, eq("y"))),
+            filter("archive-x-or-y", 3, "ARCHIVE", ImmutableMap.of(tag, eq("x", "y"))),
+            filter("only-x", 4, "NOOP", ImmutableMap.of(tag, eq("x"))),
+            // one tag equal to 3, another one above 5
+            filter("eq-and-range", 5, "NOOP", ImmutableMap.of(tag, CriterionAdditionalProperties.builder()
+                .eq(ImmutableList.of("3")).gt(5).build())),
+            filter("eq-all-in-neq", 6, "NOOP", ImmutableMap.of(tag, CriterionAdditionalProperties.builder()
+                .eq(ImmutableList.of("x")).neq(ImmutableList.of("x")).build()))));
+
+        assertThat(names(report.empty())).containsExactly("eq-all-in-neq");
+        // a bucket tagged x and y passes archive-not-x's neq on no tag, yet only-y matches it through y
+        assertThat(pairs(report.shadowed())).containsExactly("archive-x-or-y > only-x");
+        assertThat(pairs(report.overlapping())).contains("archive-not-x > only-y", "only-y > only-x", "archive-x-or-y > eq-and-range");
+        assertThat(pairs(report.overlapping())).doesNotContain("archive-not-x > only-x");
+    }
+
+    @Test
+    public void analyze_FiltersWithoutCriteriaOverlapEverything() {
+        final FindingsFilterAnalyzer.Report report = FindingsFilterAnalyzer.analyze(ImmutableList.of(
+            ResourceModel.builder().name("everything").position(1).action("ARCHIVE").build(),
+            filter("low", 2, "NOOP", ImmutableMap.of("severity.description", eq("Low"))),
+            ResourceModel.builder().name("empty-criteria").position(3).action("NOOP")
+                .findingCriteria(FindingCriteria.builder().build()).build()));
+
+        assertThat(report.empty()).isEmpty();
+        assertThat(pairs(report.shadowed())).containsExactly("everything > low", "everything > empty-criteria");
+        assertThat(pairs(report.overlapping())).containsExactly("everything > low", "everything > empty-criteria",
+            "low > empty-criteria");
+    }
+
+    @Test
+    public void analyze_AgreesWithEvaluationOfRandomFindings() {
+        final Random random = new Random(13);
+        for (int round = 0; round < 20; round++) {
+            final List<ResourceModel> filters = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                final Map<String, CriterionAdditionalProperties> criterion = new HashMap<>();
+                for (int j = random.nextInt(3); j > 0; j--) {
+                    criterion.put(FIELDS[random.nextInt(FIELDS.length)], randomProperties(random, VALUES, BOUNDS));
+                }
+                filters.add(filter("f" + i, i + 1, random.nextBoolean() ? "ARCHIVE" : "NOOP", criterion));
+            }
+            final FindingsFilterAnalyzer.Report report = FindingsFilterAnalyzer.analyze(filters);
+            final Set<String> empty = new HashSet<>(names(report.empty()));
+            final Set<String> overlapping = new HashSet<>(pairs(report.overlapping()));
+            final List<FindingCriteriaEvaluator> evaluators = new ArrayList<>();
+            for (final ResourceModel filter : filters) {
+                evaluators.add(FindingCriteriaEvaluator.compile(filter));
+            }
+
+            final boolean[][] matches = new boolean[2000][];
+            for (int i = 0; i < matches.length; i++) {
+                final String finding = randomFinding(random);
+                matches[i] = new boolean[filters.size()];
+                for (int f = 0; f < filters.size(); f++) {
+                    matches[i][f] = evaluators.get(f).matches(finding);
+                }
+            }
+
+            for (int a = 0; a < filters.size(); a++) {
+                for (final boolean[] match : matches) {
+                    if (match[a]) {
+                        assertThat(empty.contains(filters.get(a).getName())).as("%s is empty", filters.get(a).getName()).isFalse();
+                    }
+                }
+                for (int b = a + 1; b < filters.size(); b++) {
+                    final String pair = filters.get(a).getName() + " > " + filters.get(b).getName();
+                    for (final boolean[] match : matches) {
+                        if (match[a] && match[b]) {
+                            assertThat(overlapping.contains(pair)).as("%s overlap", pair).isTrue();
+                        }
+                    }
+                }
+            }
+            for (final FindingsFilterAnalyzer.Pair pair : report.shadowed()) {
+                final int earlier = filters.indexOf(pair.earlier());
+                final int later = filters.indexOf(pair.later());
+                for (final boolean[] match : matches) {
+                    if (match[later]) {
+                        assertThat(match[earlier]).as("%s shadows", pair).isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    private static ResourceModel filter(final String name, final int position, final String action,
+        final Map<String, CriterionAdditionalProperties> criterion) {
+        return ResourceModel.builder()
+            .name(name)
+            .position(position)
+            .action(action)
+            .findingCriteria(FindingCriteria.builder().criterion(criterion).build())
+            .build();
+    }
+
+    private static List<String> names(final List<ResourceModel> filters) {
+        return filters.stream().map(ResourceModel::getName).collect(Collectors.toList());
+    }
+
+    private static List<String> pairs(final List<FindingsFilterAnalyzer.Pair> pairs) {
+        return pairs.stream().map(FindingsFilterAnalyzer.Pair::toString).collect(Collectors.toList());
+    }
+
+    // fields sometimes missing, numbers as JSON numbers or strings, up to three values for the repeated field
+    private static String randomFinding(final Random random) {
+        final List<String> fields = new ArrayList<>();
+        for (final String path : FIELDS) {
+            if (random.nextInt(5) == 0) {
+                continue;
+            }
+            final String[] names = path.split("\\.");
+            String json;
+            if (path.equals(REPEATED_FIELD)) {
+                final List<String> elements = new ArrayList<>();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    elements.add("{\"" + names[names.length - 1] + "\":" + randomValue(random) + "}");
+                }
+                json = "[" + String.join(",", elements) + "]";
+                for (int i = names.length - 3; i > 0; i--) {
+                    json = "{\"" + names[i] + "\":" + json + "}";
+                }
+            } else {
+                json = randomValue(random);
+                for (int i = names.length - 1; i > 0; i--) {
+                    json = "{\"" + names[i] + "\":" + json + "}";
+                }
+            }
+            fields.add("\"" + names[0] + "\":" + json);
+        }
+        return "{" + String.join(",", fields) + "}";
+    }
+
+    private static String randomValue(final Random random) {
+        return random.nextInt(3) == 0 ? String.valueOf(random.nextInt(5)) + (random.nextBoolean() ? ".5" : "")
+            : "\"" + VALUES[random.nextInt(VALUES.length)] + "\"";
+    }
+}
@@ -0,0 +1,115 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.amazon.macie.findingsfilter.FakeMacie2Client.ALL_OPERATIONS;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.macie2.model.CreateFindingsFilterRequest;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+
+public class FindingsFilterDriftSweeperTest {
+
+    private static final String ACCOUNT_ID = "accountId";
+
+    @Test
+    public void sweep_ReportsInSyncDriftedMissingAndUnmanagedFilters() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled();
+        final String inSync = create(macie2, "in-sync", "description", "1", "2");
+        final String drifted = create(macie2, "drifted", "changed outside CloudFormation", "1");
+        final String byName = create(macie2, "by-name", null, "3");
+        final String unmanaged = create(macie2, "unmanaged", null, "4");
+
+        final FindingsFilterDriftSweeper.Report report = new FindingsFilterDriftSweeper(macie2, 4).sweep(ImmutableList.of(
+            // criteria values in another order, action and position left to Macie
+            model(inSync, "in-sync", "description", "2", "1"),
+            model(drifted, "drifted", "description", "1"),
+            model(null, "by-name", null, "3"),
+            model("deleted", "deleted", null, "5")));
+
+        assertThat(report.inSync()).containsExactly(inSync, byName);
+        assertThat(report.drifted()).hasSize(1);
+        assertThat(report.drifted().get(0).actual().getId()).isEqualTo(drifted);
+        assertThat(report.drifted().get(0).actual().getDescription()).isEqualTo("changed outside CloudFormation");
+        assertThat(report.drifted().get(0).expectedFingerprint()).isNotEqualTo(report.drifted().get(0).actualFingerprint());
+        assertThat(report.missing().stream().map(ResourceModel::getName).collect(Collectors.toList())).containsExactly("deleted");
+        assertThat(report.unmanaged().stream().map(ResourceModel::getId).collect(Collectors.toList())).containsExactly(unmanaged);
+        // only the filters a desired model refers to are read
+        assertThat(macie2.invocations("GetFindingsFilter")).isEqualTo(3);
+    }
+
+    @Test
+    public void sweep_ReportsDuplicateModels() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled();
+        final String first = create(macie2, "first", null, "1");
+        final String second = create(macie2, "second", null, "2");
+
+        final FindingsFilterDriftSweeper.Report report = new FindingsFilterDriftSweeper(macie2, 2).sweep(ImmutableList.of(
+            model(first, "first", null, "1"),
+            // the same filter by name
+            model(null, "first", null, "1"),
+            model(second, "second", null, "2"),
+            // another filter asking for a name that is taken
+            model("other", "second", null, "2")));
+
+        assertThat(report.inSync()).containsExactly(first, second);
+        assertThat(report.duplicates().stream().map(ResourceModel::getId).collect(Collectors.toList())).containsExactly(null, "other");
+        assertThat(report.missing()).isEmpty();
+        assertThat(macie2.invocations("GetFindingsFilter")).isEqualTo(2);
+    }
+
+    @Test
+    public void sweep_ReadsEveryPage() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled()
+            .withLatency("GetFindingsFilter", FakeMacie2Client.fixedLatency(5));
+        final List<ResourceModel> desired = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            desired.add(model(create(macie2, "filter-" + i, null, String.valueOf(i)), "filter-" + i, null, String.valueOf(i)));
+        }
+
+        final FindingsFilterDriftSweeper.Report report = new FindingsFilterDriftSweeper(macie2, 16).sweep(desired);
+
+        assertThat(report.inSync()).hasSize(120);
+        assertThat(report.drifted()).isEmpty();
+        assertThat(report.unmanaged()).isEmpty();
+        assertThat(macie2.invocations("ListFindingsFilters")).isEqualTo(3);
+    }
+
+    @Test
+    public void sweep_ServiceErrorFails() {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled();
+        final String id = create(macie2, "filter", null, "1");
+        macie2.withServerErrorRate(ALL_OPERATIONS, 1.0);
+
+        assertThrows(Macie2Exception.class,
+            () -> new FindingsFilterDriftSweeper(macie2, 2).sweep(ImmutableList.of(model(id, "filter", null, "1"))));
+    }
+
+    private static String create(final FakeMacie2Client macie2, final String name, final String description, final String... accounts) {
+        return macie2.createFindingsFilter(CreateFindingsFilterRequest.builder()
+            .name(name)
+            .description(description)
+            .action("ARCHIVE")
+            .findingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria.builder()
+                .criterion(ImmutableMap.of(ACCOUNT_ID,
+                    software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties.builder().eq(accounts).build()))
+                .build())
+            .build()).id();
+    }
+
+    private static ResourceModel model(final String id, final String name, final String description, final String... accounts) {
+        return ResourceModel.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .findingCriteria(FindingCriteria.builder()
+                .criterion(ImmutableMap.of(ACCOUNT_ID, CriterionAdditionalProperties.builder().eq(ImmutableList.copyOf(accounts)).build()))
+                .build())
+            .build();
+    }
+}
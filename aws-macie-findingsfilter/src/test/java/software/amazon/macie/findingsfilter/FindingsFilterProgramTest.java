@@ -0,0 +1,139 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FindingsFilterProgramTest {
+
+    private static final ResourceModel KEEP_ACCOUNT = filter("keep-account", 1, "NOOP", "accountId", "1");
+    private static final ResourceModel ARCHIVE_LOW = filter("archive-low", 2, "ARCHIVE", "severity.description", "Low");
+    private static final ResourceModel ARCHIVE_BUCKET = filter("archive-bucket", 3, "ARCHIVE", "resourcesAffected.s3Bucket.name", "b0");
+    private static final ResourceModel CATCH_ALL = ResourceModel.builder().name("catch-all").action("NOOP").build();
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void evaluate_AppliesFiltersInPositionOrder() {
+        final FindingsFilterProgram program = new FindingsFilterProgram(ImmutableList.of(CATCH_ALL, ARCHIVE_BUCKET, ARCHIVE_LOW, KEEP_ACCOUNT));
+
+        final FindingsFilterProgram.Report report = program.evaluate(input(
+            finding("1", "Low", "b0"),
+            finding("1", "High", "b0"),
+            finding("2", "Low", "b1"),
+            finding("2", "High", "b0"),
+            finding("2", "High", "b1")));
+
+        assertThat(program.filters()).containsExactly(KEEP_ACCOUNT, ARCHIVE_LOW, ARCHIVE_BUCKET, CATCH_ALL);
+        assertThat(report.findings()).isEqualTo(5);
+        assertThat(report.archived()).isEqualTo(4);
+        // keep-account sees everything and claims its two findings
+        assertThat(report.claimed(0)).isEqualTo(2);
+        assertThat(report.matched(0)).isEqualTo(2);
+        // archive-low matches one finding keep-account claimed first
+        assertThat(report.claimed(1)).isEqualTo(1);
+        assertThat(report.matched(1)).isEqualTo(2);
+        // archive-bucket doesn't see the Low finding in b0 that archive-low archived
+        assertThat(report.claimed(2)).isEqualTo(1);
+        assertThat(report.matched(2)).isEqualTo(2);
+        // catch-all only sees the finding nobody archived
+        assertThat(report.claimed(3)).isEqualTo(1);
+        assertThat(report.matched(3)).isEqualTo(1);
+    }
+
+    @Test
+    public void evaluate_ParallelChunksMatchSinglePass() throws IOException {
+        final Random random = new Random(5);
+        final StringBuilder export = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            export.append(finding(String.valueOf(random.nextInt(3)), new String[] {"Low", "Medium", "High"}[random.nextInt(3)],
+                "b" + random.nextInt(3))).append('\n');
+        }
+        // no newline after the last finding
+        export.setLength(export.length() - 1);
+        final Path file = tempDir.resolve("findings.jsonl");
+        Files.write(file, export.toString().getBytes(StandardCharsets.UTF_8));
+        final List<ResourceModel> filters = ImmutableList.of(KEEP_ACCOUNT, ARCHIVE_LOW, ARCHIVE_BUCKET, CATCH_ALL);
+
+        final FindingsFilterProgram.Report expected = new FindingsFilterProgram(filters).evaluate(input(export.toString()));
+        final FindingsFilterProgram.Report chunked = new FindingsFilterProgram(filters, new ForkJoinPool(4), 1000).evaluate(file);
+
+        assertThat(chunked.findings()).isEqualTo(2000);
+        assertThat(chunked.archived()).isEqualTo(expected.archived());
+        for (int i = 0; i < filters.size(); i++) {
+            assertThat(chunked.claimed(i)).isEqualTo(expected.claimed(i));
+            assertThat(chunked.matched(i)).isEqualTo(expected.matched(i));
+        }
+        assertThat(expected.claimed(3)).isGreaterThan(0);
+    }
+
+    @Test
+    public void evaluate_ReadsGzippedAndEmptyExports() throws IOException {
+        final Path gzipped = tempDir.resolve("findings.jsonl.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(gzipped))) {
+            output.write((finding("1", "Low", "b0") + "\n" + finding("2", "Low", "b0")).getBytes(StandardCharsets.UTF_8));
+        }
+        final Path empty = Files.createFile(tempDir.resolve("empty.jsonl"));
+        final FindingsFilterProgram program = new FindingsFilterProgram(ImmutableList.of(ARCHIVE_LOW));
+
+        assertThat(program.evaluate(gzipped).claimed(0)).isEqualTo(2);
+        assertThat(program.evaluate(empty).findings()).isEqualTo(0);
+    }
+
+    @Test
+    public void evaluate_WithoutFiltersCountsFindings() {
+        final FindingsFilterProgram.Report report = new FindingsFilterProgram(Collections.emptyList()).evaluate(input("{}", "{}"));
+
+        assertThat(report.findings()).isEqualTo(2);
+        assertThat(report.archived()).isEqualTo(0);
+    }
+
+    @Test
+    public void evaluate_RejectsInvalidInput() {
+        final FindingsFilterProgram program = new FindingsFilterProgram(ImmutableList.of(ARCHIVE_LOW));
+
+        assertThrows(IllegalArgumentException.class, () -> program.evaluate(input("{}", "\"finding\"")));
+        assertThrows(UncheckedIOException.class, () -> program.evaluate(input("{")));
+        assertThrows(UncheckedIOException.class, () -> program.evaluate(tempDir.resolve("missing.jsonl")));
+        assertThrows(IllegalArgumentException.class,
+            () -> new FindingsFilterProgram(ImmutableList.of(ARCHIVE_LOW), ForkJoinPool.commonPool(), 0));
+    }
+
+    private static ResourceModel filter(final String name, final int position, final String action, final String path,
+        final String value) {
+        return ResourceModel.builder()
+            .name(name)
+            .position(position)
+            .action(action)
+            .findingCriteria(FindingCriteria.builder()
+                .criterion(ImmutableMap.of(path, CriterionAdditionalProperties.builder().eq(ImmutableList.of(value)).build()))
+                .build())
+            .build();
+    }
+
+    private static String finding(final String accountId, final String severity, final String bucket) {
+        return "{\"accountId\":\"" + accountId + "\",\"severity\":{\"description\":\"" + severity + "\"},"
+            + "\"resourcesAffected\":{\"s3Bucket\":{\"name\":\"" + bucket + "\"}}}";
+    }
+
+    private static ByteArrayInputStream input(final String... findings) {
+        return new ByteArrayInputStream(String.join("\n", findings).getBytes(StandardCharsets.UTF_8));
+    }
+}
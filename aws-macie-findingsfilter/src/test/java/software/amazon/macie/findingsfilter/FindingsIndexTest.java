@@ -0,0 +1,180 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.criteria;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.eq;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.neq;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.randomProperties;
+import static software.amazon.macie.findingsfilter.FindingCriteriaFixtures.range;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FindingsIndexTest {
+
+    private static final String[] FIELDS = {"accountId", "severity.description", "severity.score", "createdAt",
+        "classificationDetails.result.sensitiveData.category", "resourcesAffected.s3Bucket.name", "resourcesAffected.s3Object.size",
+        "archived"};
+    private static final String[] VALUES = {"0", "1", "2", "3", "High", "Low", "A", "B", "b0", "b1", "true", "false"};
+    private static final int[] BOUNDS = {0, 1, 2, 3, 5, 1000, 2500, 5000};
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void select_EqNeqAndRanges() {
+        final FindingsIndex index = index(
+            "{\"severity\":{\"description\":\"High\",\"score\":3},\"tags\":[{\"value\":\"prod\"},{\"value\":\"pci\"}]}",
+            "{\"severity\":{\"description\":\"Medium\",\"score\":2},\"tags\":[{\"value\":\"dev\"}]}",
+            "{\"severity\":{\"description\":\"Low\",\"score\":1.5}}",
+            "{\"severity\":{\"description\":\"High\",\"score\":\"3\"},\"tags\":[]}");
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(rows(index, ImmutableMap.of("severity.description", eq("High")))).containsExactly(0, 3);
+        assertThat(rows(index, ImmutableMap.of("severity.description", eq("High", "Low", "Unknown")))).containsExactly(0, 2, 3);
+        assertThat(rows(index, ImmutableMap.of("tags.value", eq("pci")))).containsExactly(0);
+        assertThat(rows(index, ImmutableMap.of("tags.value", neq("prod")))).containsExactly(1, 2, 3);
+        assertThat(rows(index, ImmutableMap.of("severity.score", range(1, null, 3, null)))).containsExactly(1, 2);
+        assertThat(rows(index, ImmutableMap.of("severity.score", range(null, 3, null, null)))).containsExactly(0, 3);
+        assertThat(rows(index, ImmutableMap.of("severity.score", range(null, 2, null, 2)))).containsExactly(1);
+        assertThat(rows(index, ImmutableMap.of(
+            "severity.description", neq("Medium"),
+            "severity.score", range(null, 2, null, null)))).containsExactly(0, 3);
+    }
+
+    @Test
+    public void select_MissingPathsAndContradictoryBounds() {
+        final FindingsIndex index = index("{\"a\":1}", "{\"a\":2}");
+
+        assertThat(rows(index, ImmutableMap.of("b", eq("1")))).isEmpty();
+        assertThat(rows(index, ImmutableMap.of("b", neq("1")))).containsExactly(0, 1);
+        assertThat(rows(index, ImmutableMap.of("b", range(0, null, null, null)))).isEmpty();
+        assertThat(rows(index, ImmutableMap.of("a", range(2, null, 1, null)))).isEmpty();
+        assertThat(rows(index, ImmutableMap.of("a", range(1, null, 2, null)))).isEmpty();
+        assertThat(rows(index, ImmutableMap.of("a", CriterionAdditionalProperties.builder()
+            .eq(ImmutableList.of()).neq(ImmutableList.of()).build()))).containsExactly(0, 1);
+        assertThat(index.count(null)).isEqualTo(2);
+        assertThat(index.count(FindingCriteria.builder().build())).isEqualTo(2);
+    }
+
+    @Test
+    public void select_DatesAndSpecialNumbers() {
+        final FindingsIndex index = index(
+            "{\"createdAt\":\"1970-01-01T00:00:01Z\",\"n\":-0.0}",
+            "{\"createdAt\":\"1970-01-01T00:00:02.5+00:00\",\"n\":1e999}",
+            "{\"createdAt\":\"not a date\",\"n\":-1e999}");
+
+        assertThat(rows(index, ImmutableMap.of("createdAt", range(1000, null, null, null)))).containsExactly(1);
+        assertThat(rows(index, ImmutableMap.of("createdAt", range(null, 1000, null, 2500)))).containsExactly(0, 1);
+        assertThat(rows(index, ImmutableMap.of("n", range(null, 0, null, 0)))).containsExactly(0);
+        // infinities fail the implicit bounds, as in FindingCriteriaEvaluator
+        assertThat(rows(index, ImmutableMap.of("n", range(0, null, null, null)))).isEmpty();
+        assertThat(rows(index, ImmutableMap.of("n", range(null, null, 0, null)))).isEmpty();
+    }
+
+    @Test
+    public void select_CommonValuesUseBitmaps() {
+        final StringBuilder export = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            export.append("{\"kind\":\"").append(i % 2 == 0 ? "even" : "odd").append("\",\"id\":\"").append(i).append("\"}\n");
+        }
+        final FindingsIndex index = FindingsIndex.build(input(export.toString()));
+
+        assertThat(index.count(criteria(ImmutableMap.of("kind", eq("even"))))).isEqualTo(500);
+        assertThat(index.count(criteria(ImmutableMap.of("kind", eq("even"), "id", eq("2", "3", "4"))))).isEqualTo(2);
+        assertThat(index.count(criteria(ImmutableMap.of("kind", neq("odd"), "id", range(null, 990, null, null))))).isEqualTo(5);
+    }
+
+    @Test
+    public void select_AgreesWithEvaluatorOnRandomCriteria() {
+        final Random random = new Random(7);
+        final StringBuilder export = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            export.append(randomFinding(random)).append('\n');
+        }
+        final FindingsIndex index = FindingsIndex.build(input(export.toString()));
+
+        for (int i = 0; i < 300; i++) {
+            final Map<String, CriterionAdditionalProperties> criterion = new HashMap<>();
+            for (int j = 1 + random.nextInt(3); j > 0; j--) {
+                criterion.put(FIELDS[random.nextInt(FIELDS.length)], randomProperties(random, VALUES, BOUNDS));
+            }
+            final FindingCriteria criteria = criteria(criterion);
+            final FindingCriteriaEvaluator evaluator = FindingCriteriaEvaluator.compile(criteria);
+            final BitSet expected = new BitSet();
+            final String[] findings = export.toString().split("\n");
+            for (int row = 0; row < findings.length; row++) {
+                expected.set(row, evaluator.matches(findings[row]));
+            }
+
+            assertThat(index.select(criteria)).as("%s", criterion).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void build_ReadsGzippedExport() throws IOException {
+        final Path export = tempDir.resolve("findings.jsonl.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(export))) {
+            output.write("{\"a\":\"x\"}\n{\"a\":\"y\"}\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(FindingsIndex.build(export).count(criteria(ImmutableMap.of("a", eq("y"))))).isEqualTo(1);
+    }
+
+    @Test
+    public void build_RejectsNonObjectAndMissingFile() {
+        assertThrows(IllegalArgumentException.class, () -> FindingsIndex.build(input("{}\n[]\n")));
+        assertThrows(UncheckedIOException.class, () -> FindingsIndex.build(input("{\"a\":")));
+        assertThrows(UncheckedIOException.class, () -> FindingsIndex.build(tempDir.resolve("missing.jsonl")));
+    }
+
+    private static FindingsIndex index(final String... findings) {
+        return FindingsIndex.build(input(String.join("\n", findings)));
+    }
+
+    private static List<Integer> rows(final FindingsIndex index, final Map<String, CriterionAdditionalProperties> criterion) {
+        final List<Integer> rows = new ArrayList<>();
+        index.select(criteria(criterion)).stream().forEach(rows::add);
+        return rows;
+    }
+
+    private static ByteArrayInputStream input(final String export) {
+        return new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String randomFinding(final Random random) {
+        final StringBuilder finding = new StringBuilder("{\"accountId\":\"").append(random.nextInt(4)).append('"');
+        if (random.nextInt(5) > 0) {
+            finding.append(",\"severity\":{\"description\":\"").append(new String[] {"Low", "Medium", "High"}[random.nextInt(3)])
+                .append("\",\"score\":").append(random.nextInt(4)).append(random.nextBoolean() ? ".5" : "").append('}');
+        }
+        finding.append(",\"createdAt\":\"1970-01-01T00:00:0").append(random.nextInt(10)).append("Z\"");
+        finding.append(",\"classificationDetails\":{\"result\":{\"sensitiveData\":[");
+        for (int i = random.nextInt(3); i > 0; i--) {
+            finding.append("{\"category\":\"").append(new String[] {"A", "B", "C"}[random.nextInt(3)]).append("\"}")
+                .append(i > 1 ? "," : "");
+        }
+        finding.append("]}},\"resourcesAffected\":{\"s3Bucket\":{\"name\":")
+            .append(random.nextInt(4) == 0 ? "null" : "\"b" + random.nextInt(3) + "\"")
+            .append("},\"s3Object\":{\"size\":").append(random.nextInt(5000)).append("}}");
+        finding.append(",\"archived\":").append(random.nextBoolean()).append('}');
+        return finding.toString();
+    }
+}
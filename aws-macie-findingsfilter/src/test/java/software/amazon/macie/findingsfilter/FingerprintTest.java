@@ -0,0 +1,27 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+public class FingerprintTest {
+
+    @Test
+    public void fingerprint_IsStable() {
+        assertThat(new Fingerprint().toString()).isEqualTo(new Fingerprint().toString());
+        assertThat(new Fingerprint().add('N', "filter").toString()).hasSize(32);
+        assertThat(new Fingerprint().add('N', "filter").toString()).isEqualTo("74de97459ada02eb5b17f671306558e8");
+    }
+
+    @Test
+    public void fingerprint_SeparatesFields() {
+        assertThat(new Fingerprint().add('N', "ab").toString()).isNotEqualTo(new Fingerprint().add('N', "a").add('D', "b").toString());
+        assertThat(new Fingerprint().add('N', "ab").toString()).isNotEqualTo(new Fingerprint().add('D', "ab").toString());
+        assertThat(new Fingerprint().addAll('e', ImmutableList.of("a", "b")).toString())
+            .isNotEqualTo(new Fingerprint().addAll('e', ImmutableList.of("ab")).toString());
+        // absent and empty values are the same
+        assertThat(new Fingerprint().add('D', "").addAll('e', ImmutableList.of()).add('P', (Integer) null).toString())
+            .isEqualTo(new Fingerprint().toString());
+    }
+}
@@ -0,0 +1,144 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.macie.findingsfilter.FakeMacie2Client.ALL_OPERATIONS;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * Runs concurrent create, update and delete flows through the unchanged handlers against {@link FakeMacie2Client} with latency,
+ * throttling and 5xx injection. Raise {@code FLOWS} and {@code THREADS} locally for a real load run.
+ * <p>
+ * The concurrent run is tagged {@code load} and only runs with {@code mvn -Pload-test test}, its thread interleaving and timing
+ * differ from run to run.
+ */
+public class HandlerLoadTest {
+
+    private static final Credentials MOCK_CREDENTIALS = new Credentials("accessKey", "secretKey", "token");
+    private static final String TEST_ACCOUNT_ID = "999999999999";
+    private static final int FLOWS = 200;
+    private static final int THREADS = 32;
+    // retried errors come back as IN_PROGRESS, CloudFormation would re-invoke the handler that many times at most here
+    private static final int MAX_INVOCATIONS = 20;
+
+    private final LoggerProxy logger = new LoggerProxy();
+
+    @Test
+    @Tag("load")
+    public void concurrentFlows_SucceedDespiteInjectedFaults() throws Exception {
+        final FakeMacie2Client macie2 = FakeMacie2Client.withMacieEnabled()
+            .withLatency(ALL_OPERATIONS, FakeMacie2Client.logNormalLatency(2, 0.5))
+            .withThrottleRate(ALL_OPERATIONS, 0.05)
+            .withServerErrorRate(ALL_OPERATIONS, 0.01);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> flows = new ArrayList<>();
+            for (int i = 0; i < FLOWS; i++) {
+                final int flow = i;
+                flows.add(executor.submit(() -> createUpdateDelete(macie2, flow)));
+            }
+            for (final Future<?> flow : flows) {
+                flow.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(macie2.findingsFilterCount()).isZero();
+        assertThat(macie2.invocations("CreateFindingsFilter")).isGreaterThanOrEqualTo(FLOWS);
+        assertThat(macie2.invocations("DeleteFindingsFilter")).isGreaterThanOrEqualTo(FLOWS);
+        assertThat(macie2.throttled() + macie2.serverErrors()).isPositive();
+    }
+
+    private void createUpdateDelete(final FakeMacie2Client macie2, final int flow) {
+        final ResourceModel desired = ResourceModel.builder()
+            .name("findings_filter_" + flow)
+            .description("load test filter")
+            .action("ARCHIVE")
+            // every other flow lets Macie pick the position, which makes create read the filter back
+            .position(flow % 2 == 0 ? flow + 1 : null)
+            .findingCriteria(FindingCriteria.builder()
+                .criterion(ImmutableMap.of(
+                    "accountId", CriterionAdditionalProperties.builder().eq(ImmutableList.of(TEST_ACCOUNT_ID)).build()))
+                .build())
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> created = drive(macie2, new CreateHandler(),
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId(TEST_ACCOUNT_ID)
+                .clientRequestToken("create-" + flow)
+                .desiredResourceState(desired)
+                .build());
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ResourceModel model = created.getResourceModel();
+        assertThat(model.getId()).isNotNull();
+
+        final ResourceModel update = ResourceModel.builder()
+            .id(model.getId())
+            .arn(model.getArn())
+            .name(model.getName())
+            .description("updated load test filter")
+            .action(model.getAction())
+            .position(model.getPosition())
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> updated = drive(macie2, new UpdateHandler(),
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId(TEST_ACCOUNT_ID)
+                .clientRequestToken("update-" + flow)
+                .desiredResourceState(update)
+                .previousResourceState(model)
+                .build());
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(updated.getResourceModel().getDescription()).isEqualTo("updated load test filter");
+
+        final ProgressEvent<ResourceModel, CallbackContext> deleted = drive(macie2, new DeleteHandler(),
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId(TEST_ACCOUNT_ID)
+                .clientRequestToken("delete-" + flow)
+                .desiredResourceState(ResourceModel.builder().id(model.getId()).build())
+                .build());
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    /**
+     * Invokes the handler the way CloudFormation does, passing the callback context back in while it reports progress. The callback delay
+     * is not waited out, the fake recovers immediately.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> drive(final Macie2Client macie2, final BaseMacieFindingFilterHandler handler,
+        final ResourceHandlerRequest<ResourceModel> request) {
+        CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> event = null;
+        for (int i = 0; i < MAX_INVOCATIONS; i++) {
+            final AmazonWebServicesClientProxy proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS,
+                () -> Duration.ofSeconds(600).toMillis());
+            final ProxyClient<Macie2Client> proxyClient = proxy.newProxy(() -> macie2);
+            event = handler.handleRequest(proxy, request, callbackContext, proxyClient, logger);
+            if (event.getStatus() != OperationStatus.IN_PROGRESS) {
+                return event;
+            }
+            if (event.getCallbackContext() != null) {
+                callbackContext = event.getCallbackContext();
+            }
+        }
+        return event;
+    }
+}
@@ -24,9 +24,12 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.macie.findingsfilter.BaseMacieFindingFilterHandler.MACIE_NOT_ENABLED;
 import static software.amazon.macie.findingsfilter.ListHandler.OPERATION;
@@ -181,4 +184,54 @@ public class ListHandlerTest {
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModels()).isNull();
     }
+
+    @Test
+    public void handleRequest_AggregatePages_FollowsNextToken() {
+        handler = new ListHandler(true, Duration.ofSeconds(20), ListHandler.MAX_AGGREGATED_ITEMS, System::nanoTime);
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(ListFindingsFiltersRequest.class), any()))
+            .thenReturn(listPage(FILTER_ID, NEXT_TOKEN), listPage(FILTER_ID + "-2", null));
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isNull();
+        assertThat(response.getResourceModel().getFindingsFilterListItems())
+            .extracting(software.amazon.macie.findingsfilter.FindingsFilterListItem::getId)
+            .containsExactly(FILTER_ID, FILTER_ID + "-2");
+        verify(proxyMacie2Client, times(2)).injectCredentialsAndInvokeV2(any(ListFindingsFiltersRequest.class), any());
+    }
+
+    @Test
+    public void handleRequest_AggregatePages_BudgetExhausted_ReturnsNextToken() {
+        // every clock read moves time forward by a second, so the first page uses up the budget
+        final AtomicLong clock = new AtomicLong();
+        handler = new ListHandler(true, Duration.ofSeconds(2), ListHandler.MAX_AGGREGATED_ITEMS,
+            () -> clock.getAndAdd(Duration.ofSeconds(1).toNanos()));
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(ListFindingsFiltersRequest.class), any()))
+            .thenReturn(listPage(FILTER_ID, NEXT_TOKEN));
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isEqualTo(NEXT_TOKEN);
+        assertThat(response.getResourceModel().getFindingsFilterListItems()).hasSize(1);
+        verify(proxyMacie2Client, times(1)).injectCredentialsAndInvokeV2(any(ListFindingsFiltersRequest.class), any());
+    }
+
+    private ListFindingsFiltersResponse listPage(final String id, final String nextToken) {
+        return ListFindingsFiltersResponse.builder()
+            .findingsFilterListItems(ImmutableList.of(FindingsFilterListItem.builder().name(FILTER_NAME).id(id).build()))
+            .nextToken(nextToken)
+            .build();
+    }
 }
@@ -0,0 +1,138 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.GetMacieSessionRequest;
+import software.amazon.awssdk.services.macie2.model.GetMacieSessionResponse;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+public class MeteredProxyClientTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+    private static final GetMacieSessionRequest REQUEST = GetMacieSessionRequest.builder().build();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> lines = new ArrayList<>();
+    private ProxyClient<Macie2Client> delegate;
+    private ProxyClient<Macie2Client> metered;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        lines.clear();
+        delegate = mock(ProxyClient.class);
+        metered = MeteredProxyClient.wrap(delegate, new EmfMetrics(lines::add, true, () -> NOW), () -> 2);
+    }
+
+    @Test
+    public void invoke_WritesEmfLineForSuccessfulCall() throws Exception {
+        final GetMacieSessionResponse response = (GetMacieSessionResponse) GetMacieSessionResponse.builder()
+            .status("ENABLED")
+            .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).putHeader("Content-Length", "42").build())
+            .build();
+        doReturn(response).when(delegate).injectCredentialsAndInvokeV2(any(GetMacieSessionRequest.class), any());
+
+        assertThat(metered.injectCredentialsAndInvokeV2(REQUEST, r -> response)).isSameAs(response);
+
+        assertThat(lines).hasSize(1);
+        final JsonNode line = mapper.readTree(lines.get(0));
+        assertThat(line.at("/_aws/Timestamp").asLong()).isEqualTo(NOW);
+        assertThat(line.at("/_aws/CloudWatchMetrics/0/Namespace").asText()).isEqualTo(EmfMetrics.NAMESPACE);
+        assertThat(line.at("/_aws/CloudWatchMetrics/0/Dimensions/0/1").asText()).isEqualTo("Operation");
+        assertThat(line.at("/_aws/CloudWatchMetrics/0/Metrics/0/Name").asText()).isEqualTo("Latency");
+        assertThat(line.get("ResourceType").asText()).isEqualTo(ResourceModel.TYPE_NAME);
+        assertThat(line.get("Operation").asText()).isEqualTo("macie2::GetMacieSession");
+        assertThat(line.get("Error").asInt()).isEqualTo(0);
+        assertThat(line.get("StatusCode").asInt()).isEqualTo(200);
+        assertThat(line.get("ResponseSize").asLong()).isEqualTo(42);
+        assertThat(line.get("RetryAttempt").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    public void invoke_MalformedContentLengthSkipsResponseSize() throws Exception {
+        final GetMacieSessionResponse response = (GetMacieSessionResponse) GetMacieSessionResponse.builder()
+            .status("ENABLED")
+            .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).putHeader("Content-Length", "42, 42").build())
+            .build();
+        doReturn(response).when(delegate).injectCredentialsAndInvokeV2(any(GetMacieSessionRequest.class), any());
+
+        assertThat(metered.injectCredentialsAndInvokeV2(REQUEST, r -> response)).isSameAs(response);
+
+        final JsonNode line = mapper.readTree(lines.get(0));
+        assertThat(line.get("StatusCode").asInt()).isEqualTo(200);
+        assertThat(line.has("ResponseSize")).isFalse();
+    }
+
+    @Test
+    public void invoke_WritesEmfLineForFailedCall() throws Exception {
+        final Macie2Exception exception = (Macie2Exception) Macie2Exception.builder()
+            .statusCode(429)
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+            .build();
+        doThrow(exception).when(delegate).injectCredentialsAndInvokeV2(any(GetMacieSessionRequest.class), any());
+
+        assertThatThrownBy(() -> metered.injectCredentialsAndInvokeV2(REQUEST, r -> GetMacieSessionResponse.builder().build()))
+            .isSameAs(exception);
+
+        final JsonNode line = mapper.readTree(lines.get(0));
+        assertThat(line.get("Error").asInt()).isEqualTo(1);
+        assertThat(line.get("StatusCode").asInt()).isEqualTo(429);
+        assertThat(line.get("ErrorCode").asText()).isEqualTo("ThrottlingException");
+        assertThat(line.has("ResponseSize")).isFalse();
+    }
+
+    @Test
+    public void invokeAsync_RecordsOnCompletion() throws Exception {
+        final CompletableFuture<GetMacieSessionResponse> future = new CompletableFuture<>();
+        doReturn(future).when(delegate).injectCredentialsAndInvokeV2Async(any(GetMacieSessionRequest.class), any());
+
+        assertThat(metered.injectCredentialsAndInvokeV2Async(REQUEST, r -> future)).isSameAs(future);
+        assertThat(lines).isEmpty();
+
+        future.completeExceptionally(new IllegalStateException("connection reset"));
+        final JsonNode line = mapper.readTree(lines.get(0));
+        assertThat(line.get("Error").asInt()).isEqualTo(1);
+        assertThat(line.get("ErrorCode").asText()).isEqualTo("IllegalStateException");
+        assertThat(line.has("StatusCode")).isFalse();
+    }
+
+    @Test
+    public void wrap_ReturnsDelegateWhenDisabled() {
+        assertThat(MeteredProxyClient.wrap(delegate, new EmfMetrics(lines::add, false, () -> NOW), () -> 0)).isSameAs(delegate);
+    }
+
+    @Test
+    public void emit_SkipsEntriesWithoutMetrics() {
+        new EmfMetrics(lines::add, true, () -> NOW).entry("macie2::GetMacieSession").property("RetryAttempt", 1).emit();
+
+        assertThat(lines).isEmpty();
+    }
+
+    @Test
+    public void delegatesClientAndOtherInvocations() {
+        final Macie2Client client = mock(Macie2Client.class);
+        doReturn(client).when(delegate).client();
+
+        assertThat(metered.client()).isSameAs(client);
+        metered.injectCredentialsAndInvokeIterableV2(REQUEST, r -> null);
+        metered.injectCredentialsAndInvokeV2InputStream(REQUEST, r -> null);
+        metered.injectCredentialsAndInvokeV2Bytes(REQUEST, r -> null);
+        assertThat(lines).isEmpty();
+    }
+}
@@ -119,6 +119,58 @@ public class ReadHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_Throttled_FailsWithoutCallbackDelay() {
+        AwsServiceException throttlingException = Macie2Exception.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode("ThrottlingException")
+                .errorMessage("Rate exceeded")
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(429).build())
+                .build()
+            )
+            .build();
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any())).thenThrow(throttlingException);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        // Read can't return IN_PROGRESS, CloudFormation retries a throttled read itself
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getCallbackContext()).isNull();
+    }
+
+    @Test
+    public void handleRequest_ServerError_FailsWithoutCallbackDelay() {
+        AwsServiceException serverException = Macie2Exception.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode("InternalServerException")
+                .errorMessage("Internal error")
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(500).build())
+                .build()
+            )
+            .build();
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any())).thenThrow(serverException);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+    }
+
     @Test
     public void handleRequest_NotFound_Fails() {
         AwsServiceException filterNotFoundException = Macie2Exception.builder()
@@ -174,4 +226,35 @@ public class ReadHandlerTest {
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModels()).isNull();
     }
+
+    @Test
+    public void fingerprint_IgnoresOrderAndRedundantCriteria() {
+        final ResourceModel model = ResourceModel.builder()
+            .id("id")
+            .name("filter")
+            .description("description")
+            .action("ARCHIVE")
+            .position(1)
+            .findingCriteria(FindingCriteria.builder().criterion(ImmutableMap.of(
+                "accountId", CriterionAdditionalProperties.builder().eq(ImmutableList.of("2", "1")).build(),
+                "severity.score", CriterionAdditionalProperties.builder().gt(1).gte(2).build())).build())
+            .build();
+        final ResourceModel read = ResourceModel.builder()
+            .arn("arn")
+            .name("filter")
+            .description("description")
+            .action("ARCHIVE")
+            .position(1)
+            .findingCriteria(FindingCriteria.builder().criterion(ImmutableMap.of(
+                "severity.score", CriterionAdditionalProperties.builder().gte(2).build(),
+                "accountId", CriterionAdditionalProperties.builder().eq(ImmutableList.of("1", "2", "1")).build())).build())
+            .build();
+
+        assertThat(ReadHandler.fingerprint(model)).isEqualTo(ReadHandler.fingerprint(read));
+        read.setPosition(2);
+        assertThat(ReadHandler.fingerprint(model)).isNotEqualTo(ReadHandler.fingerprint(read));
+        read.setPosition(1);
+        read.getFindingCriteria().getCriterion().get("accountId").setNeq(ImmutableList.of("3"));
+        assertThat(ReadHandler.fingerprint(model)).isNotEqualTo(ReadHandler.fingerprint(read));
+    }
 }
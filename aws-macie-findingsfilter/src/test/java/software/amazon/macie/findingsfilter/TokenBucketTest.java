@@ -0,0 +1,35 @@
+package software.amazon.macie.findingsfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void acquire_HandsOutTokensUntilEmpty() {
+        final TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(1), clock::get);
+
+        assertThat(bucket.acquire()).isEqualTo(Duration.ZERO);
+        assertThat(bucket.acquire()).isEqualTo(Duration.ZERO);
+        assertThat(bucket.acquire()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(bucket.acquire()).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    public void acquire_RefillsOverTimeUpToCapacity() {
+        final TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(1), clock::get);
+        bucket.acquire();
+        bucket.acquire();
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(bucket.acquire()).isEqualTo(Duration.ZERO);
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertThat(bucket.available()).isEqualTo(2.0);
+    }
+}
@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static software.amazon.macie.findingsfilter.BaseMacieFindingFilterHandler.FILTER_ALREADY_EXISTS;
 import static software.amazon.macie.findingsfilter.BaseMacieFindingFilterHandler.MACIE_NOT_ENABLED;
@@ -138,6 +140,153 @@ public class UpdateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_NoChanges_SkipsApiCalls() {
+        final ResourceModel previousModel = ResourceModel.builder()
+            .id(FILTER_ID)
+            .arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID))
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .action(FILTER_ACTION)
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(previousModel)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(previousModel);
+        verifyZeroInteractions(proxyMacie2Client);
+    }
+
+    @Test
+    public void handleRequest_SendsOnlyChangedProperties() {
+        final ResourceModel previousModel = ResourceModel.builder()
+            .id(FILTER_ID)
+            .name(FILTER_NAME)
+            .description("previous_description")
+            .action(FILTER_ACTION)
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(UpdateFindingsFilterRequest.class), any())).thenReturn(
+            UpdateFindingsFilterResponse.builder().id(FILTER_ID).build());
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any())).thenReturn(
+            GetFindingsFilterResponse.builder()
+                .id(FILTER_ID)
+                .name(FILTER_NAME)
+                .description(FILTER_DESCRIPTION)
+                .action(FILTER_ACTION)
+                .findingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria.builder()
+                    .criterion(ImmutableMap.of(
+                        ACCOUNT_ID,
+                        software.amazon.awssdk.services.macie2.model.CriterionAdditionalProperties.builder().eq(ImmutableList.of(TEST_ACCOUNT_ID)).build()
+                    ))
+                    .build())
+                .build());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(previousModel)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyMacie2Client).injectCredentialsAndInvokeV2(argThat(awsRequest -> awsRequest instanceof UpdateFindingsFilterRequest
+            && FILTER_ID.equals(((UpdateFindingsFilterRequest) awsRequest).id())
+            && FILTER_DESCRIPTION.equals(((UpdateFindingsFilterRequest) awsRequest).description())
+            && ((UpdateFindingsFilterRequest) awsRequest).name() == null
+            && ((UpdateFindingsFilterRequest) awsRequest).findingCriteria() == null), any());
+    }
+
+    @Test
+    public void handleRequest_OptimizedCriteria_EquivalentCriteriaSkipApiCalls() {
+        final FindingCriteria redundantCriteria = FindingCriteria.builder()
+            .criterion(ImmutableMap.of(
+                ACCOUNT_ID, CriterionAdditionalProperties.builder().eq(ImmutableList.of(TEST_ACCOUNT_ID, TEST_ACCOUNT_ID)).build()))
+            .build();
+        final ResourceModel desiredModel = ResourceModel.builder()
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .action(FILTER_ACTION)
+            .findingCriteria(redundantCriteria)
+            .build();
+        final ResourceModel previousModel = ResourceModel.builder()
+            .id(FILTER_ID)
+            .arn(String.format(FILTER_ARN, TEST_ACCOUNT_ID, FILTER_ID))
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .action(FILTER_ACTION)
+            .findingCriteria(model.getFindingCriteria())
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(desiredModel)
+            .previousResourceState(previousModel)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = new UpdateHandler(true).handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getId()).isEqualTo(FILTER_ID);
+        assertThat(response.getResourceModel().getFindingCriteria()).isEqualTo(FindingCriteriaOptimizer.optimize(redundantCriteria));
+        assertThat(response.getResourceModel().getFindingCriteria().getCriterion().get(ACCOUNT_ID).getEq())
+            .containsExactly(TEST_ACCOUNT_ID);
+        verifyZeroInteractions(proxyMacie2Client);
+    }
+
+    @Test
+    public void handleRequest_OptimizedCriteria_SendsCanonicalCriteria() {
+        final ResourceModel desiredModel = ResourceModel.builder()
+            .id(FILTER_ID)
+            .name(FILTER_NAME)
+            .description(FILTER_DESCRIPTION)
+            .action(FILTER_ACTION)
+            .findingCriteria(FindingCriteria.builder()
+                .criterion(ImmutableMap.of(
+                    ACCOUNT_ID, CriterionAdditionalProperties.builder().eq(ImmutableList.of(TEST_ACCOUNT_ID, "111111111111", TEST_ACCOUNT_ID))
+                        .neq(ImmutableList.of("111111111111")).build(),
+                    "severity.score", CriterionAdditionalProperties.builder().gt(1).gte(2).build()))
+                .build())
+            .build();
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(UpdateFindingsFilterRequest.class), any())).thenReturn(
+            UpdateFindingsFilterResponse.builder().id(FILTER_ID).build());
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetFindingsFilterRequest.class), any())).thenReturn(
+            GetFindingsFilterResponse.builder()
+                .id(FILTER_ID)
+                .name(FILTER_NAME)
+                .description(FILTER_DESCRIPTION)
+                .action(FILTER_ACTION)
+                .findingCriteria(software.amazon.awssdk.services.macie2.model.FindingCriteria.builder().build())
+                .build());
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(desiredModel)
+            .previousResourceState(model)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = new UpdateHandler(true).handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyMacie2Client).injectCredentialsAndInvokeV2(argThat(awsRequest -> {
+            if (!(awsRequest instanceof UpdateFindingsFilterRequest)) {
+                return false;
+            }
+            final software.amazon.awssdk.services.macie2.model.FindingCriteria criteria
+                = ((UpdateFindingsFilterRequest) awsRequest).findingCriteria();
+            return criteria.criterion().get(ACCOUNT_ID).eq().equals(ImmutableList.of(TEST_ACCOUNT_ID))
+                && criteria.criterion().get(ACCOUNT_ID).neq().equals(ImmutableList.of("111111111111"))
+                && criteria.criterion().get("severity.score").gt() == null
+                && criteria.criterion().get("severity.score").gte() == 2L;
+        }), any());
+    }
+
     @Test
     public void handleRequest_NotFound_Fails() {
         AwsServiceException filterNotFoundException = Macie2Exception.builder()
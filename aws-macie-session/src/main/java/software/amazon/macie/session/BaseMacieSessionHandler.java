@@ -1,9 +1,6 @@
 package software.amazon.macie.session;
 
-import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.http.HttpStatus;
 import software.amazon.awssdk.services.macie2.Macie2Client;
-import software.amazon.awssdk.services.macie2.model.Macie2Exception;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
@@ -16,23 +13,25 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public abstract class BaseMacieSessionHandler extends BaseHandler<CallbackContext> {
 
-    // All Macie session APIs return this message whe Macie is not enabled
-    // Error code being 403, we can't depend on error code for this.
-    protected final static String MACIE_NOT_ENABLED = "Macie is not enabled";
-    protected final static String MACIE_ALREADY_ENABLED = "Macie has already been enabled";
+    protected final static String MACIE_NOT_ENABLED = ErrorClassifier.MACIE_NOT_ENABLED;
+    protected final static String MACIE_ALREADY_ENABLED = ErrorClassifier.MACIE_ALREADY_ENABLED;
     protected static final String MACIE_ALREADY_ENABLED_EXPECTED_MESSAGE = "Resource of type '%s' with identifier '%s' already exists.";
     protected static final String MACIE_NOT_ENABLED_EXPECTED_MESSAGE = "Resource of type '%s' with identifier '%s' was not found.";
-    private final static String RETRY_MESSAGE = "Detected retryable error for AWS account id [%s], retrying. Exception message: %s";
-    private final static String EXCEPTION_MESSAGE = "Exception occurred for AWS account id [%s]. Exception message: %s";
+    private final static String RETRY_MESSAGE = "Detected retryable error for AWS account id [%s], retrying in %d seconds (attempt %d). Exception message: %s";
+    // without Macie there is no session
+    private static final ErrorClassifier ERRORS = ErrorClassifier.forMacie(HandlerErrorCode.NotFound);
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(AmazonWebServicesClientProxy proxy,
         ResourceHandlerRequest<ResourceModel> request, CallbackContext callbackContext, Logger logger) {
+        final CallbackContext context = callbackContext != null ? callbackContext : new CallbackContext();
+        final EmfMetrics metrics = new EmfMetrics(logger);
+        final ProxyClient<Macie2Client> proxyClient = MeteredProxyClient.wrap(proxy.newProxy(ClientBuilder::getClient), metrics, context::getRetryAttempts);
         return handleRequest(
             proxy,
             request,
-            callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(ClientBuilder::getClient),
+            context,
+            proxyClient,
             logger);
     }
 
@@ -43,30 +42,51 @@ public abstract class BaseMacieSessionHandler extends BaseHandler<CallbackContex
         ProxyClient<Macie2Client> proxyClient,
         Logger logger);
 
-    private Boolean retryError(Exception exception) {
-        return exception instanceof Macie2Exception
-            && ((Macie2Exception) exception).awsErrorDetails().sdkHttpResponse().statusCode() == HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    /**
+     * Only Create, Update and Delete may return IN_PROGRESS. Read and List fail with Throttling or ServiceInternalError once the
+     * SDK has spent its own retries, and CloudFormation retries them.
+     */
+    protected boolean retriesWithCallbackDelay() {
+        return true;
     }
 
     public ProgressEvent<ResourceModel, CallbackContext> handleError(final String operation,
         ResourceHandlerRequest<ResourceModel> request, final Exception exception,
         final ResourceModel model,
         CallbackContext context, Logger logger) {
-        // All InternalServerExceptions are retryable
-        if (retryError(exception)) {
-            logger.log(String.format(RETRY_MESSAGE, request.getAwsAccountId(), exception.getMessage()));
-            return ProgressEvent.progress(model, context);
+        if (RetryPolicy.isRetryable(exception) && !retriesWithCallbackDelay()) {
+            final HandlerErrorCode errorCode = RetryPolicy.isThrottling(exception)
+                ? HandlerErrorCode.Throttling : HandlerErrorCode.ServiceInternalError;
+            ERRORS.log(logger, operation, request.getAwsAccountId(), exception, errorCode);
+            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .status(OperationStatus.FAILED)
+                .errorCode(errorCode)
+                .message(exception.getMessage())
+                .build();
+        }
+        // Throttling, server side and network errors are retried after a callback delay, until the retry budget is spent
+        if (RetryPolicy.isRetryable(exception) && context.getRetryAttempts() < RetryPolicy.MAX_RETRY_ATTEMPTS) {
+            context.setRetryAttempts(context.getRetryAttempts() + 1);
+            final int delaySeconds = RetryPolicy.callbackDelaySeconds(context.getRetryAttempts());
+            logger.log(String.format(RETRY_MESSAGE, request.getAwsAccountId(), delaySeconds, context.getRetryAttempts(), exception.getMessage()));
+            new EmfMetrics(logger).entry(operation)
+                .metric("Retries", 1, EmfMetrics.COUNT)
+                .metric("RetryDelay", delaySeconds, EmfMetrics.SECONDS)
+                .property("RetryAttempt", context.getRetryAttempts())
+                .emit();
+            return ProgressEvent.defaultInProgressHandler(context, delaySeconds, model);
         }
 
-        logger.log(String.format(EXCEPTION_MESSAGE, request.getAwsAccountId(), ExceptionUtils.getStackTrace(exception)));
+        final HandlerErrorCode errorCode = ERRORS.classify(exception);
+        ERRORS.log(logger, operation, request.getAwsAccountId(), exception, errorCode);
         ProgressEventBuilder<ResourceModel, CallbackContext> failureProgressEvent = ProgressEvent.<ResourceModel, CallbackContext>builder()
             .status(OperationStatus.FAILED);
-        if (exception.getMessage().contains(MACIE_NOT_ENABLED)) {
+        if (errorCode == HandlerErrorCode.NotFound) {
             return failureProgressEvent
                 .errorCode(HandlerErrorCode.NotFound)
                 .message(String.format(MACIE_NOT_ENABLED_EXPECTED_MESSAGE, ResourceModel.TYPE_NAME, model.getAwsAccountId()))
                 .build();
-        } else if (exception.getMessage().contains(MACIE_ALREADY_ENABLED)) {
+        } else if (errorCode == HandlerErrorCode.AlreadyExists) {
             return failureProgressEvent
                 .errorCode(HandlerErrorCode.AlreadyExists)
                 .message(String.format(MACIE_ALREADY_ENABLED_EXPECTED_MESSAGE, ResourceModel.TYPE_NAME, model.getAwsAccountId()))
@@ -1,12 +1,21 @@
 package software.amazon.macie.session;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 @Builder
+@EqualsAndHashCode(callSuper = true)
 public class CallbackContext extends StdCallbackContext {
+    // Stabilization state survives re-invocations, so backoff and deadline span the whole create
+    private int stabilizationAttempts;
+    private Long stabilizationStartedAt;
+    // Retries of throttled and transient failures handed back to CloudFormation as callback delays
+    private int retryAttempts;
 }
@@ -1,12 +1,41 @@
 package software.amazon.macie.session;
 
+import java.net.URI;
+import java.time.Duration;
+import software.amazon.awssdk.core.SdkSystemSetting;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.Macie2ClientBuilder;
 import software.amazon.cloudformation.LambdaWrapper;
 
 class ClientBuilder {
+    private static final int MAX_CACHED_CLIENTS = 8;
+    private static final Duration CLIENT_IDLE_TIMEOUT = Duration.ofMinutes(15);
+
+    // Building a client sets up the service model and interceptor chain, reuse them across warm invocations.
+    private static final ClientCache<Macie2Client> CLIENTS = new ClientCache<>(MAX_CACHED_CLIENTS, CLIENT_IDLE_TIMEOUT);
+
     static Macie2Client getClient() {
-        return Macie2Client.builder()
-            .httpClient(LambdaWrapper.HTTP_CLIENT)
-            .build();
+        return getClient(SdkSystemSetting.AWS_REGION.getStringValue().orElse(null), null);
+    }
+
+    static Macie2Client getClient(final String region, final String endpoint) {
+        return CLIENTS.get(region, endpoint, () -> newClient(region, endpoint));
+    }
+
+    static ClientCache<Macie2Client> clientCache() {
+        return CLIENTS;
+    }
+
+    private static Macie2Client newClient(final String region, final String endpoint) {
+        final Macie2ClientBuilder builder = Macie2Client.builder()
+            .httpClient(LambdaWrapper.HTTP_CLIENT);
+        if (region != null) {
+            builder.region(Region.of(region));
+        }
+        if (endpoint != null) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 }
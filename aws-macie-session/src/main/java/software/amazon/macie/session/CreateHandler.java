@@ -1,9 +1,10 @@
 package software.amazon.macie.session;
 
+import java.util.concurrent.atomic.AtomicReference;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.EnableMacieRequest;
-import software.amazon.awssdk.services.macie2.model.EnableMacieResponse;
 import software.amazon.awssdk.services.macie2.model.GetMacieSessionRequest;
+import software.amazon.awssdk.services.macie2.model.GetMacieSessionResponse;
 import software.amazon.awssdk.services.macie2.model.Macie2Exception;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -14,6 +15,7 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public class CreateHandler extends BaseMacieSessionHandler {
 
     private static final String OPERATION = "macie2:enableMacie";
+    private static final String STABILIZATION_MESSAGE = "Stabilization attempt for AWS account id [%s]: attempt %d %s in %d ms, %d ms since first attempt";
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -26,6 +28,8 @@ public class CreateHandler extends BaseMacieSessionHandler {
         final ResourceModel model = request.getDesiredResourceState();
         // We use awsAccountId as Macie session primary identifier
         model.setAwsAccountId(request.getAwsAccountId());
+        // Successful stabilization already read the session, keep it to build the result
+        final AtomicReference<GetMacieSessionResponse> stabilizedSession = new AtomicReference<>();
 
         // initiate the call context.
         return proxy.initiate(OPERATION, client, model, callbackContext)
@@ -37,27 +41,48 @@ public class CreateHandler extends BaseMacieSessionHandler {
                 .build())
             // Make a service call. Handler does not worry about credentials, they are auto injected
             .makeServiceCall((r, c) -> c.injectCredentialsAndInvokeV2(r, c.client()::enableMacie))
+            // Poll with exponential backoff, the wait and the deadline carry over re-invocations through the callback context
+            .backoffDelay(new StabilizationBackoff(callbackContext))
             // Ensure all requisite resources are created and we can query Macie session
-            .stabilize(this::stabilize)
+            .stabilize((r, response, c, m, context) -> stabilize(request, c, context, stabilizedSession, logger))
             // return appropriate failed progress event status by mapping business exceptions.
             .handleError((_request, _exception, _client, _model, _context) -> handleError(OPERATION, request, _exception, _model, _context, logger))
             // Once ACTIVE return progress
             .progress()
-            // we then delegate to ReadHandler to read the live state and send back successful response.
-            .then((r) -> new ReadHandler()
-                .handleRequest(proxy, request, callbackContext, client, logger));
+            // build the response from the session read during stabilization, or delegate to ReadHandler to read the live state.
+            .then((r) -> stabilizedSession.get() != null
+                ? new ReadHandler().buildModelFromResponse(GetMacieSessionRequest.builder().build(), stabilizedSession.get(), client,
+                    r.getResourceModel(), r.getCallbackContext())
+                : new ReadHandler(true).handleRequest(proxy, request, callbackContext, client, logger));
     }
 
-    private Boolean stabilize(EnableMacieRequest enableMacieRequest, EnableMacieResponse enableMacieResponse, ProxyClient<Macie2Client> proxyClient,
-        ResourceModel resourceModel, CallbackContext callbackContext) {
+    private Boolean stabilize(ResourceHandlerRequest<ResourceModel> request, ProxyClient<Macie2Client> proxyClient,
+        CallbackContext callbackContext, AtomicReference<GetMacieSessionResponse> stabilizedSession, Logger logger) {
+        final long attemptStart = System.currentTimeMillis();
+        if (callbackContext.getStabilizationStartedAt() == null) {
+            callbackContext.setStabilizationStartedAt(attemptStart);
+        }
+        callbackContext.setStabilizationAttempts(callbackContext.getStabilizationAttempts() + 1);
+
+        boolean stabilized;
         try {
             // Check if Macie status can be queried successfully.
-            proxyClient.injectCredentialsAndInvokeV2(
-                GetMacieSessionRequest.builder().build(),
-                proxyClient.client()::getMacieSession);
-            return true;
+            stabilizedSession.set(proxyClient.injectCredentialsAndInvokeV2(GetMacieSessionRequest.builder().build(),
+                proxyClient.client()::getMacieSession));
+            stabilized = true;
         } catch (Macie2Exception e) {
-            return false;
+            stabilized = false;
+        }
+
+        final long attemptEnd = System.currentTimeMillis();
+        logger.log(String.format(STABILIZATION_MESSAGE, request.getAwsAccountId(), callbackContext.getStabilizationAttempts(),
+            stabilized ? "stabilized" : "not stabilized", attemptEnd - attemptStart, attemptEnd - callbackContext.getStabilizationStartedAt()));
+        if (stabilized) {
+            new EmfMetrics(logger).entry(OPERATION)
+                .metric("StabilizationAttempts", callbackContext.getStabilizationAttempts(), EmfMetrics.COUNT)
+                .metric("StabilizationTime", attemptEnd - callbackContext.getStabilizationStartedAt(), EmfMetrics.MILLISECONDS)
+                .emit();
         }
+        return stabilized;
     }
 }
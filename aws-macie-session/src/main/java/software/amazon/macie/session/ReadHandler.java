@@ -13,6 +13,19 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public class ReadHandler extends BaseMacieSessionHandler {
     private static final String OPERATION = "macie2::getMacieSession";
 
+    private final boolean retriesWithCallbackDelay;
+
+    public ReadHandler() {
+        this(false);
+    }
+
+    /**
+     * @param retriesWithCallbackDelay true when the read finishes a create or update, which may come back after a callback delay
+     */
+    ReadHandler(final boolean retriesWithCallbackDelay) {
+        this.retriesWithCallbackDelay = retriesWithCallbackDelay;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
@@ -37,7 +50,12 @@ public class ReadHandler extends BaseMacieSessionHandler {
             .done(this::buildModelFromResponse);
     }
 
-    private ProgressEvent<ResourceModel, CallbackContext> buildModelFromResponse(GetMacieSessionRequest getMacieSessionRequest,
+    @Override
+    protected boolean retriesWithCallbackDelay() {
+        return retriesWithCallbackDelay;
+    }
+
+    ProgressEvent<ResourceModel, CallbackContext> buildModelFromResponse(GetMacieSessionRequest getMacieSessionRequest,
         GetMacieSessionResponse macieSession,
         ProxyClient<Macie2Client> clientProxyClient, ResourceModel model, CallbackContext callbackContext) {
         model.setStatus(macieSession.statusAsString());
@@ -0,0 +1,60 @@
+package software.amazon.macie.session;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.http.HttpStatus;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+
+/**
+ * Decides which service errors are worth retrying and how long to wait before the next attempt.
+ */
+final class RetryPolicy {
+
+    static final int MAX_RETRY_ATTEMPTS = 8;
+    static final Duration BASE_DELAY = Duration.ofSeconds(2);
+    static final Duration MAX_DELAY = Duration.ofSeconds(60);
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final String THROTTLING_ERROR_CODE = "ThrottlingException";
+
+    // One retry token per 500 ms, shared across invocations in a warm container
+    private static final TokenBucket RETRY_TOKENS = new TokenBucket(10, Duration.ofMillis(500));
+
+    private RetryPolicy() {
+    }
+
+    static boolean isRetryable(final Exception exception) {
+        return isThrottling(exception) || isServerError(exception) || isNetworkError(exception);
+    }
+
+    static boolean isThrottling(final Exception exception) {
+        return exception instanceof Macie2Exception
+            && (ErrorClassifier.statusCode(exception) == SC_TOO_MANY_REQUESTS
+            || THROTTLING_ERROR_CODE.equals(ErrorClassifier.errorCode(exception)));
+    }
+
+    static boolean isServerError(final Exception exception) {
+        return exception instanceof Macie2Exception && ErrorClassifier.statusCode(exception) >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    static boolean isNetworkError(final Exception exception) {
+        // connection resets, timeouts and the like reach us as client exceptions caused by an IOException
+        return exception instanceof SdkClientException && exception.getCause() instanceof IOException;
+    }
+
+    /**
+     * Callback delay for the given retry attempt (1 based): exponential with equal jitter, at least as long as the shared token bucket
+     * needs to hand out a token.
+     */
+    static int callbackDelaySeconds(final int attempt) {
+        return callbackDelaySeconds(attempt, RETRY_TOKENS.acquire(), ThreadLocalRandom.current().nextDouble());
+    }
+
+    static int callbackDelaySeconds(final int attempt, final Duration tokenWait, final double jitter) {
+        final long step = Math.min(MAX_DELAY.toMillis(), BASE_DELAY.toMillis() << Math.min(Math.max(attempt - 1, 0), 30));
+        final long backoff = step / 2 + (long) (jitter * (step - step / 2));
+        final long delay = Math.max(backoff, tokenWait.toMillis());
+        return (int) Math.max(1, Math.min(MAX_DELAY.getSeconds(), (delay + 999) / 1000));
+    }
+}
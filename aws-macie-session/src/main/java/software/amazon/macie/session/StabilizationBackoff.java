@@ -0,0 +1,59 @@
+package software.amazon.macie.session;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import software.amazon.cloudformation.proxy.Delay;
+
+/**
+ * Exponential backoff with jitter for stabilization. The exponent is the number of attempts recorded in the callback context rather than the
+ * attempt number of the current invocation, and the deadline is measured from the first attempt, so both carry over when the proxy hands
+ * the wait back to CloudFormation as a callback delay (which it does whenever the delay does not fit in the remaining Lambda time).
+ */
+class StabilizationBackoff implements Delay {
+
+    static final Duration BASE_DELAY = Duration.ofSeconds(2);
+    static final Duration MAX_DELAY = Duration.ofSeconds(30);
+    static final Duration TIMEOUT = Duration.ofMinutes(15);
+
+    private final CallbackContext context;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Duration timeout;
+    private final LongSupplier currentTimeMillis;
+    private final DoubleSupplier random;
+
+    StabilizationBackoff(final CallbackContext context) {
+        this(context, BASE_DELAY, MAX_DELAY, TIMEOUT, System::currentTimeMillis, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    StabilizationBackoff(final CallbackContext context, final Duration baseDelay, final Duration maxDelay, final Duration timeout,
+        final LongSupplier currentTimeMillis, final DoubleSupplier random) {
+        this.context = context;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.timeout = timeout;
+        this.currentTimeMillis = currentTimeMillis;
+        this.random = random;
+    }
+
+    /**
+     * @return the next wait, or {@link Duration#ZERO} once the stabilization deadline has passed
+     */
+    @Override
+    public Duration nextDelay(final int attempt) {
+        final long now = currentTimeMillis.getAsLong();
+        final long startedAt = context.getStabilizationStartedAt() == null ? now : context.getStabilizationStartedAt();
+        final long remaining = timeout.toMillis() - (now - startedAt);
+        if (remaining <= 0) {
+            return Duration.ZERO;
+        }
+
+        // equal jitter: half of the exponential step is fixed, so waits never collapse to zero
+        final int exponent = Math.min(Math.max(context.getStabilizationAttempts(), attempt) - 1, 30);
+        final long step = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.max(exponent, 0));
+        final long delay = step / 2 + (long) (random.getAsDouble() * (step - step / 2));
+        return Duration.ofMillis(Math.max(1, Math.min(delay, remaining)));
+    }
+}
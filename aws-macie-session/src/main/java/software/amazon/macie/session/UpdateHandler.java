@@ -1,5 +1,6 @@
 package software.amazon.macie.session;
 
+import java.util.Objects;
 import software.amazon.awssdk.services.macie2.Macie2Client;
 import software.amazon.awssdk.services.macie2.model.UpdateMacieSessionRequest;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -10,6 +11,7 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class UpdateHandler extends BaseMacieSessionHandler {
     private static final String OPERATION = "macie2::updateMacieSession";
+    private static final String NO_CHANGES_MESSAGE = "No changes to Macie session for AWS account id [%s], skipping update.";
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -22,6 +24,16 @@ public class UpdateHandler extends BaseMacieSessionHandler {
         final ResourceModel model = request.getDesiredResourceState();
         // We use awsAccountId as Macie session primary identifier
         model.setAwsAccountId(request.getAwsAccountId());
+        final ResourceModel previousModel = request.getPreviousResourceState();
+
+        // Nothing to update, previous state already holds the read-only service role.
+        if (previousModel != null
+            && Objects.equals(model.getStatus(), previousModel.getStatus())
+            && Objects.equals(model.getFindingPublishingFrequency(), previousModel.getFindingPublishingFrequency())) {
+            logger.log(String.format(NO_CHANGES_MESSAGE, request.getAwsAccountId()));
+            model.setServiceRole(previousModel.getServiceRole());
+            return ProgressEvent.defaultSuccessHandler(model);
+        }
 
         // initiate the call context.
         return proxy.initiate(OPERATION, client, model, callbackContext)
@@ -37,7 +49,7 @@ public class UpdateHandler extends BaseMacieSessionHandler {
             // Once ACTIVE return progress
             .progress()
             // we then delegate to ReadHandler to read the live state and send back successful response.
-            .then((r) -> new ReadHandler()
+            .then((r) -> new ReadHandler(true)
                 .handleRequest(proxy, request, callbackContext, client, logger));
     }
 }
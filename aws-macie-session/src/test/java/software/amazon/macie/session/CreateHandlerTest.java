@@ -3,6 +3,8 @@ package software.amazon.macie.session;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.macie.session.BaseMacieSessionHandler.MACIE_ALREADY_ENABLED;
 import static software.amazon.macie.session.BaseMacieSessionHandler.MACIE_ALREADY_ENABLED_EXPECTED_MESSAGE;
@@ -102,6 +104,8 @@ public class CreateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
+        // the session read while stabilizing is the read result
+        verify(proxyMacie2Client, times(1)).injectCredentialsAndInvokeV2(any(GetMacieSessionRequest.class), any());
     }
 
     @Test
@@ -0,0 +1,106 @@
+package software.amazon.macie.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.awssdk.services.macie2.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+
+public class ErrorClassifierTest {
+
+    private final ErrorClassifier classifier = new ErrorClassifier(false,
+        ErrorClassifier.onType(ResourceNotFoundException.class, HandlerErrorCode.NotFound),
+        ErrorClassifier.onErrorCode("ThrottlingException", HandlerErrorCode.Throttling),
+        ErrorClassifier.onMessage("Macie is not enabled", HandlerErrorCode.AccessDenied),
+        ErrorClassifier.onStatusCode(404, HandlerErrorCode.NotFound));
+
+    @Test
+    public void classify_UsesFirstMatchingRule() {
+        assertThat(classifier.classify(ResourceNotFoundException.builder().build())).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(classifier.classify(serviceException(400, "ThrottlingException", "Rate exceeded"))).isEqualTo(HandlerErrorCode.Throttling);
+        assertThat(classifier.classify(serviceException(404, "ValidationException", "Macie is not enabled")))
+            .isEqualTo(HandlerErrorCode.AccessDenied);
+        assertThat(classifier.classify(serviceException(404, "ValidationException", "Filter not found"))).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    public void classify_ToleratesMissingMessageAndErrorDetails() {
+        assertThat(classifier.classify(Macie2Exception.builder().build())).isNull();
+        assertThat(classifier.classify(new IllegalStateException())).isNull();
+    }
+
+    @Test
+    public void classify_MatchesMessageTextLiterally() {
+        final ErrorClassifier literal = new ErrorClassifier(false, ErrorClassifier.onMessage("A unique name is required.", HandlerErrorCode.AlreadyExists));
+
+        assertThat(literal.classify(serviceException(400, "ValidationException", "A unique name is required."))).isEqualTo(HandlerErrorCode.AlreadyExists);
+        assertThat(literal.classify(serviceException(400, "ValidationException", "A unique name is required?"))).isNull();
+    }
+
+    @Test
+    public void classify_RequiresEveryCriterionOfARule() {
+        final ErrorClassifier typed = new ErrorClassifier(false,
+            ErrorClassifier.onStatusCode(Macie2Exception.class, 404, HandlerErrorCode.NotFound));
+
+        assertThat(typed.classify(serviceException(404, "ValidationException", "Filter not found"))).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(typed.classify(serviceException(400, "ValidationException", "Filter not found"))).isNull();
+        assertThat(typed.classify(otherServiceException(404))).isNull();
+    }
+
+    @Test
+    public void forMacie_ClassifiesMacieFailures() {
+        final ErrorClassifier macie = ErrorClassifier.forMacie(HandlerErrorCode.AccessDenied);
+
+        assertThat(macie.classify(serviceException(403, "AccessDeniedException", ErrorClassifier.MACIE_NOT_ENABLED)))
+            .isEqualTo(HandlerErrorCode.AccessDenied);
+        assertThat(ErrorClassifier.forMacie(HandlerErrorCode.NotFound)
+            .classify(serviceException(403, "AccessDeniedException", ErrorClassifier.MACIE_NOT_ENABLED))).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(macie.classify(ResourceNotFoundException.builder().build())).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(macie.classify(serviceException(404, "ValidationException", "Filter not found"))).isEqualTo(HandlerErrorCode.NotFound);
+        assertThat(macie.classify(serviceException(400, "ValidationException", ErrorClassifier.FILTER_ALREADY_EXISTS)))
+            .isEqualTo(HandlerErrorCode.AlreadyExists);
+        assertThat(macie.classify(serviceException(409, "ConflictException", ErrorClassifier.MACIE_ALREADY_ENABLED)))
+            .isEqualTo(HandlerErrorCode.AlreadyExists);
+        // a 404 from another service, an STS call made for the credentials for example, says nothing about the Macie resource
+        assertThat(macie.classify(otherServiceException(404))).isNull();
+    }
+
+    @Test
+    public void log_WritesCompactRecordWithoutStackTrace() {
+        final StringBuilder logged = new StringBuilder();
+        final Logger logger = logged::append;
+
+        classifier.log(logger, "macie2::op", "999999999999", serviceException(404, "ValidationException", "Filter not found"),
+            HandlerErrorCode.NotFound);
+
+        assertThat(logged.toString())
+            .contains("operation=macie2::op", "awsAccountId=999999999999", "errorCode=ValidationException", "statusCode=404",
+                "classification=NotFound")
+            .doesNotContain("\tat ");
+    }
+
+    private Macie2Exception serviceException(final int statusCode, final String errorCode, final String errorMessage) {
+        return (Macie2Exception) Macie2Exception.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(errorCode)
+                .errorMessage(errorMessage)
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build())
+            .build();
+    }
+
+    private AwsServiceException otherServiceException(final int statusCode) {
+        return AwsServiceException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode("NoSuchEntity")
+                .errorMessage("not found")
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,225 @@
+package software.amazon.macie.session;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.AccessDeniedException;
+import software.amazon.awssdk.services.macie2.model.ConflictException;
+import software.amazon.awssdk.services.macie2.model.DisableMacieRequest;
+import software.amazon.awssdk.services.macie2.model.DisableMacieResponse;
+import software.amazon.awssdk.services.macie2.model.EnableMacieRequest;
+import software.amazon.awssdk.services.macie2.model.EnableMacieResponse;
+import software.amazon.awssdk.services.macie2.model.GetMacieSessionRequest;
+import software.amazon.awssdk.services.macie2.model.GetMacieSessionResponse;
+import software.amazon.awssdk.services.macie2.model.InternalServerException;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+import software.amazon.awssdk.services.macie2.model.ThrottlingException;
+import software.amazon.awssdk.services.macie2.model.UpdateMacieSessionRequest;
+import software.amazon.awssdk.services.macie2.model.UpdateMacieSessionResponse;
+
+/**
+ * In-process stand-in for Macie for one account and region, with only the operations the session handlers call. It keeps the Macie
+ * session in memory, so handlers can run against it unchanged through {@code proxy.newProxy(() -> fake)}.
+ *
+ * Every operation can be given a latency distribution, a throttling rate and a 5xx rate, either by SDK operation name
+ * (for example {@code UpdateMacieSession}) or for {@link #ALL_OPERATIONS}. Faults are drawn before the operation touches any
+ * state, the same way a throttled or failed request never reaches the real service. Faults and latencies come from generators with
+ * a fixed seed, so a single threaded test sees the same draws on every run. The client is thread safe.
+ */
+final class FakeMacie2Client implements Macie2Client {
+
+    static final String ALL_OPERATIONS = "*";
+
+    static final String MACIE_NOT_ENABLED = "Macie is not enabled";
+    static final String MACIE_ALREADY_ENABLED = "Macie has already been enabled";
+
+    private static final String ACCOUNT_ID = "123456789012";
+    private static final String ENABLED = "ENABLED";
+    private static final long SEED = 42;
+
+    private final Map<String, LongSupplier> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Double> throttleRates = new ConcurrentHashMap<>();
+    private final Map<String, Double> serverErrorRates = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> invocations = new ConcurrentHashMap<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final Random faults = new Random(SEED);
+
+    // guarded by this
+    private GetMacieSessionResponse session;
+
+    static LongSupplier fixedLatency(final long millis) {
+        return () -> millis;
+    }
+
+    /**
+     * Long tailed latency: the median is {@code medianMillis}, {@code sigma} controls how far p99 sits from it.
+     */
+    static LongSupplier logNormalLatency(final double medianMillis, final double sigma) {
+        final Random random = new Random(SEED);
+        return () -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    FakeMacie2Client withLatency(final String operation, final LongSupplier latencyMillis) {
+        latencies.put(operation, latencyMillis);
+        return this;
+    }
+
+    FakeMacie2Client withThrottleRate(final String operation, final double rate) {
+        throttleRates.put(operation, rate);
+        return this;
+    }
+
+    FakeMacie2Client withServerErrorRate(final String operation, final double rate) {
+        serverErrorRates.put(operation, rate);
+        return this;
+    }
+
+    long invocations(final String operation) {
+        final AtomicLong count = invocations.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    long throttled() {
+        return throttled.get();
+    }
+
+    long serverErrors() {
+        return serverErrors.get();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // Macie session
+
+    @Override
+    public EnableMacieResponse enableMacie(final EnableMacieRequest request) {
+        call("EnableMacie");
+        synchronized (this) {
+            if (session != null) {
+                throw error(ConflictException.builder(), 409, "ConflictException", MACIE_ALREADY_ENABLED);
+            }
+            final Instant now = Instant.now();
+            session = GetMacieSessionResponse.builder()
+                .status(request.statusAsString() == null ? ENABLED : request.statusAsString())
+                .findingPublishingFrequency(request.findingPublishingFrequencyAsString() == null
+                    ? "SIX_HOURS" : request.findingPublishingFrequencyAsString())
+                .serviceRole(String.format("arn:aws:iam::%s:role/aws-service-role/macie.amazonaws.com/AWSServiceRoleForAmazonMacie", ACCOUNT_ID))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        }
+        return EnableMacieResponse.builder().build();
+    }
+
+    @Override
+    public GetMacieSessionResponse getMacieSession(final GetMacieSessionRequest request) {
+        call("GetMacieSession");
+        synchronized (this) {
+            return requireSession();
+        }
+    }
+
+    @Override
+    public UpdateMacieSessionResponse updateMacieSession(final UpdateMacieSessionRequest request) {
+        call("UpdateMacieSession");
+        synchronized (this) {
+            final GetMacieSessionResponse.Builder updated = requireSession().toBuilder().updatedAt(Instant.now());
+            if (request.statusAsString() != null) {
+                updated.status(request.statusAsString());
+            }
+            if (request.findingPublishingFrequencyAsString() != null) {
+                updated.findingPublishingFrequency(request.findingPublishingFrequencyAsString());
+            }
+            session = updated.build();
+        }
+        return UpdateMacieSessionResponse.builder().build();
+    }
+
+    @Override
+    public DisableMacieResponse disableMacie(final DisableMacieRequest request) {
+        call("DisableMacie");
+        synchronized (this) {
+            requireSession();
+            session = null;
+        }
+        return DisableMacieResponse.builder().build();
+    }
+
+    /**
+     * Counts the call, waits for the configured latency and throws the injected fault, if one is drawn.
+     */
+    private void call(final String operation) {
+        invocations.computeIfAbsent(operation, o -> new AtomicLong()).incrementAndGet();
+
+        final LongSupplier latency = setting(latencies, operation);
+        if (latency != null) {
+            sleep(latency.getAsLong());
+        }
+
+        final double draw = faults.nextDouble();
+        final double throttleRate = rate(throttleRates, operation);
+        if (draw < throttleRate) {
+            throttled.incrementAndGet();
+            throw error(ThrottlingException.builder(), 429, "ThrottlingException", "Rate exceeded");
+        }
+        if (draw < throttleRate + rate(serverErrorRates, operation)) {
+            serverErrors.incrementAndGet();
+            throw error(InternalServerException.builder(), 500, "InternalServerException", "Internal server error");
+        }
+    }
+
+    private GetMacieSessionResponse requireSession() {
+        if (session == null) {
+            throw error(AccessDeniedException.builder(), 403, "AccessDeniedException", MACIE_NOT_ENABLED);
+        }
+        return session;
+    }
+
+    private <T> T setting(final Map<String, T> settings, final String operation) {
+        final T value = settings.get(operation);
+        return value != null ? value : settings.get(ALL_OPERATIONS);
+    }
+
+    private double rate(final Map<String, Double> rates, final String operation) {
+        final Double rate = setting(rates, operation);
+        return rate == null ? 0 : rate;
+    }
+
+    private static void sleep(final long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Macie2Exception error(final Macie2Exception.Builder builder, final int statusCode, final String errorCode, final String message) {
+        return (Macie2Exception) builder
+            .message(message)
+            .statusCode(statusCode)
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(errorCode)
+                .errorMessage(message)
+                .serviceName(SERVICE_NAME)
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build())
+            .build();
+    }
+}
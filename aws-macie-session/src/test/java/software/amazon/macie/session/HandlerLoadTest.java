@@ -0,0 +1,132 @@
+package software.amazon.macie.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static software.amazon.macie.session.FakeMacie2Client.ALL_OPERATIONS;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.macie2.Macie2Client;
+import software.amazon.awssdk.services.macie2.model.FindingPublishingFrequency;
+import software.amazon.awssdk.services.macie2.model.MacieStatus;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * Runs concurrent enable, update and disable flows through the unchanged handlers against {@link FakeMacie2Client} with latency,
+ * throttling and 5xx injection. A Macie session is one per account, so every flow gets its own fake account.
+ * <p>
+ * The concurrent run is tagged {@code load} and only runs with {@code mvn -Pload-test test}, its thread interleaving and timing
+ * differ from run to run.
+ */
+public class HandlerLoadTest {
+
+    private static final Credentials MOCK_CREDENTIALS = new Credentials("accessKey", "secretKey", "token");
+    private static final int FLOWS = 200;
+    private static final int THREADS = 32;
+    // retried errors come back as IN_PROGRESS, CloudFormation would re-invoke the handler that many times at most here
+    private static final int MAX_INVOCATIONS = 20;
+
+    private final LoggerProxy logger = new LoggerProxy();
+
+    @Test
+    @Tag("load")
+    public void concurrentFlows_SucceedDespiteInjectedFaults() throws Exception {
+        final List<FakeMacie2Client> accounts = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> flows = new ArrayList<>();
+            for (int i = 0; i < FLOWS; i++) {
+                final FakeMacie2Client macie2 = new FakeMacie2Client()
+                    .withLatency(ALL_OPERATIONS, FakeMacie2Client.logNormalLatency(2, 0.5))
+                    .withThrottleRate(ALL_OPERATIONS, 0.05)
+                    .withServerErrorRate(ALL_OPERATIONS, 0.01)
+                    // a failed stabilization poll backs off for seconds in process, keep the polls clean so the run stays short
+                    .withThrottleRate("GetMacieSession", 0)
+                    .withServerErrorRate("GetMacieSession", 0);
+                accounts.add(macie2);
+                final String accountId = String.format("%012d", i);
+                flows.add(executor.submit(() -> enableUpdateDisable(macie2, accountId)));
+            }
+            for (final Future<?> flow : flows) {
+                flow.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long faults = 0;
+        for (final FakeMacie2Client macie2 : accounts) {
+            assertThat(macie2.invocations("DisableMacie")).isPositive();
+            faults += macie2.throttled() + macie2.serverErrors();
+        }
+        assertThat(faults).isPositive();
+    }
+
+    private void enableUpdateDisable(final FakeMacie2Client macie2, final String accountId) {
+        final ProgressEvent<ResourceModel, CallbackContext> enabled = drive(macie2, new CreateHandler(),
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId(accountId)
+                .clientRequestToken("enable-" + accountId)
+                .desiredResourceState(ResourceModel.builder()
+                    .status(MacieStatus.ENABLED.toString())
+                    .findingPublishingFrequency(FindingPublishingFrequency.SIX_HOURS.toString())
+                    .build())
+                .build());
+        assertThat(enabled.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ResourceModel model = enabled.getResourceModel();
+
+        final ProgressEvent<ResourceModel, CallbackContext> updated = drive(macie2, new UpdateHandler(),
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId(accountId)
+                .desiredResourceState(ResourceModel.builder()
+                    .status(model.getStatus())
+                    .findingPublishingFrequency(FindingPublishingFrequency.FIFTEEN_MINUTES.toString())
+                    .build())
+                .previousResourceState(model)
+                .build());
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(updated.getResourceModel().getFindingPublishingFrequency()).isEqualTo(FindingPublishingFrequency.FIFTEEN_MINUTES.toString());
+
+        final ProgressEvent<ResourceModel, CallbackContext> disabled = drive(macie2, new DeleteHandler(),
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId(accountId)
+                .desiredResourceState(ResourceModel.builder().build())
+                .build());
+        assertThat(disabled.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    /**
+     * Invokes the handler the way CloudFormation does, passing the callback context back in while it reports progress. The callback delay
+     * is not waited out, the fake recovers immediately.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> drive(final Macie2Client macie2, final BaseMacieSessionHandler handler,
+        final ResourceHandlerRequest<ResourceModel> request) {
+        CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> event = null;
+        for (int i = 0; i < MAX_INVOCATIONS; i++) {
+            final AmazonWebServicesClientProxy proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS,
+                () -> Duration.ofSeconds(600).toMillis());
+            final ProxyClient<Macie2Client> proxyClient = proxy.newProxy(() -> macie2);
+            event = handler.handleRequest(proxy, request, callbackContext, proxyClient, logger);
+            if (event.getStatus() != OperationStatus.IN_PROGRESS) {
+                return event;
+            }
+            if (event.getCallbackContext() != null) {
+                callbackContext = event.getCallbackContext();
+            }
+        }
+        return event;
+    }
+}
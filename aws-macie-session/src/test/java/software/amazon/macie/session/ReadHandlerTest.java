@@ -42,6 +42,7 @@ public class ReadHandlerTest {
     @Mock
     private ProxyClient<Macie2Client> proxyMacie2Client;
 
+
     @Mock
     private Macie2Client macie2;
 
@@ -95,6 +96,58 @@ public class ReadHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_Throttled_FailsWithoutCallbackDelay() {
+        AwsServiceException throttlingException = Macie2Exception.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode("ThrottlingException")
+                .errorMessage("Rate exceeded")
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(429).build())
+                .build()
+            )
+            .build();
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetMacieSessionRequest.class), any())).thenThrow(throttlingException);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().build())
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        // Read can't return IN_PROGRESS, CloudFormation retries a throttled read itself
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getCallbackContext()).isNull();
+    }
+
+    @Test
+    public void handleRequest_ServerError_FailsWithoutCallbackDelay() {
+        AwsServiceException serverException = Macie2Exception.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode("InternalServerException")
+                .errorMessage("Internal error")
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(500).build())
+                .build()
+            )
+            .build();
+        when(proxyMacie2Client.client()).thenReturn(macie2);
+        when(proxyMacie2Client.injectCredentialsAndInvokeV2(any(GetMacieSessionRequest.class), any())).thenThrow(serverException);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().build())
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+    }
+
     @Test
     public void handleRequest_NotFound() {
         AwsServiceException macieNotEnabledException = Macie2Exception.builder()
@@ -0,0 +1,49 @@
+package software.amazon.macie.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.macie2.model.Macie2Exception;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void isRetryable_ClassifiesThrottlingServerAndNetworkErrors() {
+        assertThat(RetryPolicy.isRetryable(serviceException(429, "ThrottlingException"))).isTrue();
+        assertThat(RetryPolicy.isRetryable(serviceException(400, "ThrottlingException"))).isTrue();
+        assertThat(RetryPolicy.isRetryable(serviceException(500, "InternalServerException"))).isTrue();
+        assertThat(RetryPolicy.isRetryable(serviceException(503, "ServiceUnavailable"))).isTrue();
+        assertThat(RetryPolicy.isRetryable(SdkClientException.builder().cause(new IOException("Connection reset")).build())).isTrue();
+
+        assertThat(RetryPolicy.isRetryable(serviceException(403, "AccessDeniedException"))).isFalse();
+        assertThat(RetryPolicy.isRetryable(SdkClientException.builder().message("Unable to marshall request").build())).isFalse();
+        assertThat(RetryPolicy.isRetryable(Macie2Exception.builder().message("no error details").build())).isFalse();
+    }
+
+    @Test
+    public void callbackDelaySeconds_BacksOffExponentiallyUpToMaxDelay() {
+        assertThat(RetryPolicy.callbackDelaySeconds(1, Duration.ZERO, 0.0)).isEqualTo(1);
+        assertThat(RetryPolicy.callbackDelaySeconds(1, Duration.ZERO, 1.0)).isEqualTo(2);
+        assertThat(RetryPolicy.callbackDelaySeconds(3, Duration.ZERO, 1.0)).isEqualTo(8);
+        assertThat(RetryPolicy.callbackDelaySeconds(20, Duration.ZERO, 1.0)).isEqualTo((int) RetryPolicy.MAX_DELAY.getSeconds());
+    }
+
+    @Test
+    public void callbackDelaySeconds_WaitsForRetryToken() {
+        assertThat(RetryPolicy.callbackDelaySeconds(1, Duration.ofMillis(4500), 0.0)).isEqualTo(5);
+    }
+
+    private Macie2Exception serviceException(final int statusCode, final String errorCode) {
+        return (Macie2Exception) Macie2Exception.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(errorCode)
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(statusCode).build())
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,63 @@
+package software.amazon.macie.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StabilizationBackoffTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private CallbackContext context;
+
+    @BeforeEach
+    public void setup() {
+        clock.set(1_000_000L);
+        context = new CallbackContext();
+        context.setStabilizationStartedAt(clock.get());
+    }
+
+    @Test
+    public void nextDelay_GrowsExponentiallyWithinJitterBounds() {
+        final StabilizationBackoff lowJitter = backoff(0.0);
+        final StabilizationBackoff highJitter = backoff(1.0);
+
+        context.setStabilizationAttempts(1);
+        assertThat(lowJitter.nextDelay(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(highJitter.nextDelay(1)).isEqualTo(Duration.ofSeconds(2));
+
+        context.setStabilizationAttempts(3);
+        assertThat(lowJitter.nextDelay(1)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(highJitter.nextDelay(1)).isEqualTo(Duration.ofSeconds(8));
+    }
+
+    @Test
+    public void nextDelay_IsCappedAtMaxDelay() {
+        context.setStabilizationAttempts(40);
+
+        assertThat(backoff(1.0).nextDelay(1)).isEqualTo(StabilizationBackoff.MAX_DELAY);
+    }
+
+    @Test
+    public void nextDelay_NeverWaitsPastDeadline() {
+        context.setStabilizationAttempts(10);
+        clock.addAndGet(StabilizationBackoff.TIMEOUT.minusSeconds(5).toMillis());
+
+        assertThat(backoff(1.0).nextDelay(1)).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void nextDelay_ReturnsZeroAfterDeadline() {
+        context.setStabilizationAttempts(10);
+        clock.addAndGet(StabilizationBackoff.TIMEOUT.toMillis());
+
+        assertThat(backoff(0.5).nextDelay(1)).isEqualTo(Duration.ZERO);
+    }
+
+    private StabilizationBackoff backoff(final double jitter) {
+        return new StabilizationBackoff(context, StabilizationBackoff.BASE_DELAY, StabilizationBackoff.MAX_DELAY, StabilizationBackoff.TIMEOUT,
+            clock::get, () -> jitter);
+    }
+}
@@ -3,6 +3,7 @@ package software.amazon.macie.session;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static software.amazon.macie.session.BaseMacieSessionHandler.MACIE_NOT_ENABLED;
 import static software.amazon.macie.session.BaseMacieSessionHandler.MACIE_NOT_ENABLED_EXPECTED_MESSAGE;
@@ -104,6 +105,32 @@ public class UpdateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_NoChanges_SkipsApiCalls() {
+        final ResourceModel previousModel = ResourceModel.builder()
+            .status("PAUSED")
+            .awsAccountId(TEST_ACCOUNT_ID)
+            .serviceRole(String.format(SERVICE_ROLE, TEST_AWS_PARTITION, TEST_ACCOUNT_ID))
+            .findingPublishingFrequency("SIX_HOURS")
+            .build();
+        final ResourceModel model = ResourceModel.builder()
+            .status("PAUSED")
+            .findingPublishingFrequency("SIX_HOURS")
+            .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId(TEST_ACCOUNT_ID)
+            .awsPartition(TEST_AWS_PARTITION)
+            .desiredResourceState(model)
+            .previousResourceState(previousModel)
+            .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response
+            = handler.handleRequest(proxy, request, new CallbackContext(), proxyMacie2Client, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(previousModel);
+        verifyZeroInteractions(proxyMacie2Client);
+    }
+
     @Test
     public void handleRequest_NotFound() {
         AwsServiceException macieNotEnabledException = Macie2Exception.builder()